@@ -0,0 +1,213 @@
+/*
+ * Copyright 2025 GAIM-TECH-OM
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package org.killbill.billing.plugin.ompay;
+
+import java.io.UnsupportedEncodingException;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+import org.joda.time.DateTime;
+import org.jooby.Request;
+import org.jooby.Result;
+import org.jooby.Results;
+import org.jooby.Status;
+import org.jooby.mvc.GET;
+import org.jooby.mvc.POST;
+import org.jooby.mvc.Path;
+import org.killbill.billing.osgi.libs.killbill.OSGIKillbillClock;
+import org.killbill.billing.payment.api.PluginProperty;
+import org.killbill.billing.payment.plugin.api.PaymentPluginApiException;
+import org.killbill.billing.payment.plugin.api.PaymentPluginStatus;
+import org.killbill.billing.payment.plugin.api.PaymentTransactionInfoPlugin;
+import org.killbill.billing.plugin.api.PluginCallContext;
+import org.killbill.billing.plugin.core.PluginServlet;
+import org.killbill.billing.plugin.ompay.dao.OmPayDao;
+import org.killbill.billing.plugin.ompay.dao.gen.tables.records.OmpayResponsesRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.base.Strings;
+import com.google.common.io.BaseEncoding;
+
+/**
+ * OMPay return_url of the 3DS redirect flow, when threeDsReturn.enabled: the shopper comes back from the 3DS page
+ * through the plugin, which settles the transaction with one gateway fetch (getPaymentInfo: ompay_responses update,
+ * Kill Bill notification) and then redirects to the merchant returnUrl, instead of waiting for the webhook or a poll.
+ * A transaction the webhook already settled is not fetched again, nor is any when the plugin is overloaded: the shopper
+ * is redirected right away, once the link is verified.
+ * <p>
+ * The shopper's browser carries no Kill Bill credentials: the transaction is found by its id, and the merchant URL and
+ * an expiry time (threeDsReturn.ttlMinutes), carried in the return URL itself, are signed with the tenant's
+ * threeDsReturn.signingKey so that the route is no open redirect and its links cannot be replayed later on.
+ */
+@Singleton
+@Path("/3ds-return")
+public class OmPay3dsReturnServlet extends PluginServlet {
+
+    private static final long serialVersionUID = 1L;
+    private static final Logger logger = LoggerFactory.getLogger(OmPay3dsReturnServlet.class);
+
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+    private static final BaseEncoding HEX = BaseEncoding.base16().lowerCase();
+
+    private final transient OmPayPaymentPluginApi paymentPluginApi;
+    private final transient OmPayConfigurationHandler configurationHandler;
+    private final transient OmPayDao dao;
+    private final transient OSGIKillbillClock clock;
+    private final transient OmPayAdmissionController admissionController;
+
+    @Inject
+    public OmPay3dsReturnServlet(final OmPayPaymentPluginApi paymentPluginApi,
+                                 final OmPayConfigurationHandler configurationHandler,
+                                 final OmPayDao dao,
+                                 final OSGIKillbillClock clock,
+                                 final OmPayAdmissionController admissionController) {
+        this.paymentPluginApi = paymentPluginApi;
+        this.configurationHandler = configurationHandler;
+        this.dao = dao;
+        this.clock = clock;
+        this.admissionController = admissionController;
+    }
+
+    /**
+     * The return_url to hand to OMPay for a transaction, in place of the merchant one.
+     */
+    static String returnUrlFor(final String killbillBaseUrl,
+                               final UUID kbTransactionId,
+                               final String merchantReturnUrl,
+                               final DateTime expiresAt,
+                               final String signingKey) {
+        final String expiry = String.valueOf(expiresAt.getMillis() / 1000);
+        return killbillBaseUrl + "/plugins/" + OmPayActivator.PLUGIN_NAME + "/3ds-return"
+               + "?kbTransactionId=" + kbTransactionId
+               + "&returnUrl=" + urlEncode(merchantReturnUrl)
+               + "&exp=" + expiry
+               + "&sig=" + sign(signingKey, kbTransactionId.toString(), merchantReturnUrl, expiry);
+    }
+
+    @GET
+    @POST
+    public Result handleReturn(final Request req) {
+        final String kbTransactionIdString = req.param("kbTransactionId").toOptional().orElse(null);
+        final String merchantReturnUrl = req.param("returnUrl").toOptional().orElse(null);
+        final String expiry = req.param("exp").toOptional().orElse(null);
+        final String signature = req.param("sig").toOptional().orElse(null);
+        if (Strings.isNullOrEmpty(kbTransactionIdString) || Strings.isNullOrEmpty(merchantReturnUrl)
+            || Strings.isNullOrEmpty(expiry) || Strings.isNullOrEmpty(signature)) {
+            return Results.with("Required parameters missing (kbTransactionId, returnUrl, exp, sig)", Status.BAD_REQUEST);
+        }
+
+        return settleAndRedirect(kbTransactionIdString, merchantReturnUrl, expiry, signature);
+    }
+
+    private Result settleAndRedirect(final String kbTransactionIdString,
+                                     final String merchantReturnUrl,
+                                     final String expiry,
+                                     final String signature) {
+        try {
+            final UUID kbTransactionId = UUID.fromString(kbTransactionIdString);
+            final List<OmpayResponsesRecord> responses = dao.getLatestResponsesByKbTransactionIds(Collections.singleton(kbTransactionId));
+            if (responses.isEmpty()) {
+                return Results.with("Unknown transaction", Status.NOT_FOUND);
+            }
+            final OmpayResponsesRecord response = responses.get(0);
+
+            final OmPayConfigProperties config = configurationHandler.getConfigurable(response.getKbTenantId());
+            if (!config.isThreeDsReturnEnabled() || Strings.isNullOrEmpty(config.getThreeDsReturnSigningKey())) {
+                return Results.with("Not found", Status.NOT_FOUND);
+            }
+            final String expected = sign(config.getThreeDsReturnSigningKey(), kbTransactionIdString, merchantReturnUrl, expiry);
+            if (!MessageDigest.isEqual(expected.getBytes(StandardCharsets.US_ASCII), signature.toLowerCase().getBytes(StandardCharsets.US_ASCII))) {
+                logger.warn("Invalid 3DS return signature for transaction {}", kbTransactionId);
+                return Results.with("Invalid signature", Status.FORBIDDEN);
+            }
+            if (clock.getClock().getUTCNow().getMillis() / 1000 > Long.parseLong(expiry)) {
+                logger.warn("Expired 3DS return link for transaction {}", kbTransactionId);
+                return Results.with("Expired link", Status.FORBIDDEN);
+            }
+
+            // Settled already (webhook, poller, earlier return): nothing to fetch
+            final PaymentPluginStatus storedStatus = paymentPluginApi.mapOmpayStatusToKillBill(response.getOmpayState());
+            if (storedStatus != PaymentPluginStatus.PENDING && storedStatus != PaymentPluginStatus.UNDEFINED) {
+                logger.info("Shopper returned from 3DS for transaction {}, status {}", kbTransactionId, storedStatus);
+                return Results.redirect(merchantReturnUrl);
+            }
+
+            // Under load, no gateway fetch: the shopper goes back to the merchant right away
+            if (!admissionController.tryAdmit(true)) {
+                logger.info("Shopper returned from 3DS for transaction {}, not settled now (overloaded)", kbTransactionId);
+                return Results.redirect(merchantReturnUrl);
+            }
+            try {
+                settle(kbTransactionId, response);
+            } finally {
+                admissionController.release();
+            }
+        } catch (final IllegalArgumentException e) {
+            return Results.with("Invalid parameters: " + e.getMessage(), Status.BAD_REQUEST);
+        } catch (final Exception e) {
+            // The webhook or the poller settles the transaction anyway: the shopper still goes back to the merchant
+            logger.warn("Failed to settle transaction {} on 3DS return: {}", kbTransactionIdString, e.getMessage(), e);
+        }
+
+        return Results.redirect(merchantReturnUrl);
+    }
+
+    // One gateway fetch for the pending transaction, serialized with the webhook by the payment lanes
+    private void settle(final UUID kbTransactionId, final OmpayResponsesRecord response) throws PaymentPluginApiException {
+        final PluginCallContext context = new PluginCallContext(OmPayActivator.PLUGIN_NAME,
+                                                                clock.getClock().getUTCNow(),
+                                                                response.getKbAccountId(),
+                                                                response.getKbTenantId());
+        final List<PaymentTransactionInfoPlugin> transactions = paymentPluginApi.getPaymentInfo(response.getKbAccountId(),
+                                                                                                 response.getKbPaymentId(),
+                                                                                                 Collections.<PluginProperty>emptyList(),
+                                                                                                 context);
+        for (final PaymentTransactionInfoPlugin transaction : transactions) {
+            if (kbTransactionId.equals(transaction.getKbTransactionPaymentId())) {
+                logger.info("Shopper returned from 3DS for transaction {}, status {}", kbTransactionId, transaction.getStatus());
+            }
+        }
+    }
+
+    private static String sign(final String signingKey, final String kbTransactionId, final String merchantReturnUrl, final String expiry) {
+        try {
+            final Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(new SecretKeySpec(signingKey.getBytes(StandardCharsets.UTF_8), HMAC_ALGORITHM));
+            return HEX.encode(mac.doFinal((kbTransactionId + "\n" + merchantReturnUrl + "\n" + expiry).getBytes(StandardCharsets.UTF_8)));
+        } catch (final GeneralSecurityException e) {
+            throw new IllegalStateException("Unable to sign the 3DS return URL", e);
+        }
+    }
+
+    private static String urlEncode(final String value) {
+        try {
+            return URLEncoder.encode(value, StandardCharsets.UTF_8.name());
+        } catch (final UnsupportedEncodingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
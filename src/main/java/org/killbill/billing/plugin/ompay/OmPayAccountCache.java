@@ -0,0 +1,73 @@
+/*
+ * Copyright 2025 GAIM-TECH-OM
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package org.killbill.billing.plugin.ompay;
+
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.killbill.billing.account.api.Account;
+import org.killbill.billing.account.api.AccountApiException;
+import org.killbill.billing.osgi.libs.killbill.OSGIKillbillAPI;
+import org.killbill.billing.util.callcontext.TenantContext;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+
+/**
+ * Short-lived cache of the Kill Bill accounts, per tenant.
+ * <p>
+ * The plugin only reads the account to build the OMPay payer / billing address and to hand it back to the payment
+ * API, several times per payment flow: a snapshot a few seconds old is good enough and saves the cross-bundle calls.
+ */
+public class OmPayAccountCache {
+
+    private final OSGIKillbillAPI killbillAPI;
+    private final Cache<String, Account> accounts;
+
+    public OmPayAccountCache(final OSGIKillbillAPI killbillAPI, final OmPayConfigProperties config) {
+        this.killbillAPI = killbillAPI;
+        this.accounts = CacheBuilder.newBuilder()
+                .maximumSize(config.getAccountCacheMaxSize())
+                .expireAfterWrite(config.getAccountCacheTtlSeconds(), TimeUnit.SECONDS)
+                .build();
+    }
+
+    public Account getAccount(final UUID kbAccountId, final TenantContext context) throws AccountApiException {
+        // Tenant scoped: an account is only ever served to callers of its own tenant
+        final String key = context.getTenantId() + "/" + kbAccountId;
+        try {
+            return accounts.get(key, () -> killbillAPI.getAccountUserApi().getAccountById(kbAccountId, context));
+        } catch (final ExecutionException | UncheckedExecutionException e) {
+            if (e.getCause() instanceof AccountApiException) {
+                throw (AccountApiException) e.getCause();
+            }
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new RuntimeException(e.getCause());
+        }
+    }
+
+    /**
+     * Drop the cached account, when the plugin takes part in a change of it (payment method added, deleted or made
+     * the default). Changes made elsewhere in Kill Bill are picked up once the entry expires.
+     */
+    public void invalidate(final UUID kbAccountId, final TenantContext context) {
+        accounts.invalidate(context.getTenantId() + "/" + kbAccountId);
+    }
+}
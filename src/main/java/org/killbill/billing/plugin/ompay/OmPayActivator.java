@@ -16,8 +16,15 @@
 package org.killbill.billing.plugin.ompay;
 
 import java.util.Hashtable;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import javax.naming.InitialContext;
+import javax.naming.NamingException;
 import javax.servlet.Servlet;
 import javax.servlet.http.HttpServlet;
+import javax.sql.DataSource;
 import org.killbill.billing.osgi.api.Healthcheck;
 import org.killbill.billing.osgi.api.OSGIPluginProperties;
 import org.killbill.billing.osgi.libs.killbill.KillbillActivatorBase;
@@ -25,18 +32,36 @@ import org.killbill.billing.payment.plugin.api.PaymentPluginApi;
 import org.killbill.billing.plugin.core.config.PluginEnvironmentConfig;
 import org.killbill.billing.plugin.core.resources.jooby.PluginApp;
 import org.killbill.billing.plugin.core.resources.jooby.PluginAppBuilder;
+import org.killbill.billing.plugin.ompay.client.OmPayConcurrencyLimiter;
 import org.killbill.billing.plugin.ompay.client.OmPayHttpClient;
 import org.killbill.billing.plugin.ompay.dao.OmPayDao;
+import org.killbill.billing.plugin.ompay.dao.OmPayUuidBinding;
+import org.killbill.commons.metrics.api.MetricRegistry;
 import org.osgi.framework.BundleContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.google.common.base.Strings;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
 public class OmPayActivator extends KillbillActivatorBase {
 
     private static final Logger logger = LoggerFactory.getLogger(OmPayActivator.class);
     public static final String PLUGIN_NAME = "killbill-ompay";
 
+    private static final int REFRESH_QUEUE_CAPACITY = 100;
+    private static final String GATEWAY_LIMIT_METRIC = PLUGIN_NAME + ".gateway.concurrencyLimit";
+    private static final String GATEWAY_IN_FLIGHT_METRIC = PLUGIN_NAME + ".gateway.inFlight";
+
     private OmPayConfigurationHandler omPayConfigurationHandler;
+    private OmPayArchivalJob archivalJob;
+    private OmPayPendingTransactionPoller pendingTransactionPoller;
+    private OmPayWorkPartitioner workPartitioner;
+    private OmPayNotificationDispatcher notificationDispatcher;
+    private OmPayWebhookProcessor webhookProcessor;
+    private OmPayPaymentStatusWatcher statusWatcher;
+    private OmPayNonceRequests nonceRequests;
+    private ThreadPoolExecutor refreshExecutor;
 
     @Override
     public void start(final BundleContext context) throws Exception {
@@ -48,16 +73,73 @@ public class OmPayActivator extends KillbillActivatorBase {
         final OmPayConfigProperties globalConfiguration = omPayConfigurationHandler.createConfigurable(configProperties.getProperties());
         omPayConfigurationHandler.setDefaultConfigurable(globalConfiguration);
 
-        final OmPayDao dao = new OmPayDao(dataSource.getDataSource());
+        // Must be set before any query is issued: it drives how OmPayUuidBinding binds the kb_*_id columns
+        OmPayUuidBinding.setNativeStorage(globalConfiguration.isNativeUuidStorage());
+        final OmPayDao dao = new OmPayDao(dataSource.getDataSource(), lookupReadReplica(globalConfiguration));
         final OmPayHttpClient httpClient = new OmPayHttpClient();
 
-        final PaymentPluginApi pluginApi = new OmPayPaymentPluginApi(
+        // Shared by all the OMPay clients of the plugin
+        OmPayHttpClient.setConcurrencyLimiter(globalConfiguration.isGatewayLimiterEnabled()
+                                              ? new OmPayConcurrencyLimiter(globalConfiguration.getGatewayLimiterInitialLimit(),
+                                                                            globalConfiguration.getGatewayLimiterMinLimit(),
+                                                                            globalConfiguration.getGatewayLimiterMaxLimit(),
+                                                                            globalConfiguration.getGatewayLimiterAcquireTimeoutMillis())
+                                              : null);
+        registerGatewayMetrics();
+
+        // Bounded: when all threads are busy and the queue is full, the refresh is cancelled (never run on the caller
+        // thread, which would escape the refresh deadline) and the stored state is returned, as after a timeout
+        refreshExecutor = new ThreadPoolExecutor(globalConfiguration.getRefreshThreads(),
+                                                 globalConfiguration.getRefreshThreads(),
+                                                 60L, TimeUnit.SECONDS,
+                                                 new ArrayBlockingQueue<Runnable>(REFRESH_QUEUE_CAPACITY),
+                                                 new ThreadFactoryBuilder().setNameFormat("ompay-refresh-%d").setDaemon(true).build(),
+                                                 (rejected, executor) -> {
+                                                     if (rejected instanceof Future) {
+                                                         ((Future<?>) rejected).cancel(false);
+                                                     }
+                                                 });
+        refreshExecutor.allowCoreThreadTimeOut(true);
+
+        workPartitioner = new OmPayWorkPartitioner(dao, clock, globalConfiguration);
+        workPartitioner.start();
+
+        final OmPayAccountCache accountCache = new OmPayAccountCache(killbillAPI, globalConfiguration);
+        notificationDispatcher = new OmPayNotificationDispatcher(dao, killbillAPI, accountCache, workPartitioner, clock, globalConfiguration);
+        notificationDispatcher.start();
+
+        statusWatcher = new OmPayPaymentStatusWatcher(dao, clock, globalConfiguration);
+        statusWatcher.start();
+
+        final OmPayPaymentPluginApi pluginApi = new OmPayPaymentPluginApi(
                 omPayConfigurationHandler,
                 killbillAPI,
                 clock,
-                dao);
+                dao,
+                refreshExecutor,
+                accountCache,
+                notificationDispatcher,
+                new OmPayPaymentLanes(globalConfiguration.getLanesWaitTimeoutMillis()),
+                new OmPayKnownTransactions(dao, clock, globalConfiguration),
+                statusWatcher);
         registerPaymentPluginApi(context, pluginApi);
 
+        webhookProcessor = new OmPayWebhookProcessor(dao, pluginApi, workPartitioner, clock, globalConfiguration);
+        webhookProcessor.start();
+
+        if (globalConfiguration.isPollerEnabled()) {
+            pendingTransactionPoller = new OmPayPendingTransactionPoller(dao, pluginApi, workPartitioner, clock, globalConfiguration);
+            pendingTransactionPoller.start();
+        }
+
+        if (globalConfiguration.isArchivalEnabled()) {
+            archivalJob = new OmPayArchivalJob(dao, workPartitioner, clock, globalConfiguration);
+            archivalJob.start();
+        }
+
+        nonceRequests = new OmPayNonceRequests(dao, clock, globalConfiguration);
+        nonceRequests.start();
+
         final Healthcheck healthcheck = new OmPayHealthcheck(omPayConfigurationHandler);
         registerHealthcheck(context, healthcheck);
 
@@ -70,11 +152,17 @@ public class OmPayActivator extends KillbillActivatorBase {
                 .withRouteClass(OmPayNonceHandlerServlet.class)
                 .withRouteClass(OmPayWebhookServlet.class)
                 .withRouteClass(OmPayFormServlet.class)
+                .withRouteClass(OmPayPaymentStatusServlet.class)
+                .withRouteClass(OmPay3dsReturnServlet.class)
                 .withService(pluginApi)
                 .withService(clock)
                 .withService(dao)
                 .withService(omPayConfigurationHandler)
                 .withService(httpClient)
+                .withService(webhookProcessor)
+                .withService(statusWatcher)
+                .withService(nonceRequests)
+                .withService(new OmPayAdmissionController(globalConfiguration))
                 .withService(healthcheck)
                 .build();
 
@@ -86,9 +174,81 @@ public class OmPayActivator extends KillbillActivatorBase {
     @Override
     public void stop(final BundleContext context) throws Exception {
         logger.info("Stopping OmPay plugin activator");
+        if (pendingTransactionPoller != null) {
+            pendingTransactionPoller.stop();
+            pendingTransactionPoller = null;
+        }
+        if (archivalJob != null) {
+            archivalJob.stop();
+            archivalJob = null;
+        }
+        if (webhookProcessor != null) {
+            webhookProcessor.stop();
+            webhookProcessor = null;
+        }
+        if (nonceRequests != null) {
+            nonceRequests.stop();
+            nonceRequests = null;
+        }
+        if (statusWatcher != null) {
+            statusWatcher.stop();
+            statusWatcher = null;
+        }
+        if (notificationDispatcher != null) {
+            notificationDispatcher.stop();
+            notificationDispatcher = null;
+        }
+        if (workPartitioner != null) {
+            workPartitioner.stop();
+            workPartitioner = null;
+        }
+        if (refreshExecutor != null) {
+            refreshExecutor.shutdownNow();
+            refreshExecutor = null;
+        }
+        unregisterGatewayMetrics();
+        OmPayHttpClient.setConcurrencyLimiter(null);
         super.stop(context);
     }
 
+    // Read-only replica for the listing queries, exposed by the container under a JNDI name
+    private DataSource lookupReadReplica(final OmPayConfigProperties config) {
+        final String jndiName = config.getReadReplicaJndiName();
+        if (Strings.isNullOrEmpty(jndiName)) {
+            return null;
+        }
+        try {
+            final DataSource readReplica = (DataSource) new InitialContext().lookup(jndiName);
+            logger.info("Routing OmPay read-only queries to {}", jndiName);
+            return readReplica;
+        } catch (final NamingException | ClassCastException e) {
+            logger.warn("Read replica {} unavailable, all queries will use the primary: {}", jndiName, e.getMessage());
+            return null;
+        }
+    }
+
+    // Adaptive limit of the OMPay calls and calls in flight, published with the Kill Bill metrics
+    private void registerGatewayMetrics() {
+        final MetricRegistry registry = metricRegistry != null ? metricRegistry.getMetricRegistry() : null;
+        if (registry == null) {
+            logger.info("No metric registry available, OMPay gateway metrics not published");
+            return;
+        }
+        registry.gauge(GATEWAY_LIMIT_METRIC, () -> {
+            final OmPayConcurrencyLimiter limiter = OmPayHttpClient.getConcurrencyLimiter();
+            return limiter != null ? limiter.getLimit() : 0;
+        });
+        registry.gauge(GATEWAY_IN_FLIGHT_METRIC, OmPayHttpClient::getInFlightRequests);
+    }
+
+    private void unregisterGatewayMetrics() {
+        final MetricRegistry registry = metricRegistry != null ? metricRegistry.getMetricRegistry() : null;
+        if (registry != null) {
+            registry.remove(GATEWAY_LIMIT_METRIC);
+            registry.remove(GATEWAY_IN_FLIGHT_METRIC);
+        }
+    }
+
     private void registerPaymentPluginApi(final BundleContext context, final PaymentPluginApi api) {
         final Hashtable<String, String> props = new Hashtable<>();
         props.put(OSGIPluginProperties.PLUGIN_NAME_PROP, PLUGIN_NAME);
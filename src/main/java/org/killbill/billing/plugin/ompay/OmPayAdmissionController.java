@@ -0,0 +1,100 @@
+/*
+ * Copyright 2025 GAIM-TECH-OM
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package org.killbill.billing.plugin.ompay;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.jooby.Result;
+import org.jooby.Results;
+import org.jooby.Status;
+import org.killbill.billing.plugin.ompay.client.OmPayConcurrencyLimiter;
+import org.killbill.billing.plugin.ompay.client.OmPayHttpClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Load shedding of the plugin routes (/process-nonce, /form, /webhook): when the gateway slows down, the requests
+ * beyond the limits are turned away right away with a 503 and a Retry-After, instead of piling up until every thread
+ * is stuck and all requests time out. The admitted requests keep their usual latency.
+ * <p>
+ * A request is admitted while fewer than admission.maxConcurrentRequests admitted requests are still in progress
+ * (running or queued, e.g. on the checkout pool) and, for the routes calling OMPay, while fewer than
+ * admission.maxGatewayCalls OMPay calls are in flight or waiting for a slot of the gateway limiter. A limit of 0
+ * disables the check. The gateway limiter usually allows far fewer calls than admission.maxGatewayCalls: the routes
+ * calling OMPay are also turned away once as many calls wait for a slot as the limiter lets through.
+ */
+public class OmPayAdmissionController {
+
+    private static final Logger logger = LoggerFactory.getLogger(OmPayAdmissionController.class);
+
+    private final OmPayConfigProperties config;
+    private final AtomicInteger inProgress = new AtomicInteger();
+    private final AtomicLong rejected = new AtomicLong();
+
+    public OmPayAdmissionController(final OmPayConfigProperties config) {
+        this.config = config;
+    }
+
+    /**
+     * @param callsGateway Whether the request calls OMPay
+     * @return true if the request is admitted, it must then {@link #release} once done
+     */
+    public boolean tryAdmit(final boolean callsGateway) {
+        if (callsGateway && isGatewaySaturated()) {
+            return reject();
+        }
+        if (inProgress.incrementAndGet() > config.getAdmissionMaxConcurrentRequests() && config.getAdmissionMaxConcurrentRequests() > 0) {
+            inProgress.decrementAndGet();
+            return reject();
+        }
+        return true;
+    }
+
+    public void release() {
+        inProgress.decrementAndGet();
+    }
+
+    /**
+     * The answer to a request which was not admitted.
+     */
+    public Result overloaded() {
+        return Results.with("Service temporarily overloaded, please retry", Status.SERVICE_UNAVAILABLE)
+                .header("Retry-After", config.getAdmissionRetryAfterSeconds())
+                .header("Content-Type", "text/plain");
+    }
+
+    private boolean isGatewaySaturated() {
+        final OmPayConcurrencyLimiter limiter = OmPayHttpClient.getConcurrencyLimiter();
+        final int waiting = limiter != null ? limiter.getWaiting() : 0;
+        if (config.getAdmissionMaxGatewayCalls() > 0
+            && OmPayHttpClient.getInFlightRequests() + waiting >= config.getAdmissionMaxGatewayCalls()) {
+            return true;
+        }
+        // A new call would likely wait until the limiter times it out
+        return limiter != null && waiting >= limiter.getLimit();
+    }
+
+    private boolean reject() {
+        final long count = rejected.incrementAndGet();
+        // One line per hundred rejections: shedding happens precisely when the node is busy
+        if (count % 100 == 1) {
+            logger.warn("OMPay plugin overloaded ({} requests in progress, {} gateway calls in flight), {} requests rejected so far",
+                        inProgress.get(), OmPayHttpClient.getInFlightRequests(), count);
+        }
+        return false;
+    }
+}
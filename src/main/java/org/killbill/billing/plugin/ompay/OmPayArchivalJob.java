@@ -0,0 +1,110 @@
+/*
+ * Copyright 2025 GAIM-TECH-OM
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package org.killbill.billing.plugin.ompay;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.joda.time.DateTime;
+import org.killbill.billing.osgi.libs.killbill.OSGIKillbillClock;
+import org.killbill.billing.plugin.ompay.dao.OmPayDao;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * Background job moving the payments idle for the retention period (no response since, none pending) from
+ * ompay_responses (and ompay_response_payloads) to the archive tables.
+ * Work is done in small batches with a pause in between, so that it never competes with payment traffic.
+ */
+public class OmPayArchivalJob {
+
+    private static final Logger logger = LoggerFactory.getLogger(OmPayArchivalJob.class);
+
+    private final OmPayDao dao;
+    private final OmPayWorkPartitioner partitioner;
+    private final OSGIKillbillClock clock;
+    private final OmPayConfigProperties config;
+
+    private ScheduledExecutorService executor;
+
+    public OmPayArchivalJob(final OmPayDao dao, final OmPayWorkPartitioner partitioner, final OSGIKillbillClock clock, final OmPayConfigProperties config) {
+        this.dao = dao;
+        this.partitioner = partitioner;
+        this.clock = clock;
+        this.config = config;
+    }
+
+    public void start() {
+        executor = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder()
+                .setNameFormat("ompay-archival-%d")
+                .setDaemon(true)
+                .build());
+        // First run is delayed so that plugin startup is not slowed down
+        executor.scheduleWithFixedDelay(this::run,
+                config.getArchivalIntervalMinutes(),
+                config.getArchivalIntervalMinutes(),
+                TimeUnit.MINUTES);
+        logger.info("OMPay archival job scheduled every {} minutes (retention: {} days)",
+                config.getArchivalIntervalMinutes(), config.getArchivalRetentionDays());
+    }
+
+    public void stop() {
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+    }
+
+    void run() {
+        // One node of the cluster is enough, the batches are already paced
+        if (!partitioner.isLeader()) {
+            return;
+        }
+        final DateTime cutoff = clock.getClock().getUTCNow().minusDays(config.getArchivalRetentionDays());
+        int archivedPayments = 0;
+        int archivedResponses = 0;
+
+        try {
+            for (int batch = 0; batch < config.getArchivalMaxBatchesPerRun(); batch++) {
+                final List<UUID> kbPaymentIds = dao.getArchivableKbPaymentIds(cutoff, config.getArchivalBatchSize());
+                if (kbPaymentIds.isEmpty()) {
+                    break;
+                }
+
+                archivedResponses += dao.archivePayments(kbPaymentIds);
+                archivedPayments += kbPaymentIds.size();
+
+                if (kbPaymentIds.size() < config.getArchivalBatchSize()) {
+                    break;
+                }
+                Thread.sleep(config.getArchivalBatchPauseMillis());
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (final Exception e) {
+            logger.warn("OMPay archival run failed: {}", e.getMessage(), e);
+        }
+
+        if (archivedPayments > 0) {
+            logger.info("Archived {} OMPay responses for {} payments idle since {}", archivedResponses, archivedPayments, cutoff);
+        }
+    }
+}
@@ -35,6 +35,60 @@ public class OmPayConfigProperties {
     private final String apiBaseUrl;
     private final String basicAuthHeader;
     private final String killbillBaseUrl; // New property
+    private final String webhookSigningKey;
+    private final boolean archivalEnabled;
+    private final int archivalRetentionDays;
+    private final int archivalBatchSize;
+    private final long archivalBatchPauseMillis;
+    private final int archivalMaxBatchesPerRun;
+    private final long archivalIntervalMinutes;
+    private final String uuidStorage;
+    private final String readReplicaJndiName;
+    private final int refreshThreads;
+    private final long refreshTimeoutMillis;
+    private final boolean pollerEnabled;
+    private final long pollerIntervalSeconds;
+    private final int pollerBatchSize;
+    private final int pollerMaxRefreshesPerRun;
+    private final double pollerMaxRequestsPerSecond;
+    private final int pollerMaxAgeHours;
+    private final boolean clusterEnabled;
+    private final long clusterHeartbeatSeconds;
+    private final int clusterLeaseTimeoutSeconds;
+    private final long accountCacheTtlSeconds;
+    private final long accountCacheMaxSize;
+    private final long outboxIntervalMillis;
+    private final int outboxBatchSize;
+    private final int outboxMaxAttempts;
+    private final int inboxThreads;
+    private final long inboxIntervalMillis;
+    private final int inboxBatchSize;
+    private final int inboxMaxAttempts;
+    private final long inboxDedupCacheSize;
+    private final int inboxDedupRetentionDays;
+    private final long inboxCoalesceWindowMillis;
+    private final boolean knownTransactionsEnabled;
+    private final long knownTransactionsRebuildMinutes;
+    private final long knownTransactionsExpectedPerTenant;
+    private final int statusWatchMaxWaitSeconds;
+    private final long statusWatchRecheckMillis;
+    private final int statusWatchMaxWaiters;
+    private final boolean threeDsReturnEnabled;
+    private final String threeDsReturnSigningKey;
+    private final int threeDsReturnTtlMinutes;
+    private final int nonceDedupRetentionMinutes;
+    private final long nonceDedupCacheSize;
+    private final int checkoutThreads;
+    private final int checkoutQueueCapacity;
+    private final int admissionMaxConcurrentRequests;
+    private final int admissionMaxGatewayCalls;
+    private final int admissionRetryAfterSeconds;
+    private final boolean gatewayLimiterEnabled;
+    private final int gatewayLimiterInitialLimit;
+    private final int gatewayLimiterMinLimit;
+    private final int gatewayLimiterMaxLimit;
+    private final long gatewayLimiterAcquireTimeoutMillis;
+    private final long lanesWaitTimeoutMillis;
 
     public OmPayConfigProperties(final Properties properties, final String region) {
         this.merchantId = properties.getProperty(PROPERTY_PREFIX + "merchantId");
@@ -42,6 +96,60 @@ public class OmPayConfigProperties {
         this.clientId = properties.getProperty(PROPERTY_PREFIX + "clientId");
         this.clientSecret = properties.getProperty(PROPERTY_PREFIX + "clientSecret");
         this.killbillBaseUrl = properties.getProperty(KILLBILL_BASE_URL_PROPERTY, "http://127.0.0.1:8080"); // Default if not set
+        this.webhookSigningKey = properties.getProperty(PROPERTY_PREFIX + "webhookSigningKey");
+        this.archivalEnabled = Boolean.parseBoolean(properties.getProperty(PROPERTY_PREFIX + "archival.enabled", "false"));
+        this.archivalRetentionDays = Integer.parseInt(properties.getProperty(PROPERTY_PREFIX + "archival.retentionDays", "180"));
+        this.archivalBatchSize = Integer.parseInt(properties.getProperty(PROPERTY_PREFIX + "archival.batchSize", "100"));
+        this.archivalBatchPauseMillis = Long.parseLong(properties.getProperty(PROPERTY_PREFIX + "archival.batchPauseMillis", "500"));
+        this.archivalMaxBatchesPerRun = Integer.parseInt(properties.getProperty(PROPERTY_PREFIX + "archival.maxBatchesPerRun", "50"));
+        this.archivalIntervalMinutes = Long.parseLong(properties.getProperty(PROPERTY_PREFIX + "archival.intervalMinutes", "60"));
+        this.uuidStorage = properties.getProperty(PROPERTY_PREFIX + "uuidStorage", "char");
+        this.readReplicaJndiName = properties.getProperty(PROPERTY_PREFIX + "readReplica.jndiName");
+        this.refreshThreads = Integer.parseInt(properties.getProperty(PROPERTY_PREFIX + "refresh.threads", "8"));
+        this.refreshTimeoutMillis = Long.parseLong(properties.getProperty(PROPERTY_PREFIX + "refresh.timeoutMillis", "10000"));
+        this.pollerEnabled = Boolean.parseBoolean(properties.getProperty(PROPERTY_PREFIX + "poller.enabled", "false"));
+        this.pollerIntervalSeconds = Long.parseLong(properties.getProperty(PROPERTY_PREFIX + "poller.intervalSeconds", "5"));
+        this.pollerBatchSize = Integer.parseInt(properties.getProperty(PROPERTY_PREFIX + "poller.batchSize", "100"));
+        this.pollerMaxRefreshesPerRun = Integer.parseInt(properties.getProperty(PROPERTY_PREFIX + "poller.maxRefreshesPerRun", "500"));
+        this.pollerMaxRequestsPerSecond = Double.parseDouble(properties.getProperty(PROPERTY_PREFIX + "poller.maxRequestsPerSecond", "5"));
+        this.pollerMaxAgeHours = Integer.parseInt(properties.getProperty(PROPERTY_PREFIX + "poller.maxAgeHours", "72"));
+        this.clusterEnabled = Boolean.parseBoolean(properties.getProperty(PROPERTY_PREFIX + "cluster.enabled", "false"));
+        this.clusterHeartbeatSeconds = Long.parseLong(properties.getProperty(PROPERTY_PREFIX + "cluster.heartbeatSeconds", "10"));
+        this.clusterLeaseTimeoutSeconds = Integer.parseInt(properties.getProperty(PROPERTY_PREFIX + "cluster.leaseTimeoutSeconds", "30"));
+        this.accountCacheTtlSeconds = Long.parseLong(properties.getProperty(PROPERTY_PREFIX + "accountCache.ttlSeconds", "30"));
+        this.accountCacheMaxSize = Long.parseLong(properties.getProperty(PROPERTY_PREFIX + "accountCache.maxSize", "1000"));
+        this.outboxIntervalMillis = Long.parseLong(properties.getProperty(PROPERTY_PREFIX + "outbox.intervalMillis", "1000"));
+        this.outboxBatchSize = Integer.parseInt(properties.getProperty(PROPERTY_PREFIX + "outbox.batchSize", "100"));
+        this.outboxMaxAttempts = Integer.parseInt(properties.getProperty(PROPERTY_PREFIX + "outbox.maxAttempts", "10"));
+        this.inboxThreads = Integer.parseInt(properties.getProperty(PROPERTY_PREFIX + "inbox.threads", "4"));
+        this.inboxIntervalMillis = Long.parseLong(properties.getProperty(PROPERTY_PREFIX + "inbox.intervalMillis", "1000"));
+        this.inboxBatchSize = Integer.parseInt(properties.getProperty(PROPERTY_PREFIX + "inbox.batchSize", "100"));
+        this.inboxMaxAttempts = Integer.parseInt(properties.getProperty(PROPERTY_PREFIX + "inbox.maxAttempts", "10"));
+        this.inboxDedupCacheSize = Long.parseLong(properties.getProperty(PROPERTY_PREFIX + "inbox.dedupCacheSize", "10000"));
+        this.inboxDedupRetentionDays = Integer.parseInt(properties.getProperty(PROPERTY_PREFIX + "inbox.dedupRetentionDays", "30"));
+        this.inboxCoalesceWindowMillis = Long.parseLong(properties.getProperty(PROPERTY_PREFIX + "inbox.coalesceWindowMillis", "200"));
+        this.knownTransactionsEnabled = Boolean.parseBoolean(properties.getProperty(PROPERTY_PREFIX + "knownTransactions.enabled", "true"));
+        this.knownTransactionsRebuildMinutes = Long.parseLong(properties.getProperty(PROPERTY_PREFIX + "knownTransactions.rebuildMinutes", "60"));
+        this.knownTransactionsExpectedPerTenant = Long.parseLong(properties.getProperty(PROPERTY_PREFIX + "knownTransactions.expectedPerTenant", "100000"));
+        this.statusWatchMaxWaitSeconds = Integer.parseInt(properties.getProperty(PROPERTY_PREFIX + "statusWatch.maxWaitSeconds", "30"));
+        this.statusWatchRecheckMillis = Long.parseLong(properties.getProperty(PROPERTY_PREFIX + "statusWatch.recheckMillis", "1000"));
+        this.statusWatchMaxWaiters = Integer.parseInt(properties.getProperty(PROPERTY_PREFIX + "statusWatch.maxWaiters", "1000"));
+        this.threeDsReturnEnabled = Boolean.parseBoolean(properties.getProperty(PROPERTY_PREFIX + "threeDsReturn.enabled", "false"));
+        this.threeDsReturnSigningKey = properties.getProperty(PROPERTY_PREFIX + "threeDsReturn.signingKey");
+        this.threeDsReturnTtlMinutes = Integer.parseInt(properties.getProperty(PROPERTY_PREFIX + "threeDsReturn.ttlMinutes", "60"));
+        this.nonceDedupRetentionMinutes = Integer.parseInt(properties.getProperty(PROPERTY_PREFIX + "nonceDedup.retentionMinutes", "60"));
+        this.nonceDedupCacheSize = Long.parseLong(properties.getProperty(PROPERTY_PREFIX + "nonceDedup.cacheSize", "10000"));
+        this.checkoutThreads = Integer.parseInt(properties.getProperty(PROPERTY_PREFIX + "checkout.threads", "64"));
+        this.checkoutQueueCapacity = Integer.parseInt(properties.getProperty(PROPERTY_PREFIX + "checkout.queueCapacity", "256"));
+        this.admissionMaxConcurrentRequests = Integer.parseInt(properties.getProperty(PROPERTY_PREFIX + "admission.maxConcurrentRequests", "256"));
+        this.admissionMaxGatewayCalls = Integer.parseInt(properties.getProperty(PROPERTY_PREFIX + "admission.maxGatewayCalls", "128"));
+        this.admissionRetryAfterSeconds = Integer.parseInt(properties.getProperty(PROPERTY_PREFIX + "admission.retryAfterSeconds", "2"));
+        this.gatewayLimiterEnabled = Boolean.parseBoolean(properties.getProperty(PROPERTY_PREFIX + "gatewayLimiter.enabled", "true"));
+        this.gatewayLimiterInitialLimit = Integer.parseInt(properties.getProperty(PROPERTY_PREFIX + "gatewayLimiter.initialLimit", "20"));
+        this.gatewayLimiterMinLimit = Integer.parseInt(properties.getProperty(PROPERTY_PREFIX + "gatewayLimiter.minLimit", "4"));
+        this.gatewayLimiterMaxLimit = Integer.parseInt(properties.getProperty(PROPERTY_PREFIX + "gatewayLimiter.maxLimit", "200"));
+        this.gatewayLimiterAcquireTimeoutMillis = Long.parseLong(properties.getProperty(PROPERTY_PREFIX + "gatewayLimiter.acquireTimeoutMillis", "5000"));
+        this.lanesWaitTimeoutMillis = Long.parseLong(properties.getProperty(PROPERTY_PREFIX + "lanes.waitTimeoutMillis", "30000"));
 
 
         if (this.testMode) {
@@ -92,4 +200,221 @@ public class OmPayConfigProperties {
     public String getKillbillBaseUrl() {
         return killbillBaseUrl;
     }
-}
\ No newline at end of file
+
+    public String getWebhookSigningKey() {
+        return webhookSigningKey;
+    }
+
+    public boolean isArchivalEnabled() {
+        return archivalEnabled;
+    }
+
+    public int getArchivalRetentionDays() {
+        return archivalRetentionDays;
+    }
+
+    public int getArchivalBatchSize() {
+        return archivalBatchSize;
+    }
+
+    public long getArchivalBatchPauseMillis() {
+        return archivalBatchPauseMillis;
+    }
+
+    public int getArchivalMaxBatchesPerRun() {
+        return archivalMaxBatchesPerRun;
+    }
+
+    public long getArchivalIntervalMinutes() {
+        return archivalIntervalMinutes;
+    }
+
+    // "native" once the kb_*_id columns have been converted with the resources/uuid scripts, "char" otherwise
+    public boolean isNativeUuidStorage() {
+        return "native".equalsIgnoreCase(uuidStorage);
+    }
+
+    public String getReadReplicaJndiName() {
+        return readReplicaJndiName;
+    }
+
+    public int getRefreshThreads() {
+        return refreshThreads;
+    }
+
+    public long getRefreshTimeoutMillis() {
+        return refreshTimeoutMillis;
+    }
+
+    public boolean isPollerEnabled() {
+        return pollerEnabled;
+    }
+
+    public long getPollerIntervalSeconds() {
+        return pollerIntervalSeconds;
+    }
+
+    public int getPollerBatchSize() {
+        return pollerBatchSize;
+    }
+
+    public int getPollerMaxRefreshesPerRun() {
+        return pollerMaxRefreshesPerRun;
+    }
+
+    public double getPollerMaxRequestsPerSecond() {
+        return pollerMaxRequestsPerSecond;
+    }
+
+    public int getPollerMaxAgeHours() {
+        return pollerMaxAgeHours;
+    }
+
+    public boolean isClusterEnabled() {
+        return clusterEnabled;
+    }
+
+    public long getClusterHeartbeatSeconds() {
+        return clusterHeartbeatSeconds;
+    }
+
+    public int getClusterLeaseTimeoutSeconds() {
+        return clusterLeaseTimeoutSeconds;
+    }
+
+    public long getAccountCacheTtlSeconds() {
+        return accountCacheTtlSeconds;
+    }
+
+    public long getAccountCacheMaxSize() {
+        return accountCacheMaxSize;
+    }
+
+    public long getOutboxIntervalMillis() {
+        return outboxIntervalMillis;
+    }
+
+    public int getOutboxBatchSize() {
+        return outboxBatchSize;
+    }
+
+    public int getOutboxMaxAttempts() {
+        return outboxMaxAttempts;
+    }
+
+    public int getInboxThreads() {
+        return inboxThreads;
+    }
+
+    public long getInboxIntervalMillis() {
+        return inboxIntervalMillis;
+    }
+
+    public int getInboxBatchSize() {
+        return inboxBatchSize;
+    }
+
+    public int getInboxMaxAttempts() {
+        return inboxMaxAttempts;
+    }
+
+    public long getInboxDedupCacheSize() {
+        return inboxDedupCacheSize;
+    }
+
+    public int getInboxDedupRetentionDays() {
+        return inboxDedupRetentionDays;
+    }
+
+    public long getInboxCoalesceWindowMillis() {
+        return inboxCoalesceWindowMillis;
+    }
+
+    public boolean isKnownTransactionsEnabled() {
+        return knownTransactionsEnabled;
+    }
+
+    public long getKnownTransactionsRebuildMinutes() {
+        return knownTransactionsRebuildMinutes;
+    }
+
+    public long getKnownTransactionsExpectedPerTenant() {
+        return knownTransactionsExpectedPerTenant;
+    }
+
+    public int getStatusWatchMaxWaitSeconds() {
+        return statusWatchMaxWaitSeconds;
+    }
+
+    public long getStatusWatchRecheckMillis() {
+        return statusWatchRecheckMillis;
+    }
+
+    public int getStatusWatchMaxWaiters() {
+        return statusWatchMaxWaiters;
+    }
+
+    public boolean isThreeDsReturnEnabled() {
+        return threeDsReturnEnabled;
+    }
+
+    public String getThreeDsReturnSigningKey() {
+        return threeDsReturnSigningKey;
+    }
+
+    public int getThreeDsReturnTtlMinutes() {
+        return threeDsReturnTtlMinutes;
+    }
+
+    public int getNonceDedupRetentionMinutes() {
+        return nonceDedupRetentionMinutes;
+    }
+
+    public long getNonceDedupCacheSize() {
+        return nonceDedupCacheSize;
+    }
+
+    public int getCheckoutThreads() {
+        return checkoutThreads;
+    }
+
+    public int getCheckoutQueueCapacity() {
+        return checkoutQueueCapacity;
+    }
+
+    public int getAdmissionMaxConcurrentRequests() {
+        return admissionMaxConcurrentRequests;
+    }
+
+    public int getAdmissionMaxGatewayCalls() {
+        return admissionMaxGatewayCalls;
+    }
+
+    public int getAdmissionRetryAfterSeconds() {
+        return admissionRetryAfterSeconds;
+    }
+
+    public boolean isGatewayLimiterEnabled() {
+        return gatewayLimiterEnabled;
+    }
+
+    public int getGatewayLimiterInitialLimit() {
+        return gatewayLimiterInitialLimit;
+    }
+
+    public int getGatewayLimiterMinLimit() {
+        return gatewayLimiterMinLimit;
+    }
+
+    public int getGatewayLimiterMaxLimit() {
+        return gatewayLimiterMaxLimit;
+    }
+
+    public long getGatewayLimiterAcquireTimeoutMillis() {
+        return gatewayLimiterAcquireTimeoutMillis;
+    }
+
+    public long getLanesWaitTimeoutMillis() {
+        return lanesWaitTimeoutMillis;
+    }
+}
@@ -56,19 +56,26 @@ public class OmPayFormServlet extends PluginServlet {
     private final transient OmPayPaymentPluginApi paymentPluginApi;
     private final transient OSGIKillbillAPI killbillAPI;
     private final transient OSGIKillbillClock clock;
+    private final transient OmPayAdmissionController admissionController;
 
     @Inject
     public OmPayFormServlet(final OmPayPaymentPluginApi paymentPluginApi,
                             final OSGIKillbillAPI killbillAPI,
-                            final OSGIKillbillClock clock) {
+                            final OSGIKillbillClock clock,
+                            final OmPayAdmissionController admissionController) {
         this.paymentPluginApi = paymentPluginApi;
         this.killbillAPI = killbillAPI;
         this.clock = clock;
+        this.admissionController = admissionController;
     }
 
     @GET
     public Result getFormDescriptor(final Request req,
                                     @Local @Named("killbill_tenant") final Tenant tenant) {
+        if (!admissionController.tryAdmit(true)) {
+            return admissionController.overloaded();
+        }
+
         try {
             // Extract query parameters for the form fields
             String kbAccountIdStr = req.param("kbAccountId").value(); // Throws Err.Missing if not present
@@ -130,6 +137,8 @@ public class OmPayFormServlet extends PluginServlet {
             logger.error("Error building form descriptor", e);
             return Results.with("Error: " + e.getMessage(), Status.SERVER_ERROR)
                     .header("Content-Type", "text/plain");
+        } finally {
+            admissionController.release();
         }
     }
 }
\ No newline at end of file
@@ -0,0 +1,189 @@
+/*
+ * Copyright 2025 GAIM-TECH-OM
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package org.killbill.billing.plugin.ompay;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+import javax.annotation.Nullable;
+
+import org.joda.time.DateTime;
+import org.killbill.billing.osgi.libs.killbill.OSGIKillbillClock;
+import org.killbill.billing.plugin.ompay.dao.OmPayDao;
+import org.killbill.billing.plugin.ompay.dao.gen.tables.records.OmpayResponsesRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.base.Strings;
+import com.google.common.hash.BloomFilter;
+import com.google.common.hash.Funnels;
+
+/**
+ * In-memory index of the OMPay transaction ids stored in ompay_responses, one Bloom filter per tenant, so that the
+ * notifications of unknown transactions (e.g. of other merchants sharing the webhook URL) are dropped without any query.
+ * <p>
+ * The filters are rebuilt every knownTransactions.rebuildMinutes (archived responses are then forgotten) and caught up
+ * with the new responses, possibly created by other nodes, whenever a notification received after the last catch-up
+ * looks unknown: an id is only reported unknown if it was not stored before the notification was received.
+ */
+public class OmPayKnownTransactions {
+
+    private static final Logger logger = LoggerFactory.getLogger(OmPayKnownTransactions.class);
+
+    private static final double FALSE_POSITIVE_PROBABILITY = 0.01;
+    private static final int PAGE_SIZE = 10000;
+    // Record ids are allocated before commit: re-read the last ones, in case a lower one committed after a higher one
+    private static final int SYNC_LOOKBACK = 1000;
+
+    private final OmPayDao dao;
+    private final OSGIKillbillClock clock;
+    private final OmPayConfigProperties config;
+    // Rebuilds and catch-ups are exclusive, lookups are lock-free (BloomFilter is thread-safe)
+    private final ReentrantLock lock = new ReentrantLock();
+
+    // Null until first built
+    private volatile Map<UUID, BloomFilter<CharSequence>> filters;
+    private volatile DateTime lastRebuild;
+    private volatile DateTime lastSync;
+    // Guarded by lock
+    private int lastRecordId;
+    private Map<UUID, Long> countsPerTenant = new HashMap<UUID, Long>();
+
+    public OmPayKnownTransactions(final OmPayDao dao, final OSGIKillbillClock clock, final OmPayConfigProperties config) {
+        this.dao = dao;
+        this.clock = clock;
+        this.config = config;
+    }
+
+    /**
+     * @param receivedDate When the notification about these ids was received
+     * @return false if none of the ids is a transaction of the tenant, true if one of them might be
+     */
+    public boolean mightBeKnown(@Nullable final UUID kbTenantId, final Collection<String> ompayTransactionIds, final DateTime receivedDate) {
+        if (!config.isKnownTransactionsEnabled() || kbTenantId == null) {
+            return true;
+        }
+
+        try {
+            rebuildIfDue();
+            if (filters == null) {
+                // First build in progress on another thread
+                return true;
+            }
+            if (contains(kbTenantId, ompayTransactionIds)) {
+                return true;
+            }
+            if (!lastSync.isBefore(receivedDate)) {
+                return false;
+            }
+
+            lock.lock();
+            try {
+                if (lastSync.isBefore(receivedDate)) {
+                    sync();
+                }
+            } finally {
+                lock.unlock();
+            }
+            return contains(kbTenantId, ompayTransactionIds);
+        } catch (final SQLException e) {
+            logger.warn("Failed to refresh the known OMPay transactions: {}", e.getMessage());
+            return true;
+        }
+    }
+
+    private boolean contains(final UUID kbTenantId, final Collection<String> ompayTransactionIds) {
+        final BloomFilter<CharSequence> filter = filters.get(kbTenantId);
+        if (filter == null) {
+            return false;
+        }
+        for (final String ompayTransactionId : ompayTransactionIds) {
+            if (!Strings.isNullOrEmpty(ompayTransactionId) && filter.mightContain(ompayTransactionId)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void rebuildIfDue() throws SQLException {
+        if (filters != null && lastRebuild.plusMinutes(config.getKnownTransactionsRebuildMinutes()).isAfter(clock.getClock().getUTCNow())) {
+            return;
+        }
+        // A single thread rebuilds, the others keep using the current filters meanwhile
+        if (!lock.tryLock()) {
+            return;
+        }
+        try {
+            final DateTime startedAt = clock.getClock().getUTCNow();
+            if (filters != null && lastRebuild.plusMinutes(config.getKnownTransactionsRebuildMinutes()).isAfter(startedAt)) {
+                return;
+            }
+
+            final Map<UUID, BloomFilter<CharSequence>> rebuilt = new ConcurrentHashMap<UUID, BloomFilter<CharSequence>>();
+            final Map<UUID, Long> counts = new HashMap<UUID, Long>();
+            lastRecordId = load(rebuilt, counts, 0);
+
+            countsPerTenant = counts;
+            lastRebuild = startedAt;
+            lastSync = startedAt;
+            // Published last: the dates are set whenever filters is
+            filters = rebuilt;
+            logger.info("Indexed the OMPay transactions of {} tenants", counts.size());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Caller holds the lock
+    private void sync() throws SQLException {
+        final DateTime startedAt = clock.getClock().getUTCNow();
+        lastRecordId = load(filters, countsPerTenant, Math.max(0, lastRecordId - SYNC_LOOKBACK));
+        lastSync = startedAt;
+    }
+
+    // Adds the ids of the responses after the given record id, returns the last record id read
+    private int load(final Map<UUID, BloomFilter<CharSequence>> target, final Map<UUID, Long> counts, final int afterRecordId) throws SQLException {
+        int lastRead = afterRecordId;
+        while (true) {
+            final List<OmpayResponsesRecord> page = dao.getOmPayTransactionIds(lastRead, PAGE_SIZE);
+            for (final OmpayResponsesRecord record : page) {
+                lastRead = record.getRecordId();
+                if (Strings.isNullOrEmpty(record.getOmpayTransactionId()) || record.getKbTenantId() == null) {
+                    continue;
+                }
+                target.computeIfAbsent(record.getKbTenantId(), this::newFilter).put(record.getOmpayTransactionId());
+                counts.merge(record.getKbTenantId(), 1L, Long::sum);
+            }
+            if (page.size() < PAGE_SIZE) {
+                return Math.max(lastRead, lastRecordId);
+            }
+        }
+    }
+
+    // Sized for twice the transactions the tenant had at the previous build, to keep room for the new ones
+    private BloomFilter<CharSequence> newFilter(final UUID kbTenantId) {
+        final long previousCount = countsPerTenant.getOrDefault(kbTenantId, 0L);
+        final long expected = Math.max(config.getKnownTransactionsExpectedPerTenant(), 2 * previousCount);
+        return BloomFilter.create(Funnels.stringFunnel(StandardCharsets.UTF_8), expected, FALSE_POSITIVE_PROBABILITY);
+    }
+}
@@ -44,6 +44,7 @@ import org.killbill.billing.tenant.api.Tenant;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.annotation.Nullable;
 import javax.inject.Inject;
 import javax.inject.Named;
 import javax.inject.Singleton;
@@ -56,6 +57,8 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.Optional;
 
 @Singleton
@@ -70,6 +73,8 @@ public class OmPayNonceHandlerServlet extends PluginServlet {
     private final transient OSGIKillbillClock clock;
     private final transient OmPayDao dao;
     private final transient OmPayHttpClient httpClient;
+    private final transient OmPayNonceRequests nonceRequests;
+    private final transient OmPayAdmissionController admissionController;
     private final ObjectMapper objectMapper = new ObjectMapper();
 
     @Inject
@@ -77,19 +82,28 @@ public class OmPayNonceHandlerServlet extends PluginServlet {
                                     final OmPayConfigurationHandler configurationHandler,
                                     final OSGIKillbillAPI killbillAPI,
                                     final OSGIKillbillClock clock,
-                                    final OmPayDao dao) {
+                                    final OmPayDao dao,
+                                    final OmPayNonceRequests nonceRequests,
+                                    final OmPayAdmissionController admissionController) {
         this.paymentPluginApi = paymentPluginApi;
         this.configurationHandler = configurationHandler;
         this.killbillAPI = killbillAPI;
         this.clock = clock;
         this.dao = dao;
         this.httpClient = new OmPayHttpClient();
+        this.nonceRequests = nonceRequests;
+        this.admissionController = admissionController;
     }
 
     @POST
-    public Result handleNonce(final Request req, @Local @Named("killbill_tenant") final Tenant tenant) {
-        final PluginCallContext callContext = createPluginCallContext("process-nonce", tenant);
+    public Object handleNonce(final Request req, @Local @Named("killbill_tenant") final Tenant tenant) {
+        if (!admissionController.tryAdmit(true)) {
+            return admissionController.overloaded();
+        }
 
+        final PluginCallContext callContext = createPluginCallContext("process-nonce", tenant);
+        // Released when the request is answered: once the checkout pool is done with it when handed over
+        boolean handedOver = false;
         try {
             // Extract payment method nonce from POST body
             final String paymentMethodNonce = req.param("nonce").value();
@@ -125,29 +139,63 @@ public class OmPayNonceHandlerServlet extends PluginServlet {
             final TransactionType transactionType = "sale".equalsIgnoreCase(paymentIntent) ?
                     TransactionType.PURCHASE : TransactionType.AUTHORIZE;
 
-            // Generate payment and transaction IDs
-            final UUID kbPaymentId = UUID.randomUUID();
-            final UUID kbTransactionId = UUID.randomUUID();
+            // A double-submitted checkout gets the outcome of the first submission, instead of a second charge.
+            // The gateway call runs on the checkout pool, the container thread is released meanwhile
+            final Deferred answer = new Deferred(deferred -> nonceRequests.submit(callContext.getTenantId(), paymentMethodNonce, kbAccountId, transactionType, claim -> {
+                if (claim.isDuplicate()) {
+                    logger.info("Nonce already submitted for kbPaymentId={}, not charging it again", claim.getKbPaymentId());
+                    return toDuplicateResult(claim, callContext);
+                }
+                return processNonce(claim, kbAccountId, amount, currency, paymentMethodNonce, returnUrl, cancelUrl, force3dsStr, callContext);
+            }).whenComplete((result, e) -> {
+                admissionController.release();
+                deferred.resolve(e != null ? toErrorResult(e) : result);
+            }));
+            handedOver = true;
+            return answer;
 
-            logger.info("Processing nonce for payment: kbAccountId={}, amount={}, currency={}, intent={}, kbPaymentId={}",
-                    kbAccountId, amount, currency, transactionType, kbPaymentId);
+        } catch (final Exception e) {
+            return toErrorResult(e);
+        } finally {
+            if (!handedOver) {
+                admissionController.release();
+            }
+        }
+    }
 
-            // Build properties to pass to authorize/purchase payment
-            final List<PluginProperty> properties = new ArrayList<>();
-            properties.add(new PluginProperty(OmPayPaymentPluginApi.PROPERTY_NONCE, paymentMethodNonce, false));
+    private Result processNonce(final OmPayNonceRequests.Claim claim,
+                                final UUID kbAccountId,
+                                final BigDecimal amount,
+                                final Currency currency,
+                                final String paymentMethodNonce,
+                                @Nullable final String returnUrl,
+                                @Nullable final String cancelUrl,
+                                final String force3dsStr,
+                                final PluginCallContext callContext) throws PaymentPluginApiException {
+        final UUID kbPaymentId = claim.getKbPaymentId();
+        final UUID kbTransactionId = claim.getKbTransactionId();
+        final TransactionType transactionType = claim.getTransactionType();
 
-            if (!Strings.isNullOrEmpty(returnUrl)) {
-                properties.add(new PluginProperty(OmPayPaymentPluginApi.PROPERTY_RETURN_URL, returnUrl, false));
-            }
-            if (!Strings.isNullOrEmpty(cancelUrl)) {
-                properties.add(new PluginProperty(OmPayPaymentPluginApi.PROPERTY_CANCEL_URL, cancelUrl, false));
-            }
-            if (!Strings.isNullOrEmpty(force3dsStr)) {
-                properties.add(new PluginProperty(OmPayPaymentPluginApi.PROPERTY_FORCE_3DS, force3dsStr, false));
-            }
+        logger.info("Processing nonce for payment: kbAccountId={}, amount={}, currency={}, intent={}, kbPaymentId={}",
+                kbAccountId, amount, currency, transactionType, kbPaymentId);
 
-            // Call the appropriate payment method
-            PaymentTransactionInfoPlugin transactionInfo;
+        // Build properties to pass to authorize/purchase payment
+        final List<PluginProperty> properties = new ArrayList<>();
+        properties.add(new PluginProperty(OmPayPaymentPluginApi.PROPERTY_NONCE, paymentMethodNonce, false));
+
+        if (!Strings.isNullOrEmpty(returnUrl)) {
+            properties.add(new PluginProperty(OmPayPaymentPluginApi.PROPERTY_RETURN_URL, returnUrl, false));
+        }
+        if (!Strings.isNullOrEmpty(cancelUrl)) {
+            properties.add(new PluginProperty(OmPayPaymentPluginApi.PROPERTY_CANCEL_URL, cancelUrl, false));
+        }
+        if (!Strings.isNullOrEmpty(force3dsStr)) {
+            properties.add(new PluginProperty(OmPayPaymentPluginApi.PROPERTY_FORCE_3DS, force3dsStr, false));
+        }
+
+        // Call the appropriate payment method
+        PaymentTransactionInfoPlugin transactionInfo;
+        try {
             if (transactionType == TransactionType.AUTHORIZE) {
                 transactionInfo = paymentPluginApi.authorizePayment(
                         kbAccountId, kbPaymentId, kbTransactionId, null, // kbPaymentMethodId is null for initial transaction
@@ -157,83 +205,121 @@ public class OmPayNonceHandlerServlet extends PluginServlet {
                         kbAccountId, kbPaymentId, kbTransactionId, null, // kbPaymentMethodId is null for initial transaction
                         amount, currency, properties, callContext);
             }
-
-            // Build response based on transaction status
-            final Map<String, Object> responseData = new HashMap<>();
-            responseData.put("success", true);
-            responseData.put("kb_payment_id", kbPaymentId.toString());
-            responseData.put("kb_transaction_id", kbTransactionId.toString());
-            responseData.put("transaction_type", transactionType.toString());
-            responseData.put("status", transactionInfo.getStatus().toString());
-
-            // Add transaction reference IDs if available
-            if (transactionInfo.getFirstPaymentReferenceId() != null) {
-                responseData.put("ompay_transaction_id", transactionInfo.getFirstPaymentReferenceId());
-            }
-            if (transactionInfo.getSecondPaymentReferenceId() != null) {
-                responseData.put("ompay_reference_id", transactionInfo.getSecondPaymentReferenceId());
+        } catch (final PaymentPluginApiException e) {
+            if (OmPayPaymentPluginApi.ERROR_TYPE_NOT_SUBMITTED.equals(e.getErrorType())) {
+                // Nothing reached OMPay: a new submission of the nonce may charge it
+                claim.notCharged();
             }
+            throw e;
+        }
+
+        return toResult(kbPaymentId, kbTransactionId, transactionType, transactionInfo);
+    }
+
+    private Result toResult(final UUID kbPaymentId,
+                            final UUID kbTransactionId,
+                            final TransactionType transactionType,
+                            final PaymentTransactionInfoPlugin transactionInfo) {
+        // Build response based on transaction status
+        final Map<String, Object> responseData = new HashMap<>();
+        responseData.put("success", true);
+        responseData.put("kb_payment_id", kbPaymentId.toString());
+        responseData.put("kb_transaction_id", kbTransactionId.toString());
+        responseData.put("transaction_type", transactionType.toString());
+        responseData.put("status", transactionInfo.getStatus().toString());
+
+        // Add transaction reference IDs if available
+        if (transactionInfo.getFirstPaymentReferenceId() != null) {
+            responseData.put("ompay_transaction_id", transactionInfo.getFirstPaymentReferenceId());
+        }
+        if (transactionInfo.getSecondPaymentReferenceId() != null) {
+            responseData.put("ompay_reference_id", transactionInfo.getSecondPaymentReferenceId());
+        }
 
-            // Handle different payment statuses
-            if (transactionInfo.getStatus() == PaymentPluginStatus.PENDING) {
-                String redirectUrl = null;
-                String authenticateUrl = null;
-
-                if (transactionInfo.getProperties() != null) {
-                    for (PluginProperty prop : transactionInfo.getProperties()) {
-                        if ("redirect_url".equals(prop.getKey())) {
-                            redirectUrl = String.valueOf(prop.getValue());
-                        } else if ("authenticate_url".equals(prop.getKey())) {
-                            authenticateUrl = String.valueOf(prop.getValue());
-                        }
+        // Handle different payment statuses
+        if (transactionInfo.getStatus() == PaymentPluginStatus.PENDING) {
+            String redirectUrl = null;
+            String authenticateUrl = null;
+
+            if (transactionInfo.getProperties() != null) {
+                for (PluginProperty prop : transactionInfo.getProperties()) {
+                    if ("redirect_url".equals(prop.getKey())) {
+                        redirectUrl = String.valueOf(prop.getValue());
+                    } else if ("authenticate_url".equals(prop.getKey())) {
+                        authenticateUrl = String.valueOf(prop.getValue());
                     }
                 }
+            }
 
-                if (!Strings.isNullOrEmpty(redirectUrl)) {
-                    responseData.put("requires_3ds", true);
-                    responseData.put("redirect_url", redirectUrl);
-                    logger.info("Payment requires 3DS authentication, redirecting to: {}", redirectUrl);
-
-                    // For web flows, return JSON with redirect URL
-                    // The frontend can then redirect the user
-                    return Results.json(responseData).status(Status.OK);
-                } else {
-                    responseData.put("requires_3ds", false);
-                    logger.info("Payment is pending but no redirect URL provided");
-                }
-            } else if (transactionInfo.getStatus() == PaymentPluginStatus.PROCESSED) {
-                responseData.put("requires_3ds", false);
-                logger.info("Payment processed successfully without 3DS");
-            } else if (transactionInfo.getStatus() == PaymentPluginStatus.ERROR) {
-                responseData.put("success", false);
+            if (!Strings.isNullOrEmpty(redirectUrl)) {
+                responseData.put("requires_3ds", true);
+                responseData.put("redirect_url", redirectUrl);
+                logger.info("Payment requires 3DS authentication, redirecting to: {}", redirectUrl);
+
+                // For web flows, return JSON with redirect URL
+                // The frontend can then redirect the user
+                return Results.json(responseData).status(Status.OK);
+            } else {
                 responseData.put("requires_3ds", false);
-                responseData.put("error_message", transactionInfo.getGatewayError());
-                responseData.put("error_code", transactionInfo.getGatewayErrorCode());
-                logger.warn("Payment failed: {} ({})", transactionInfo.getGatewayError(), transactionInfo.getGatewayErrorCode());
+                logger.info("Payment is pending but no redirect URL provided");
+            }
+        } else if (transactionInfo.getStatus() == PaymentPluginStatus.PROCESSED) {
+            responseData.put("requires_3ds", false);
+            logger.info("Payment processed successfully without 3DS");
+        } else if (transactionInfo.getStatus() == PaymentPluginStatus.ERROR) {
+            responseData.put("success", false);
+            responseData.put("requires_3ds", false);
+            responseData.put("error_message", transactionInfo.getGatewayError());
+            responseData.put("error_code", transactionInfo.getGatewayErrorCode());
+            logger.warn("Payment failed: {} ({})", transactionInfo.getGatewayError(), transactionInfo.getGatewayErrorCode());
+        }
+
+        return Results.json(responseData).status(Status.OK);
+    }
+
+    // The first submission was handled by another node (or before a restart): answer from its stored outcome
+    private Result toDuplicateResult(final OmPayNonceRequests.Claim claim, final PluginCallContext callContext) throws SQLException {
+        for (final PaymentTransactionInfoPlugin transactionInfo : dao.getPaymentInfosForKbPaymentId(claim.getKbPaymentId(), callContext.getTenantId())) {
+            if (claim.getKbTransactionId().equals(transactionInfo.getKbTransactionPaymentId())
+                && transactionInfo.getStatus() != PaymentPluginStatus.PENDING
+                && transactionInfo.getStatus() != PaymentPluginStatus.UNDEFINED) {
+                return toResult(claim.getKbPaymentId(), claim.getKbTransactionId(), claim.getTransactionType(), transactionInfo);
             }
+        }
 
-            return Results.json(responseData).status(Status.OK);
+        // Still in flight, or waiting for 3DS in the browser of the first submission: see /payment-status
+        final Map<String, Object> responseData = new HashMap<>();
+        responseData.put("success", false);
+        responseData.put("kb_payment_id", claim.getKbPaymentId().toString());
+        responseData.put("kb_transaction_id", claim.getKbTransactionId().toString());
+        responseData.put("transaction_type", claim.getTransactionType().toString());
+        responseData.put("error_message", "Payment nonce already submitted");
+        responseData.put("error_type", "duplicate_submission");
+        return Results.json(responseData).status(Status.CONFLICT);
+    }
 
-        } catch (PaymentPluginApiException e) {
+    private static Result toErrorResult(final Throwable failure) {
+        // Failures of the checkout pool come wrapped
+        final Throwable e = failure instanceof CompletionException && failure.getCause() != null ? failure.getCause() : failure;
+        final Map<String, Object> errorResponse = new HashMap<>();
+        errorResponse.put("success", false);
+        if (e instanceof RejectedExecutionException) {
+            logger.warn("OMPay checkout pool saturated, rejecting nonce submission");
+            errorResponse.put("error_message", "Too many payments in progress, please retry");
+            errorResponse.put("error_type", "server_busy");
+            return Results.json(errorResponse).status(Status.SERVICE_UNAVAILABLE);
+        } else if (e instanceof PaymentPluginApiException) {
             logger.error("Payment plugin error processing OMPay nonce:", e);
-            final Map<String, Object> errorResponse = new HashMap<>();
-            errorResponse.put("success", false);
             errorResponse.put("error_message", e.getMessage());
             errorResponse.put("error_type", "payment_error");
             return Results.json(errorResponse).status(Status.SERVER_ERROR);
-
-        } catch (IllegalArgumentException e) {
+        } else if (e instanceof IllegalArgumentException) {
             logger.error("Invalid parameter processing OMPay nonce:", e);
-            final Map<String, Object> errorResponse = new HashMap<>();
-            errorResponse.put("success", false);
             errorResponse.put("error_message", "Invalid parameters: " + e.getMessage());
             errorResponse.put("error_type", "validation_error");
             return Results.json(errorResponse).status(Status.BAD_REQUEST);
-
-        } catch (Exception e) {
+        } else {
             logger.error("Unexpected error processing OMPay nonce:", e);
-            final Map<String, Object> errorResponse = new HashMap<>();
-            errorResponse.put("success", false);
             errorResponse.put("error_message", "An unexpected server error occurred");
             errorResponse.put("error_type", "server_error");
             return Results.json(errorResponse).status(Status.SERVER_ERROR);
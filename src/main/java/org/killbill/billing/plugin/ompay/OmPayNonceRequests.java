@@ -0,0 +1,286 @@
+/*
+ * Copyright 2025 GAIM-TECH-OM
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package org.killbill.billing.plugin.ompay;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.Nullable;
+
+import org.jooby.Result;
+import org.jooby.Status;
+import org.killbill.billing.osgi.libs.killbill.OSGIKillbillClock;
+import org.killbill.billing.payment.api.TransactionType;
+import org.killbill.billing.plugin.ompay.dao.OmPayDao;
+import org.killbill.billing.plugin.ompay.dao.gen.tables.records.OmpayNonceRequestsRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.Hashing;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * Double-submit protection of {@link OmPayNonceHandlerServlet}: a payment nonce submitted again (double-clicked
+ * checkout button, browser retry) gets the outcome of the first submission instead of a second gateway charge.
+ * <p>
+ * Submissions in flight or completed within nonceDedup.retentionMinutes on this node share the outcome of the first one
+ * in memory, as long as it is final. Across nodes (or after a restart), the unique index on ompay_nonce_requests
+ * decides which submission charges; the others get the payment it created, read from its stored state. A submission
+ * failing before its request reached OMPay releases the nonce, which may then be submitted again. Only the SHA-256 of
+ * the nonce is stored.
+ * <p>
+ * Submissions run on a dedicated pool (checkout.threads): the container thread of the request is released while the
+ * gateway answers, so the checkout concurrency is not bounded by the Kill Bill Jetty pool.
+ */
+public class OmPayNonceRequests {
+
+    private static final Logger logger = LoggerFactory.getLogger(OmPayNonceRequests.class);
+
+    // Processing of a claimed nonce, by its owner
+    public interface Work {
+
+        Result process(Claim claim) throws Exception;
+    }
+
+    private final OmPayDao dao;
+    private final OSGIKillbillClock clock;
+    private final OmPayConfigProperties config;
+    private final Cache<String, Claim> claims;
+
+    private ThreadPoolExecutor executor;
+
+    public OmPayNonceRequests(final OmPayDao dao, final OSGIKillbillClock clock, final OmPayConfigProperties config) {
+        this.dao = dao;
+        this.clock = clock;
+        this.config = config;
+        this.claims = CacheBuilder.newBuilder()
+                .maximumSize(config.getNonceDedupCacheSize())
+                .expireAfterWrite(config.getNonceDedupRetentionMinutes(), TimeUnit.MINUTES)
+                .build();
+    }
+
+    public void start() {
+        executor = new ThreadPoolExecutor(config.getCheckoutThreads(),
+                                          config.getCheckoutThreads(),
+                                          60L, TimeUnit.SECONDS,
+                                          new ArrayBlockingQueue<Runnable>(config.getCheckoutQueueCapacity()),
+                                          new ThreadFactoryBuilder().setNameFormat("ompay-checkout-%d").setDaemon(true).build());
+        executor.allowCoreThreadTimeOut(true);
+    }
+
+    public void stop() {
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+    }
+
+    /**
+     * Process a nonce submission off the caller thread: the first submission of the nonce runs the work, the
+     * duplicates get its outcome.
+     *
+     * @return The outcome, completed exceptionally with a {@link RejectedExecutionException} when the pool is saturated
+     */
+    public CompletableFuture<Result> submit(@Nullable final UUID kbTenantId,
+                                            final String nonce,
+                                            final UUID kbAccountId,
+                                            final TransactionType transactionType,
+                                            final Work work) {
+        final CompletableFuture<Result> answer = new CompletableFuture<Result>();
+        final ThreadPoolExecutor current = executor;
+        if (current == null) {
+            answer.completeExceptionally(new RejectedExecutionException("Stopped"));
+            return answer;
+        }
+        try {
+            current.execute(() -> {
+                try {
+                    final String nonceHash = Hashing.sha256().hashString(nonce, StandardCharsets.UTF_8).toString();
+                    final Claim claim = claim(kbTenantId, nonceHash, kbAccountId, transactionType);
+                    if (claim.isOwner()) {
+                        try {
+                            claim.outcome.complete(work.process(claim));
+                        } catch (final Exception e) {
+                            claim.outcome.completeExceptionally(e);
+                        }
+                        settle(kbTenantId, nonceHash, claim);
+                    }
+                    claim.outcome.whenComplete((result, e) -> {
+                        if (e != null) {
+                            answer.completeExceptionally(e);
+                        } else {
+                            answer.complete(result);
+                        }
+                    });
+                } catch (final Exception e) {
+                    answer.completeExceptionally(e);
+                }
+            });
+        } catch (final RejectedExecutionException e) {
+            answer.completeExceptionally(e);
+        }
+        return answer;
+    }
+
+    // The owner of the returned claim must complete its outcome, then settle it
+    private Claim claim(@Nullable final UUID kbTenantId,
+                        final String nonceHash,
+                        final UUID kbAccountId,
+                        final TransactionType transactionType) throws SQLException {
+        final Claim fresh = new Claim(UUID.randomUUID(), UUID.randomUUID(), transactionType, new CompletableFuture<Result>(), true, false, false);
+        if (kbTenantId == null) {
+            return fresh;
+        }
+
+        final String key = cacheKey(kbTenantId, nonceHash);
+        while (true) {
+            final Claim existing = claims.asMap().putIfAbsent(key, fresh);
+            if (existing == null) {
+                break;
+            }
+            if (isReplayable(existing)) {
+                return new Claim(existing.kbPaymentId, existing.kbTransactionId, existing.transactionType, existing.outcome, false, true, false);
+            }
+            // The first submission was still in flight (409) or failed: read its stored state again
+            claims.asMap().remove(key, existing);
+        }
+
+        try {
+            if (dao.addNonceRequest(nonceHash, kbAccountId, fresh.kbPaymentId, fresh.kbTransactionId, transactionType.toString(),
+                                    clock.getClock().getUTCNow(), kbTenantId)) {
+                return new Claim(fresh.kbPaymentId, fresh.kbTransactionId, transactionType, fresh.outcome, true, false, true);
+            }
+            // Submitted on another node, or before a restart
+            final OmpayNonceRequestsRecord first = dao.getNonceRequest(nonceHash, kbTenantId);
+            if (first == null) {
+                // Purged in between
+                return fresh;
+            }
+            final Claim remote = new Claim(first.getKbPaymentId(),
+                                           first.getKbPaymentTransactionId(),
+                                           TransactionType.valueOf(first.getTransactionType()),
+                                           fresh.outcome,
+                                           true,
+                                           true,
+                                           false);
+            // The duplicates arriving meanwhile see the payment of the first submission
+            claims.asMap().replace(key, fresh, remote);
+            return remote;
+        } catch (final SQLException | RuntimeException e) {
+            claims.asMap().remove(key, fresh);
+            fresh.outcome.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    // Only final outcomes stay cached: the next submission after a 409 or a failure reads the stored state again
+    private void settle(@Nullable final UUID kbTenantId, final String nonceHash, final Claim claim) {
+        if (kbTenantId == null || isReplayable(claim)) {
+            return;
+        }
+        final String key = cacheKey(kbTenantId, nonceHash);
+        claims.asMap().computeIfPresent(key, (ignored, cached) -> cached.outcome == claim.outcome ? null : cached);
+
+        if (claim.inserted && !claim.charged) {
+            // The payment failed before reaching OMPay: a new submission of the nonce charges it
+            try {
+                dao.deleteNonceRequest(nonceHash, claim.kbPaymentId, kbTenantId);
+            } catch (final SQLException e) {
+                logger.warn("Failed to release the claim of the nonce of payment {}: {}", claim.kbPaymentId, e.getMessage(), e);
+            }
+        }
+    }
+
+    // In flight (its outcome is worth waiting for), or done with a final answer
+    private static boolean isReplayable(final Claim claim) {
+        if (!claim.outcome.isDone()) {
+            return true;
+        }
+        if (claim.outcome.isCompletedExceptionally()) {
+            return false;
+        }
+        final Result result = claim.outcome.getNow(null);
+        return result != null && result.status().orElse(Status.OK) != Status.CONFLICT;
+    }
+
+    private static String cacheKey(final UUID kbTenantId, final String nonceHash) {
+        return kbTenantId + "/" + nonceHash;
+    }
+
+    public static final class Claim {
+
+        private final UUID kbPaymentId;
+        private final UUID kbTransactionId;
+        private final TransactionType transactionType;
+        private final CompletableFuture<Result> outcome;
+        private final boolean owner;
+        private final boolean duplicate;
+        // This submission inserted the ompay_nonce_requests row
+        private final boolean inserted;
+        private volatile boolean charged = true;
+
+        private Claim(final UUID kbPaymentId,
+                      final UUID kbTransactionId,
+                      final TransactionType transactionType,
+                      final CompletableFuture<Result> outcome,
+                      final boolean owner,
+                      final boolean duplicate,
+                      final boolean inserted) {
+            this.kbPaymentId = kbPaymentId;
+            this.kbTransactionId = kbTransactionId;
+            this.transactionType = transactionType;
+            this.outcome = outcome;
+            this.owner = owner;
+            this.duplicate = duplicate;
+            this.inserted = inserted;
+        }
+
+        public UUID getKbPaymentId() {
+            return kbPaymentId;
+        }
+
+        public UUID getKbTransactionId() {
+            return kbTransactionId;
+        }
+
+        public TransactionType getTransactionType() {
+            return transactionType;
+        }
+
+        // This submission answers: charges the nonce, or reports the payment of a submission of another node
+        public boolean isOwner() {
+            return owner;
+        }
+
+        // The nonce was submitted before
+        public boolean isDuplicate() {
+            return duplicate;
+        }
+
+        // To call by the owner when its work failed before anything was sent to OMPay
+        public void notCharged() {
+            this.charged = false;
+        }
+    }
+}
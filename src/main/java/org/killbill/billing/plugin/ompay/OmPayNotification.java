@@ -0,0 +1,139 @@
+/*
+ * Copyright 2025 GAIM-TECH-OM
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package org.killbill.billing.plugin.ompay;
+
+import java.util.Map;
+
+import javax.annotation.Nullable;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * OMPay webhook notification, parsed once on receipt and handed as is through the processing pipeline.
+ * Only the fields the plugin acts on are extracted; the raw body is kept for the inbox and the gateway notification.
+ */
+public class OmPayNotification {
+
+    private static final TypeReference<Map<String, Object>> MAP_TYPE = new TypeReference<Map<String, Object>>() {};
+
+    private final String body;
+    private final String id;
+    private final String resourceType;
+    private final String kind;
+    private final boolean hasResource;
+    private final String resourceId;
+    private final String state;
+    private final String referenceId;
+    private final Map<String, Object> result;
+    private final Map<String, Object> transaction;
+    private final ObjectMapper objectMapper;
+    private final JsonNode resource;
+
+    private OmPayNotification(final ObjectMapper objectMapper, final JsonNode root, final String body) {
+        final JsonNode resource = root.path("resource");
+        this.objectMapper = objectMapper;
+        this.resource = resource;
+        this.body = body;
+        this.id = textOrNull(root.path("id"));
+        this.resourceType = textOrNull(root.path("resource_type"));
+        this.kind = textOrNull(root.path("kind"));
+        this.hasResource = resource.isObject();
+        this.resourceId = textOrNull(resource.path("id"));
+        this.state = textOrNull(resource.path("state"));
+        this.referenceId = textOrNull(resource.path("reference_id"));
+        // Sub-trees converted from the parsed tree, not parsed again
+        this.result = resource.path("result").isObject() ? objectMapper.convertValue(resource.get("result"), MAP_TYPE) : null;
+        this.transaction = resource.path("transaction").isObject() ? objectMapper.convertValue(resource.get("transaction"), MAP_TYPE) : null;
+    }
+
+    public static OmPayNotification parse(final ObjectMapper objectMapper, final String body) throws JsonProcessingException {
+        return of(objectMapper, objectMapper.readTree(body), body);
+    }
+
+    public static OmPayNotification of(final ObjectMapper objectMapper, final JsonNode root, final String body) {
+        return new OmPayNotification(objectMapper, root, body);
+    }
+
+    @Nullable
+    private static String textOrNull(final JsonNode node) {
+        return node.isValueNode() && !node.isNull() ? node.asText() : null;
+    }
+
+    public String getBody() {
+        return body;
+    }
+
+    @Nullable
+    public String getId() {
+        return id;
+    }
+
+    @Nullable
+    public String getResourceType() {
+        return resourceType;
+    }
+
+    @Nullable
+    public String getKind() {
+        return kind;
+    }
+
+    public boolean hasResource() {
+        return hasResource;
+    }
+
+    /**
+     * OMPay id of the transaction the notification is about.
+     */
+    @Nullable
+    public String getResourceId() {
+        return resourceId;
+    }
+
+    @Nullable
+    public String getState() {
+        return state;
+    }
+
+    /**
+     * OMPay id of the original transaction, for follow-up operations (capture, refund...).
+     */
+    @Nullable
+    public String getReferenceId() {
+        return referenceId;
+    }
+
+    @Nullable
+    public Map<String, Object> getResult() {
+        return result;
+    }
+
+    @Nullable
+    public Map<String, Object> getTransaction() {
+        return transaction;
+    }
+
+    /**
+     * The whole resource (e.g. the vault card of a card notification), converted on demand.
+     */
+    @Nullable
+    public Map<String, Object> getResource() {
+        return hasResource ? objectMapper.convertValue(resource, MAP_TYPE) : null;
+    }
+}
@@ -0,0 +1,205 @@
+/*
+ * Copyright 2025 GAIM-TECH-OM
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package org.killbill.billing.plugin.ompay;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.joda.time.DateTime;
+import org.killbill.billing.account.api.Account;
+import org.killbill.billing.osgi.libs.killbill.OSGIKillbillAPI;
+import org.killbill.billing.osgi.libs.killbill.OSGIKillbillClock;
+import org.killbill.billing.payment.api.Payment;
+import org.killbill.billing.payment.api.PaymentTransaction;
+import org.killbill.billing.payment.api.PluginProperty;
+import org.killbill.billing.payment.api.TransactionStatus;
+import org.killbill.billing.plugin.api.PluginCallContext;
+import org.killbill.billing.plugin.ompay.dao.OmPayDao;
+import org.killbill.billing.plugin.ompay.dao.gen.tables.records.OmpayNotificationOutboxRecord;
+import org.killbill.billing.util.callcontext.CallContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * Delivers the Kill Bill notifications queued in ompay_notification_outbox.
+ * <p>
+ * Only the webhook, settling a transaction which Kill Bill still has PENDING, queues a notification, in the same
+ * transaction as the new state of the response: it neither waits for nor fails with the Kill Bill payment API. Failed
+ * deliveries are retried with an exponential backoff (5s, 30s, 2min, 10min, 30min, then hourly) and abandoned after
+ * outbox.maxAttempts, the Kill Bill janitor then settles the transaction through getPaymentInfo. A notification whose
+ * transaction is no longer pending in Kill Bill counts as delivered.
+ * On a cluster, each node only delivers the notifications of the payments it owns (see {@link OmPayWorkPartitioner}).
+ */
+public class OmPayNotificationDispatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(OmPayNotificationDispatcher.class);
+
+    private static final int[] BACKOFF_SECONDS = {5, 30, 120, 600, 1800, 3600};
+
+    private final OmPayDao dao;
+    private final OSGIKillbillAPI killbillAPI;
+    private final OmPayAccountCache accountCache;
+    private final OmPayWorkPartitioner partitioner;
+    private final OSGIKillbillClock clock;
+    private final OmPayConfigProperties config;
+    // Coalesces the wake-ups requested while a run is already queued
+    private final AtomicBoolean wakeUpQueued = new AtomicBoolean(false);
+
+    private ScheduledExecutorService executor;
+
+    public OmPayNotificationDispatcher(final OmPayDao dao,
+                                       final OSGIKillbillAPI killbillAPI,
+                                       final OmPayAccountCache accountCache,
+                                       final OmPayWorkPartitioner partitioner,
+                                       final OSGIKillbillClock clock,
+                                       final OmPayConfigProperties config) {
+        this.dao = dao;
+        this.killbillAPI = killbillAPI;
+        this.accountCache = accountCache;
+        this.partitioner = partitioner;
+        this.clock = clock;
+        this.config = config;
+    }
+
+    public void start() {
+        executor = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder()
+                .setNameFormat("ompay-outbox-%d")
+                .setDaemon(true)
+                .build());
+        executor.scheduleWithFixedDelay(this::run,
+                config.getOutboxIntervalMillis(),
+                config.getOutboxIntervalMillis(),
+                TimeUnit.MILLISECONDS);
+    }
+
+    public void stop() {
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+    }
+
+    /**
+     * Deliver without waiting for the next scheduled run, once the transaction which queued notifications committed.
+     */
+    public void wakeUp() {
+        final ScheduledExecutorService current = executor;
+        if (current == null || !wakeUpQueued.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            current.execute(() -> {
+                wakeUpQueued.set(false);
+                run();
+            });
+        } catch (final RejectedExecutionException e) {
+            // Stopping, whatever is left is delivered on restart
+            wakeUpQueued.set(false);
+        }
+    }
+
+    void run() {
+        int delivered = 0;
+        try {
+            while (true) {
+                final DateTime now = clock.getClock().getUTCNow();
+                final List<OmpayNotificationOutboxRecord> batch = dao.getDueNotifications(now, config.getOutboxBatchSize());
+
+                final List<Integer> done = new ArrayList<Integer>();
+                int handled = 0;
+                for (final OmpayNotificationOutboxRecord entry : batch) {
+                    // On a cluster, the other nodes take care of the other payments
+                    if (!partitioner.owns(entry.getKbPaymentId())) {
+                        continue;
+                    }
+                    handled++;
+                    if (deliver(entry, now)) {
+                        delivered++;
+                        done.add(entry.getRecordId());
+                    } else if (entry.getAttempts() + 1 >= config.getOutboxMaxAttempts()) {
+                        logger.error("Giving up notifying Kill Bill of transaction {} after {} attempts, last error: {}",
+                                     entry.getKbPaymentTransactionId(), entry.getAttempts() + 1, entry.getLastError());
+                        done.add(entry.getRecordId());
+                    }
+                }
+                dao.deleteNotifications(done);
+
+                // Stop on a partial page, or when everything left belongs to other nodes
+                if (batch.size() < config.getOutboxBatchSize() || handled == 0) {
+                    break;
+                }
+            }
+        } catch (final Exception e) {
+            logger.warn("OMPay notification dispatcher run failed: {}", e.getMessage(), e);
+        }
+
+        if (delivered > 0) {
+            logger.info("OMPay notification dispatcher delivered {} notifications", delivered);
+        }
+    }
+
+    private boolean deliver(final OmpayNotificationOutboxRecord entry, final DateTime now) throws Exception {
+        final boolean isSuccess = entry.getIsSuccess() != null && entry.getIsSuccess() == 1;
+        final CallContext context = new PluginCallContext(OmPayActivator.PLUGIN_NAME, now, entry.getKbAccountId(), entry.getKbTenantId());
+        try {
+            final Account account = accountCache.getAccount(entry.getKbAccountId(), context);
+            killbillAPI.getPaymentApi().notifyPendingTransactionOfStateChanged(account, entry.getKbPaymentTransactionId(), isSuccess, context);
+            logger.info("Notified Kill Bill of status change for transaction {} (success={})", entry.getKbPaymentTransactionId(), isSuccess);
+            return true;
+        } catch (final Exception e) {
+            if (!isPendingInKillBill(entry, context)) {
+                // Kill Bill already has the final status (e.g. the janitor settled it): nothing left to deliver
+                logger.info("Transaction {} is no longer pending in Kill Bill, dropping its status change notification",
+                            entry.getKbPaymentTransactionId());
+                return true;
+            }
+            final int attempts = entry.getAttempts() + 1;
+            final String error = e.getMessage() != null ? e.getMessage() : e.getClass().getName();
+            logger.warn("Failed to notify Kill Bill of status change for transaction {} (attempt {}): {}",
+                        entry.getKbPaymentTransactionId(), attempts, error);
+            entry.setLastError(error);
+            if (attempts < config.getOutboxMaxAttempts()) {
+                dao.rescheduleNotification(entry.getRecordId(), attempts,
+                                           now.plusSeconds(BACKOFF_SECONDS[Math.min(attempts - 1, BACKOFF_SECONDS.length - 1)]), error);
+            }
+            return false;
+        }
+    }
+
+    // When in doubt, the notification is kept and retried
+    private boolean isPendingInKillBill(final OmpayNotificationOutboxRecord entry, final CallContext context) {
+        try {
+            final Payment payment = killbillAPI.getPaymentApi().getPaymentByTransactionId(entry.getKbPaymentTransactionId(), false, false,
+                                                                                         Collections.<PluginProperty>emptyList(), context);
+            for (final PaymentTransaction transaction : payment.getTransactions()) {
+                if (transaction.getId().equals(entry.getKbPaymentTransactionId())) {
+                    return transaction.getTransactionStatus() == TransactionStatus.PENDING;
+                }
+            }
+            return true;
+        } catch (final Exception e) {
+            return true;
+        }
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright 2025 GAIM-TECH-OM
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package org.killbill.billing.plugin.ompay;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Serializes the work on a same payment (webhook notifications, getPaymentInfo refreshes, capture, void, refund)
+ * while the work on different payments runs fully in parallel.
+ * <p>
+ * Each payment with work in progress has a lane: the tail of a chain of futures, one per caller. A caller swaps
+ * itself in as the new tail, waits for its predecessor, runs on its own thread and completes its future for the next
+ * one. There is no global lock, and no entry left once a payment is idle. Lanes are re-entrant per thread.
+ * <p>
+ * A caller waits at most lanes.waitTimeoutMillis for its turn, then fails with a {@link LaneTimeoutException} instead of
+ * stalling behind a stuck one.
+ */
+public class OmPayPaymentLanes {
+
+    // Work which may throw a checked exception of the caller
+    public interface Work<T, E extends Exception> {
+
+        T run() throws E;
+    }
+
+    // The turn of the caller did not come in time (or it was interrupted while waiting): its work did not run
+    public static class LaneTimeoutException extends Exception {
+
+        private static final long serialVersionUID = 1L;
+
+        public LaneTimeoutException(final String message, final Throwable cause) {
+            super(message, cause);
+        }
+    }
+
+    private final ConcurrentMap<UUID, CompletableFuture<Void>> tails = new ConcurrentHashMap<UUID, CompletableFuture<Void>>();
+    // Payments whose lane the current thread holds
+    private final ThreadLocal<Set<UUID>> held = ThreadLocal.withInitial(HashSet::new);
+    private final long waitTimeoutMillis;
+
+    public OmPayPaymentLanes(final long waitTimeoutMillis) {
+        this.waitTimeoutMillis = waitTimeoutMillis;
+    }
+
+    public <T, E extends Exception> T call(final UUID kbPaymentId, final Work<T, E> work) throws E, LaneTimeoutException {
+        final Set<UUID> heldByThread = held.get();
+        if (heldByThread.contains(kbPaymentId)) {
+            return work.run();
+        }
+
+        final CompletableFuture<Void> done = new CompletableFuture<Void>();
+        final CompletableFuture<Void> previous = tails.put(kbPaymentId, done);
+        boolean ourTurn = previous == null;
+        try {
+            if (!ourTurn) {
+                awaitTurn(kbPaymentId, previous);
+                ourTurn = true;
+            }
+            heldByThread.add(kbPaymentId);
+            try {
+                return work.run();
+            } finally {
+                heldByThread.remove(kbPaymentId);
+            }
+        } finally {
+            if (ourTurn) {
+                release(kbPaymentId, done);
+            } else {
+                // Interrupted or timed out while waiting: the next caller still has to wait for our predecessor
+                previous.whenComplete((ignored, e) -> release(kbPaymentId, done));
+            }
+        }
+    }
+
+    private void release(final UUID kbPaymentId, final CompletableFuture<Void> done) {
+        done.complete(null);
+        tails.remove(kbPaymentId, done);
+    }
+
+    private void awaitTurn(final UUID kbPaymentId, final CompletableFuture<Void> previous) throws LaneTimeoutException {
+        try {
+            previous.get(waitTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (final TimeoutException e) {
+            throw new LaneTimeoutException("Timed out after " + waitTimeoutMillis + " ms waiting for the lane of payment " + kbPaymentId, e);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new LaneTimeoutException("Interrupted while waiting for the lane of payment " + kbPaymentId, e);
+        } catch (final ExecutionException e) {
+            // Never completed exceptionally
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -19,7 +19,6 @@ import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.type.TypeReference;
 import org.joda.time.DateTime;
 import org.killbill.billing.account.api.Account;
-import org.killbill.billing.account.api.AccountApiException;
 import org.killbill.billing.catalog.api.Currency;
 import org.killbill.billing.osgi.libs.killbill.OSGIKillbillAPI;
 import org.killbill.billing.osgi.libs.killbill.OSGIKillbillClock;
@@ -36,6 +35,7 @@ import org.killbill.billing.plugin.api.payment.PluginHostedPaymentPageFormDescri
 import org.killbill.billing.plugin.api.payment.PluginPaymentTransactionInfoPlugin;
 
 import org.killbill.billing.plugin.ompay.client.OmPayHttpClient;
+import org.killbill.billing.plugin.ompay.client.OmPayLimiterTimeoutException;
 import org.killbill.billing.plugin.ompay.dao.OmPayDao;
 import org.killbill.billing.plugin.ompay.dao.gen.tables.records.OmpayPaymentMethodsRecord;
 import org.killbill.billing.plugin.ompay.dao.gen.tables.records.OmpayResponsesRecord;
@@ -50,11 +50,20 @@ import java.io.IOException; // For Pagination close()
 import java.math.BigDecimal;
 import java.sql.SQLException;
 import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
+import javax.annotation.Nullable;
+
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
 import com.google.common.base.Strings;
+import com.google.common.util.concurrent.RateLimiter;
 
 
 public class OmPayPaymentPluginApi implements PaymentPluginApi {
@@ -65,6 +74,18 @@ public class OmPayPaymentPluginApi implements PaymentPluginApi {
     private final OSGIKillbillClock clock;
     private final OmPayDao dao;
     private final OmPayHttpClient httpClient;
+    // Bounded pool for the concurrent gateway refreshes of getPaymentInfo, owned by the activator
+    private final ExecutorService refreshExecutor;
+    // Short-lived account snapshots, shared by all the calls of the plugin
+    private final OmPayAccountCache accountCache;
+    // Delivers the Kill Bill notifications queued in ompay_notification_outbox
+    private final OmPayNotificationDispatcher notificationDispatcher;
+    // Serializes the operations and notifications of a same payment
+    private final OmPayPaymentLanes paymentLanes;
+    // OMPay transaction ids known per tenant, to drop the notifications of unknown transactions without any query
+    private final OmPayKnownTransactions knownTransactions;
+    // Completes the /payment-status requests waiting for a transaction
+    private final OmPayPaymentStatusWatcher statusWatcher;
     private final ObjectMapper objectMapper = new ObjectMapper();
 
 
@@ -84,16 +105,44 @@ public class OmPayPaymentPluginApi implements PaymentPluginApi {
     public static final String PROPERTY_RETURN_URL = "returnUrl";
     public static final String PROPERTY_CANCEL_URL = "cancelUrl";
     public static final String PROPERTY_FORCE_3DS = "force3ds";
+    // Opt-in: expose the raw gateway payload (ompay_response_payloads) as properties in getPaymentInfo
+    public static final String PROPERTY_INCLUDE_GATEWAY_PAYLOAD = "includeGatewayPayload";
+    // Error type of the payments which failed before their request was sent to OMPay: nothing was charged
+    public static final String ERROR_TYPE_NOT_SUBMITTED = "OMPay Payment Not Submitted";
+
+    // resource_type of the OMPay vault card notifications
+    private static final Set<String> CARD_RESOURCE_TYPES = ImmutableSet.of("card", "credit_card");
+
+    // Transaction a refund applies to, by decreasing precedence (for some gateways a sale might be "authorised")
+    private static final List<OmPayDao.TransactionMatch> REFUND_ORIGINAL_TRANSACTIONS = ImmutableList.of(
+            OmPayDao.TransactionMatch.of(TransactionType.CAPTURE, "captured"),
+            OmPayDao.TransactionMatch.of(TransactionType.PURCHASE, "captured"),
+            OmPayDao.TransactionMatch.of(TransactionType.PURCHASE, "authorised"));
+    // Transaction a capture or a void applies to
+    private static final List<OmPayDao.TransactionMatch> AUTHORIZATION_ORIGINAL_TRANSACTIONS = ImmutableList.of(
+            OmPayDao.TransactionMatch.of(TransactionType.AUTHORIZE, "authorised"));
 
 
     public OmPayPaymentPluginApi(final OmPayConfigurationHandler configurationHandler,
                                  final OSGIKillbillAPI killbillAPI,
                                  final OSGIKillbillClock clock,
-                                 final OmPayDao dao) {
+                                 final OmPayDao dao,
+                                 final ExecutorService refreshExecutor,
+                                 final OmPayAccountCache accountCache,
+                                 final OmPayNotificationDispatcher notificationDispatcher,
+                                 final OmPayPaymentLanes paymentLanes,
+                                 final OmPayKnownTransactions knownTransactions,
+                                 final OmPayPaymentStatusWatcher statusWatcher) {
         this.configurationHandler = configurationHandler;
         this.killbillAPI = killbillAPI;
         this.clock = clock;
         this.dao = dao;
+        this.refreshExecutor = refreshExecutor;
+        this.accountCache = accountCache;
+        this.notificationDispatcher = notificationDispatcher;
+        this.paymentLanes = paymentLanes;
+        this.knownTransactions = knownTransactions;
+        this.statusWatcher = statusWatcher;
         this.httpClient = new OmPayHttpClient();
     }
 
@@ -231,7 +280,23 @@ public class OmPayPaymentPluginApi implements PaymentPluginApi {
                                                                    final Currency currency,
                                                                    final Iterable<PluginProperty> properties,
                                                                    final CallContext context) throws PaymentPluginApiException {
+        // Payment path: the rows written by the previous steps (e.g. the nonce servlet) must be visible,
+        // and the DAO calls share one connection (released during the gateway call)
+        try (final OmPayDao.CallScope ignored = dao.openCallScope().pinToPrimary();
+             final OmPayDao.UnitOfWork ignoredUnitOfWork = dao.openUnitOfWork()) {
+            return executeInitialTransactionInScope(transactionType, kbAccountId, kbPaymentId, kbTransactionId, kbPaymentMethodId, amount, currency, properties, context);
+        }
+    }
 
+    private PaymentTransactionInfoPlugin executeInitialTransactionInScope(final TransactionType transactionType,
+                                                                          final UUID kbAccountId,
+                                                                          final UUID kbPaymentId,
+                                                                          final UUID kbTransactionId,
+                                                                          final UUID kbPaymentMethodId,
+                                                                          final BigDecimal amount,
+                                                                          final Currency currency,
+                                                                          final Iterable<PluginProperty> properties,
+                                                                          final CallContext context) throws PaymentPluginApiException {
         logger.info("Executing {} for kbPaymentId: {}, kbTransactionId: {}",
                 transactionType, kbPaymentId, kbTransactionId);
 
@@ -326,19 +391,32 @@ public class OmPayPaymentPluginApi implements PaymentPluginApi {
             throw new PaymentPluginApiException("Missing Data", "Payment nonce is required for initial transaction.");
         }
 
+        boolean submitted = false;
         try {
             // Get account details
-            final Account kbAccount = killbillAPI.getAccountUserApi().getAccountById(kbAccountId, context);
+            final Account kbAccount = accountCache.getAccount(kbAccountId, context);
+
+            // The shopper comes back from 3DS through the plugin, which settles the transaction before redirecting
+            final String ompayReturnUrl;
+            if (config.isThreeDsReturnEnabled() && !Strings.isNullOrEmpty(returnUrl) && !Strings.isNullOrEmpty(config.getThreeDsReturnSigningKey())) {
+                final String killbillBaseUrl = findPluginPropertyValue(PROPERTY_KILLBILL_BASE_URL, properties, config.getKillbillBaseUrl());
+                ompayReturnUrl = OmPay3dsReturnServlet.returnUrlFor(killbillBaseUrl, kbTransactionId, returnUrl,
+                        clock.getClock().getUTCNow().plusMinutes(config.getThreeDsReturnTtlMinutes()), config.getThreeDsReturnSigningKey());
+            } else {
+                ompayReturnUrl = returnUrl;
+            }
 
             // Build payment payload
             final Map<String, Object> paymentPayload = buildPaymentPayload(
                     transactionType, nonce, amount, currency, kbAccount, kbPaymentId,
-                    returnUrl, cancelUrl, force3ds, config);
+                    ompayReturnUrl, cancelUrl, force3ds, config);
 
             // Call OMPay API
             final String jsonPayload = objectMapper.writeValueAsString(paymentPayload);
             logger.info("OMPay /payment request payload: {}", jsonPayload);
 
+            dao.releaseUnitOfWork();
+            submitted = true;
             final OmPayHttpClient.OmPayHttpResponse omPayResponse = httpClient.doPost(
                     config.getApiBaseUrlWithMerchant() + "/payment",
                     jsonPayload,
@@ -352,7 +430,9 @@ public class OmPayPaymentPluginApi implements PaymentPluginApi {
             throw e;
         } catch (Exception e) {
             logger.error("Error executing OMPay payment for {}: {}", transactionType, e.getMessage(), e);
-            throw new PaymentPluginApiException("OMPay Payment Error", e.getMessage());
+            // Turned away by the gateway limiter: the request never left
+            final boolean sent = submitted && !(e instanceof OmPayLimiterTimeoutException);
+            throw new PaymentPluginApiException(sent ? "OMPay Payment Error" : ERROR_TYPE_NOT_SUBMITTED, e.getMessage());
         }
     }
 
@@ -426,7 +506,7 @@ public class OmPayPaymentPluginApi implements PaymentPluginApi {
 
             final String ompayCardId = pmRecord.getOmpayCreditCardId();
 
-            final Account kbAccount = killbillAPI.getAccountUserApi().getAccountById(kbAccountId, context);
+            final Account kbAccount = accountCache.getAccount(kbAccountId, context);
 
             // Build payment payload for subsequent transaction
             final Map<String, Object> paymentPayload = buildSubsequentPaymentPayload(
@@ -437,6 +517,7 @@ public class OmPayPaymentPluginApi implements PaymentPluginApi {
             final String jsonPayload = objectMapper.writeValueAsString(paymentPayload);
             logger.info("OMPay subsequent payment request payload: {}", jsonPayload);
 
+            dao.releaseUnitOfWork();
             final OmPayHttpClient.OmPayHttpResponse omPayResponse = httpClient.doPost(
                     config.getApiBaseUrlWithMerchant() + "/payment",
                     jsonPayload,
@@ -644,7 +725,7 @@ public class OmPayPaymentPluginApi implements PaymentPluginApi {
             );
 
             killbillAPI.getPaymentApi().addPaymentMethod(
-                    killbillAPI.getAccountUserApi().getAccountById(kbAccountId, context),
+                    accountCache.getAccount(kbAccountId, context),
                     responseData.cardId,
                     OmPayActivator.PLUGIN_NAME,
                     true,
@@ -671,6 +752,7 @@ public class OmPayPaymentPluginApi implements PaymentPluginApi {
 
         try {
             final String retrieveUrl = config.getApiBaseUrlWithMerchant() + "/payment/" + ompayTransactionId;
+            dao.releaseUnitOfWork();
             final OmPayHttpClient.OmPayHttpResponse response = httpClient.doGet(retrieveUrl, config.getBasicAuthHeader());
 
             if (response.isSuccess() && response.getResponseMap() != null) {
@@ -707,7 +789,7 @@ public class OmPayPaymentPluginApi implements PaymentPluginApi {
                                               final TenantContext context) {
         try {
             final PaymentApiWrapper paymentApiWrapper = new PaymentApiWrapper(killbillAPI, false);
-            final Account account = killbillAPI.getAccountUserApi().getAccountById(accountId, context);
+            final Account account = accountCache.getAccount(accountId, context);
 
             paymentApiWrapper.transitionPendingTransaction(account,
                     transaction.getKbPaymentId(),
@@ -751,6 +833,42 @@ public class OmPayPaymentPluginApi implements PaymentPluginApi {
                 .build();
     }
 
+    /**
+     * Transaction info as it would be read back from the database after updateResponseByOmPayTxnId(newState, responseMap)
+     */
+    private PaymentTransactionInfoPlugin mergeRefreshedTransaction(final PaymentTransactionInfoPlugin original,
+                                                                   final String newState,
+                                                                   final Map<String, Object> responseMap,
+                                                                   final boolean includeGatewayPayload) {
+        final Map<String, Object> result = responseMap.get("result") instanceof Map ? (Map<String, Object>) responseMap.get("result") : null;
+        final List<PluginProperty> mergedProperties = new ArrayList<>();
+        if (includeGatewayPayload) {
+            responseMap.forEach((key, value) -> {
+                if (value instanceof String || value instanceof Number || value instanceof Boolean) {
+                    mergedProperties.add(new PluginProperty(key, value, false));
+                }
+            });
+        } else if (newState != null) {
+            mergedProperties.add(new PluginProperty("state", newState, false));
+        }
+
+        return new PluginPaymentTransactionInfoPlugin.Builder<>()
+                .withKbPaymentId(original.getKbPaymentId())
+                .withKbTransactionPaymentId(original.getKbTransactionPaymentId())
+                .withTransactionType(original.getTransactionType())
+                .withAmount(original.getAmount())
+                .withCurrency(original.getCurrency())
+                .withStatus(mapOmpayStatusToKillBill(newState))
+                .withGatewayError(result != null ? (String) result.get("description") : original.getGatewayError())
+                .withGatewayErrorCode(result != null ? (String) result.get("code") : original.getGatewayErrorCode())
+                .withFirstPaymentReferenceId(original.getFirstPaymentReferenceId())
+                .withSecondPaymentReferenceId(original.getSecondPaymentReferenceId())
+                .withCreatedDate(original.getCreatedDate())
+                .withEffectiveDate(original.getEffectiveDate())
+                .withProperties(mergedProperties)
+                .build();
+    }
+
     /**
      * Build payment transaction info plugin
      */
@@ -848,6 +966,8 @@ public class OmPayPaymentPluginApi implements PaymentPluginApi {
 
     @Override
     public void addPaymentMethod(final UUID kbAccountId, final UUID kbPaymentMethodId, final PaymentMethodPlugin paymentMethodProps, final boolean setDefault, final Iterable<PluginProperty> properties, final CallContext context) throws PaymentPluginApiException {
+        // The account (e.g. its default payment method) changes with this call: don't serve the cached one anymore
+        accountCache.invalidate(kbAccountId, context);
 
         // Check if we have a sessionId (3DS flow completion)
         final String sessionId = findPluginPropertyValue("sessionId", properties, null);
@@ -907,17 +1027,8 @@ public class OmPayPaymentPluginApi implements PaymentPluginApi {
                     OmpayResponsesRecord originalTransactionRecord = dao.getResponseByOmPayTransactionId(responseData.transactionId, context.getTenantId());
 
                     if (originalTransactionRecord != null) {
-                        PaymentPluginStatus currentKbStatusInDb = PaymentPluginStatus.UNDEFINED;
-                        try {
-                            // Determine current KB status from the stored additional_data before update
-                            if (!Strings.isNullOrEmpty(originalTransactionRecord.getAdditionalData())) {
-                                Map<String, Object> currentAdditionalData = objectMapper.readValue(originalTransactionRecord.getAdditionalData(), new TypeReference<Map<String, Object>>() {});
-                                String currentStateInDb = (String) currentAdditionalData.get("state");
-                                currentKbStatusInDb = mapOmpayStatusToKillBill(currentStateInDb);
-                            }
-                        } catch (JsonProcessingException e) {
-                            logger.warn("Could not parse current additional_data to determine status for OMPay transaction ID: {} before update from session.", responseData.transactionId, e);
-                        }
+                        // Determine current KB status from the stored state before update
+                        final PaymentPluginStatus currentKbStatusInDb = mapOmpayStatusToKillBill(originalTransactionRecord.getOmpayState());
 
                         PaymentPluginStatus newKbStatusFromSession = mapOmpayStatusToKillBill(responseData.state); // responseData.state is from the /payment/session/{id} call
 
@@ -1065,8 +1176,27 @@ public class OmPayPaymentPluginApi implements PaymentPluginApi {
         return additionalData;
     }
 
+    // One operation at a time per payment: when the lane does not free up in time, the operation fails as a plugin error
+    private <T, E extends Exception> T inPaymentLane(final UUID kbPaymentId, final OmPayPaymentLanes.Work<T, E> work) throws E, PaymentPluginApiException {
+        try {
+            return paymentLanes.call(kbPaymentId, work);
+        } catch (final OmPayPaymentLanes.LaneTimeoutException e) {
+            logger.warn("Payment {} busy: {}", kbPaymentId, e.getMessage());
+            throw new PaymentPluginApiException("Payment Busy", e.getMessage());
+        }
+    }
+
     @Override
     public PaymentTransactionInfoPlugin capturePayment(UUID kbAccountId, UUID kbPaymentId, UUID kbTransactionId, UUID kbPaymentMethodId, BigDecimal amount, Currency currency, Iterable<PluginProperty> properties, CallContext context) throws PaymentPluginApiException {
+        // One operation at a time per payment, see OmPayPaymentLanes; its DAO calls share one connection
+        return inPaymentLane(kbPaymentId, () -> {
+            try (final OmPayDao.UnitOfWork ignored = dao.openUnitOfWork()) {
+                return capturePaymentSerialized(kbAccountId, kbPaymentId, kbTransactionId, kbPaymentMethodId, amount, currency, properties, context);
+            }
+        });
+    }
+
+    private PaymentTransactionInfoPlugin capturePaymentSerialized(UUID kbAccountId, UUID kbPaymentId, UUID kbTransactionId, UUID kbPaymentMethodId, BigDecimal amount, Currency currency, Iterable<PluginProperty> properties, CallContext context) throws PaymentPluginApiException {
         final OmPayConfigProperties config = configurationHandler.getConfigurable(context.getTenantId());
         final DateTime utcNow = clock.getClock().getUTCNow();
 
@@ -1077,15 +1207,13 @@ public class OmPayPaymentPluginApi implements PaymentPluginApi {
 
         if (Strings.isNullOrEmpty(originalAuthOmPayTxnId)) {
             try {
-                List<OmpayResponsesRecord> authResponses = dao.getResponsesByKbPaymentIdAndType(kbPaymentId, TransactionType.AUTHORIZE, "authorised", context.getTenantId());
-                if (!authResponses.isEmpty()) {
-                    originalAuthOmPayTxnId = authResponses.get(0).getOmpayTransactionId();
-                } else {
-                    throw new PaymentPluginApiException("Missing Data", "Original OMPay authorization transaction ID (REFERENCE_ID) is required for capture and could not be found.");
-                }
+                originalAuthOmPayTxnId = dao.findOriginalOmPayTransactionId(kbPaymentId, AUTHORIZATION_ORIGINAL_TRANSACTIONS, context.getTenantId());
             } catch (SQLException e) {
                 throw new PaymentPluginApiException("DB Error", "Failed to retrieve original authorization transaction for capture: " + e.getMessage());
             }
+            if (Strings.isNullOrEmpty(originalAuthOmPayTxnId)) {
+                throw new PaymentPluginApiException("Missing Data", "Original OMPay authorization transaction ID (REFERENCE_ID) is required for capture and could not be found.");
+            }
         }
 
         logger.info("Attempting to capture OMPay transaction ID: {} for kbTransactionId: {} with amount: {}", originalAuthOmPayTxnId, kbTransactionId, amount);
@@ -1098,6 +1226,7 @@ public class OmPayPaymentPluginApi implements PaymentPluginApi {
 
         try {
             String jsonPayload = objectMapper.writeValueAsString(payload);
+            dao.releaseUnitOfWork();
             OmPayHttpClient.OmPayHttpResponse response = httpClient.doPost(captureUrl, jsonPayload, config.getBasicAuthHeader(), "application/json");
             Map<String, Object> responseMap = response.getResponseMap();
 
@@ -1119,7 +1248,7 @@ public class OmPayPaymentPluginApi implements PaymentPluginApi {
 
             dao.addResponse(kbAccountId, kbPaymentId, kbTransactionId, TransactionType.CAPTURE, amount, currency,
                     newOmPayTxnId, originalAuthOmPayTxnId,
-                    null, null, null, null, null,
+                    null, null, ompayState, null, null,
                     responseMap, utcNow, context.getTenantId());
 
             return new PluginPaymentTransactionInfoPlugin.Builder<>()
@@ -1168,7 +1297,7 @@ public class OmPayPaymentPluginApi implements PaymentPluginApi {
                     .collect(Collectors.toList());
 
             return new OmPayPaymentMethodPlugin(
-                    UUID.fromString(record.getKbPaymentMethodId()),
+                    record.getKbPaymentMethodId(),
                     record.getOmpayCreditCardId(),
                     record.getIsDefault() == 1,
                     pmProperties
@@ -1282,33 +1411,53 @@ public class OmPayPaymentPluginApi implements PaymentPluginApi {
 
     @Override
     public GatewayNotification processNotification(final String notificationBody, final Iterable<PluginProperty> properties, final CallContext context) throws PaymentPluginApiException {
-        logger.info("Processing OMPay notification: {}", notificationBody);
+        final OmPayNotification notification;
         try {
-            Map<String, Object> notificationMap = objectMapper.readValue(notificationBody, new TypeReference<Map<String, Object>>() {});
+            notification = OmPayNotification.parse(objectMapper, notificationBody);
+        } catch (JsonProcessingException e) {
+            logger.error("Failed to parse OMPay notification JSON: {}", notificationBody, e);
+            throw new PaymentPluginApiException("Notification Parse Error",
+                    "Invalid JSON in notification: " + e.getMessage());
+        }
+        return processNotification(notification, context);
+    }
 
+    /**
+     * Internal entry point, for notifications already parsed (see {@link OmPayWebhookProcessor}).
+     */
+    public GatewayNotification processNotification(final OmPayNotification notification, final CallContext context) throws PaymentPluginApiException {
+        final String notificationBody = notification.getBody();
+        logger.info("Processing OMPay notification: {}", notificationBody);
+        try {
             // Extract core notification data
-            String resourceType = (String) notificationMap.get("resource_type");
-            String kind = (String) notificationMap.get("kind");
-            String notificationId = (String) notificationMap.get("id");
-            Map<String, Object> resource = (Map<String, Object>) notificationMap.get("resource");
+            String resourceType = notification.getResourceType();
+            String kind = notification.getKind();
+            String notificationId = notification.getId();
 
             logger.info("Notification: id={}, type={}, kind={}", notificationId, resourceType, kind);
 
-            if (resource == null) {
+            if (!notification.hasResource()) {
                 logger.warn("Notification resource is null for notification ID: {}", notificationId);
                 return new PluginGatewayNotification(notificationBody);
             }
 
             if ("payment".equals(resourceType)) {
-                String ompayTransactionId = (String) resource.get("id");
-                String ompayState = (String) resource.get("state");
-                String ompayReferenceId = (String) resource.get("reference_id");
+                String ompayTransactionId = notification.getResourceId();
+                String ompayState = notification.getState();
+                String ompayReferenceId = notification.getReferenceId();
 
                 if (Strings.isNullOrEmpty(ompayTransactionId)) {
                     logger.warn("Received OMPay payment notification with missing id: {}", notificationBody);
                     throw new PaymentPluginApiException("Invalid Notification", "Missing id in payment notification.");
                 }
 
+                // Definitely unknown transactions skip the database
+                if (!knownTransactions.mightBeKnown(context.getTenantId(), Arrays.asList(ompayTransactionId, ompayReferenceId), context.getCreatedDate())) {
+                    logger.info("Ignoring notification for unknown OMPay transaction ID: {} and reference ID: {}",
+                            ompayTransactionId, ompayReferenceId);
+                    return new PluginGatewayNotification(notificationBody);
+                }
+
                 // Try to find the transaction in our database
                 OmpayResponsesRecord record = dao.getResponseByOmPayTransactionId(ompayTransactionId, context.getTenantId());
 
@@ -1325,121 +1474,187 @@ public class OmPayPaymentPluginApi implements PaymentPluginApi {
                     return new PluginGatewayNotification(notificationBody);
                 }
 
-                UUID kbAccountId = UUID.fromString(record.getKbAccountId());
-                UUID kbPaymentId = UUID.fromString(record.getKbPaymentId());
-                UUID kbTransactionId = UUID.fromString(record.getKbPaymentTransactionId());
-                PaymentPluginStatus newKbStatus = mapOmpayStatusToKillBill(ompayState);
+                // Serialized with the other operations on the payment. The response is read again in the lane: an
+                // operation which held it may have changed it in the meantime
+                final OmpayResponsesRecord matched = record;
+                return inPaymentLane(matched.getKbPaymentId(), () -> {
+                    final OmpayResponsesRecord current = dao.getResponseByOmPayTransactionId(matched.getOmpayTransactionId(), context.getTenantId());
+                    return applyPaymentNotification(notification, current != null ? current : matched, context);
+                });
+            } else if (CARD_RESOURCE_TYPES.contains(resourceType)) {
+                return applyCardNotification(notification, context);
+            } else if ("payer".equals(resourceType)) {
+                return applyPayerNotification(notification, context);
+            } else {
+                logger.warn("Received OMPay notification of unhandled resource_type '{}': {}",
+                        resourceType, notificationBody);
+            }
+        } catch (SQLException e) {
+            logger.error("Database error while processing OMPay notification: {}", e.getMessage(), e);
+            throw new PaymentPluginApiException("DB Error",
+                    "Failed to process notification due to DB error: " + e.getMessage());
+        }
 
-                // Extract the result and additional data from the notification
-                Map<String, Object> resultMap = (Map<String, Object>) resource.get("result");
-                String resultCode = resultMap != null ? (String) resultMap.get("code") : null;
-                String resultDescription = resultMap != null ? (String) resultMap.get("description") : null;
+        // Fallback if not handled or error before specific returns
+        return new PluginGatewayNotification(notificationBody);
+    }
 
-                // Get current transaction info to check if status has changed
-                PluginPaymentTransactionInfoPlugin currentTxnInfo = dao.toPaymentTransactionInfoPlugin(record);
+    // Vault card updated or deleted: only the payment methods of this card are touched, no full vault sync
+    private GatewayNotification applyCardNotification(final OmPayNotification notification, final CallContext context) throws SQLException {
+        final String ompayCardId = notification.getResourceId();
+        if (Strings.isNullOrEmpty(ompayCardId) || context.getTenantId() == null) {
+            logger.warn("Ignoring OMPay card notification {} without card id or tenant", notification.getId());
+            return new PluginGatewayNotification(notification.getBody());
+        }
 
-                if (currentTxnInfo.getStatus() != newKbStatus) {
-                    logger.info("Updating transaction {} for OMPay ID {} from {} to {} based on notification kind: {}",
-                            kbTransactionId, ompayTransactionId, currentTxnInfo.getStatus(), newKbStatus, kind);
+        final int updated;
+        if (isDeletion(notification)) {
+            updated = dao.markPaymentMethodsAsDeletedByOmPayCardId(ompayCardId, context.getTenantId(), clock.getClock().getUTCNow());
+            logger.info("OMPay card {} deleted, {} payment methods marked as deleted", ompayCardId, updated);
+        } else {
+            updated = dao.updatePaymentMethodsFromCard(notification.getResource(), context.getTenantId(), clock.getClock().getUTCNow());
+            if (updated == 0) {
+                // Not stored yet: picked up by the next getPaymentMethods(refresh=true)
+                logger.info("Ignoring update of unknown OMPay card {}", ompayCardId);
+            } else {
+                logger.info("OMPay card {} updated, {} payment methods refreshed", ompayCardId, updated);
+            }
+        }
 
-                    // Update our database with the new status and details
-                    Map<String, Object> updatedAdditionalData;
-                    try {
-                        updatedAdditionalData = objectMapper.readValue(record.getAdditionalData(),
-                                new TypeReference<Map<String,Object>>() {});
-                    } catch (JsonProcessingException e) {
-                        updatedAdditionalData = new HashMap<>();
-                    }
+        return new PluginGatewayNotification.Builder<>()
+                .withEntity(notification.getBody())
+                .withProperties(ImmutableList.of(new PluginProperty(OMPAY_CARD_ID_PROP, ompayCardId, false),
+                                                 new PluginProperty("notification_kind", notification.getKind(), false),
+                                                 new PluginProperty("updated_payment_methods", updated, false)))
+                .build();
+    }
 
-                    // Update with the latest information
-                    updatedAdditionalData.put("state", ompayState);
-                    updatedAdditionalData.put("notification_kind", kind);
-                    updatedAdditionalData.put("notification_id", notificationId);
-                    updatedAdditionalData.put("notification_processed_time", DateTime.now().toString());
+    // Payer removed from the vault: all its cards go with it. Other payer updates do not concern the payment methods
+    private GatewayNotification applyPayerNotification(final OmPayNotification notification, final CallContext context) throws SQLException {
+        final String ompayPayerId = notification.getResourceId();
+        if (Strings.isNullOrEmpty(ompayPayerId) || context.getTenantId() == null) {
+            logger.warn("Ignoring OMPay payer notification {} without payer id or tenant", notification.getId());
+            return new PluginGatewayNotification(notification.getBody());
+        }
 
-                    if (resultMap != null) {
-                        updatedAdditionalData.put("result", resultMap);
-                    }
+        if (!isDeletion(notification)) {
+            logger.info("OMPay payer {} updated ({}), no payment method to update", ompayPayerId, notification.getKind());
+            return new PluginGatewayNotification(notification.getBody());
+        }
 
-                    // If we have transaction details like amount, update them too
-                    if (resource.get("transaction") instanceof Map) {
-                        Map<String, Object> transactionMap = (Map<String, Object>) resource.get("transaction");
-                        if (transactionMap.get("amount") instanceof Map) {
-                            updatedAdditionalData.put("transaction", transactionMap);
-                        }
-                    }
+        final int deleted = dao.markPaymentMethodsAsDeletedByOmPayPayerId(ompayPayerId, context.getTenantId(), clock.getClock().getUTCNow());
+        logger.info("OMPay payer {} deleted, {} payment methods marked as deleted", ompayPayerId, deleted);
+        return new PluginGatewayNotification.Builder<>()
+                .withEntity(notification.getBody())
+                .withProperties(ImmutableList.of(new PluginProperty(OMPAY_PAYER_ID_PROP, ompayPayerId, false),
+                                                 new PluginProperty("notification_kind", notification.getKind(), false),
+                                                 new PluginProperty("updated_payment_methods", deleted, false)))
+                .build();
+    }
 
-                    // Save updated data to database
-                    try {
-                        dao.updateResponseAdditionalData(record.getRecordId(), ompayState,
-                                objectMapper.writeValueAsString(updatedAdditionalData));
-                    } catch (Exception e) {
-                        logger.error("Error updating additional data for transaction {}: {}",
-                                kbTransactionId, e.getMessage(), e);
-                    }
+    // e.g. kind "card.deleted", or a resource in the "deleted" state
+    private static boolean isDeletion(final OmPayNotification notification) {
+        final String kind = Strings.nullToEmpty(notification.getKind()).toLowerCase(Locale.ROOT);
+        return kind.endsWith("deleted") || kind.endsWith("removed") || "deleted".equalsIgnoreCase(notification.getState());
+    }
 
-                    // Call Kill Bill API to notify of state change if transaction was pending
-                    if (currentTxnInfo.getStatus() == PaymentPluginStatus.PENDING) {
-                        try {
-                            Account killbillAccount = killbillAPI.getAccountUserApi().getAccountById(kbAccountId, context);
-                            killbillAPI.getPaymentApi().notifyPendingTransactionOfStateChanged(
-                                    killbillAccount,
-                                    kbTransactionId,
-                                    (newKbStatus == PaymentPluginStatus.PROCESSED), // isSuccess boolean
-                                    context
-                            );
-                            logger.info("Notified Kill Bill of status change for transaction {}", kbTransactionId);
-                        } catch (AccountApiException | org.killbill.billing.payment.api.PaymentApiException e) {
-                            logger.error("Error notifying Kill Bill of transaction state change: {}", e.getMessage(), e);
-                            throw new PaymentPluginApiException("Kill Bill API Error",
-                                    "Failed to notify Kill Bill of transaction state change: " + e.getMessage());
-                        }
-                    } else {
-                        logger.info("Transaction {} was not in PENDING state (was {}), not notifying Kill Bill",
-                                kbTransactionId, currentTxnInfo.getStatus());
-                    }
-                } else {
-                    logger.info("Notification for OMPay ID {} (kbTxnId {}). No status change: current={}, new={} (from '{}').",
-                            ompayTransactionId, kbTransactionId, currentTxnInfo.getStatus(), newKbStatus, ompayState);
-                }
+    private GatewayNotification applyPaymentNotification(final OmPayNotification notification,
+                                                         final OmpayResponsesRecord record,
+                                                         final CallContext context) throws SQLException {
+        final String notificationBody = notification.getBody();
+        final String kind = notification.getKind();
+        final String notificationId = notification.getId();
+        final String ompayTransactionId = notification.getResourceId();
+        final String ompayState = notification.getState();
+        final String ompayReferenceId = notification.getReferenceId();
+
+        UUID kbAccountId = record.getKbAccountId();
+        UUID kbPaymentId = record.getKbPaymentId();
+        UUID kbTransactionId = record.getKbPaymentTransactionId();
+        PaymentPluginStatus newKbStatus = mapOmpayStatusToKillBill(ompayState);
+
+        // Extract the result and additional data from the notification
+        Map<String, Object> resultMap = notification.getResult();
+        String resultCode = resultMap != null ? (String) resultMap.get("code") : null;
+        String resultDescription = resultMap != null ? (String) resultMap.get("description") : null;
+
+        // Get current transaction info to check if status has changed
+        PluginPaymentTransactionInfoPlugin currentTxnInfo = dao.toPaymentTransactionInfoPlugin(record);
+
+        if (currentTxnInfo.getStatus() != newKbStatus) {
+            logger.info("Updating transaction {} for OMPay ID {} from {} to {} based on notification kind: {}",
+                    kbTransactionId, ompayTransactionId, currentTxnInfo.getStatus(), newKbStatus, kind);
+
+            // Only the fields carried by the notification: the database merges them into the stored payload
+            final Map<String, Object> additionalDataPatch = new HashMap<>();
+            additionalDataPatch.put("state", ompayState);
+            additionalDataPatch.put("notification_kind", kind);
+            additionalDataPatch.put("notification_id", notificationId);
+            additionalDataPatch.put("notification_processed_time", DateTime.now().toString());
+
+            if (resultMap != null) {
+                additionalDataPatch.put("result", resultMap);
+            }
+
+            // If we have transaction details like amount, update them too
+            final Map<String, Object> transactionMap = notification.getTransaction();
+            if (transactionMap != null && transactionMap.get("amount") instanceof Map) {
+                additionalDataPatch.put("transaction", transactionMap);
+            }
 
-                // Create plugin properties with notification details for the return value
-                List<PluginProperty> notificationProperties = ImmutableList.of(
-                        new PluginProperty("ompay_transaction_id", ompayTransactionId, false),
-                        new PluginProperty("ompay_reference_id", ompayReferenceId, false),
-                        new PluginProperty("processed_kb_transaction_id", kbTransactionId.toString(), false),
-                        new PluginProperty("notification_kind", kind, false),
-                        new PluginProperty("notification_id", notificationId, false),
-                        new PluginProperty("new_status", newKbStatus.toString(), false),
-                        new PluginProperty("result_code", resultCode, false),
-                        new PluginProperty("result_description", resultDescription, false)
-                );
-
-                return new PluginGatewayNotification.Builder<>()
-                        .withKbPaymentId(kbPaymentId)
-                        .withEntity(notificationBody)
-                        .withProperties(notificationProperties)
-                        .build();
+            // Kill Bill only needs to hear about transactions it considers pending
+            final OmPayDao.StateChangeNotification stateChange;
+            if (currentTxnInfo.getStatus() == PaymentPluginStatus.PENDING) {
+                stateChange = OmPayDao.StateChangeNotification.of(kbAccountId, kbPaymentId, kbTransactionId,
+                        newKbStatus == PaymentPluginStatus.PROCESSED, clock.getClock().getUTCNow(), context.getTenantId());
             } else {
-                logger.warn("Received OMPay notification of unhandled resource_type '{}': {}",
-                        resourceType, notificationBody);
+                stateChange = null;
+                logger.info("Transaction {} was not in PENDING state (was {}), not notifying Kill Bill",
+                        kbTransactionId, currentTxnInfo.getStatus());
             }
-        } catch (JsonProcessingException e) {
-            logger.error("Failed to parse OMPay notification JSON: {}", notificationBody, e);
-            throw new PaymentPluginApiException("Notification Parse Error",
-                    "Invalid JSON in notification: " + e.getMessage());
-        } catch (SQLException e) {
-            logger.error("Database error while processing OMPay notification: {}", e.getMessage(), e);
-            throw new PaymentPluginApiException("DB Error",
-                    "Failed to process notification due to DB error: " + e.getMessage());
-        }
 
-        // Fallback if not handled or error before specific returns
-        return new PluginGatewayNotification(notificationBody);
+            // Save updated data to database, together with the Kill Bill notification (delivered by the
+            // outbox dispatcher). On failure the webhook fails, so that OMPay redelivers it
+            dao.mergeResponseAdditionalData(record.getRecordId(), ompayState, additionalDataPatch, stateChange);
+            if (stateChange != null) {
+                notificationDispatcher.wakeUp();
+            }
+            statusWatcher.transactionUpdated(kbTransactionId);
+        } else {
+            logger.info("Notification for OMPay ID {} (kbTxnId {}). No status change: current={}, new={} (from '{}').",
+                    ompayTransactionId, kbTransactionId, currentTxnInfo.getStatus(), newKbStatus, ompayState);
+        }
+
+        // Create plugin properties with notification details for the return value
+        List<PluginProperty> notificationProperties = ImmutableList.of(
+                new PluginProperty("ompay_transaction_id", ompayTransactionId, false),
+                new PluginProperty("ompay_reference_id", ompayReferenceId, false),
+                new PluginProperty("processed_kb_transaction_id", kbTransactionId.toString(), false),
+                new PluginProperty("notification_kind", kind, false),
+                new PluginProperty("notification_id", notificationId, false),
+                new PluginProperty("new_status", newKbStatus.toString(), false),
+                new PluginProperty("result_code", resultCode, false),
+                new PluginProperty("result_description", resultDescription, false)
+        );
+
+        return new PluginGatewayNotification.Builder<>()
+                .withKbPaymentId(kbPaymentId)
+                .withEntity(notificationBody)
+                .withProperties(notificationProperties)
+                .build();
     }
 
     @Override
     public PaymentTransactionInfoPlugin voidPayment(final UUID kbAccountId, final UUID kbPaymentId, final UUID kbTransactionId, final UUID kbPaymentMethodId, final Iterable<PluginProperty> properties, final CallContext context) throws PaymentPluginApiException {
+        // One operation at a time per payment, see OmPayPaymentLanes; its DAO calls share one connection
+        return inPaymentLane(kbPaymentId, () -> {
+            try (final OmPayDao.UnitOfWork ignored = dao.openUnitOfWork()) {
+                return voidPaymentSerialized(kbAccountId, kbPaymentId, kbTransactionId, kbPaymentMethodId, properties, context);
+            }
+        });
+    }
+
+    private PaymentTransactionInfoPlugin voidPaymentSerialized(final UUID kbAccountId, final UUID kbPaymentId, final UUID kbTransactionId, final UUID kbPaymentMethodId, final Iterable<PluginProperty> properties, final CallContext context) throws PaymentPluginApiException {
         final OmPayConfigProperties config = configurationHandler.getConfigurable(context.getTenantId());
         final DateTime utcNow = clock.getClock().getUTCNow();
 
@@ -1448,15 +1663,13 @@ public class OmPayPaymentPluginApi implements PaymentPluginApi {
         if (Strings.isNullOrEmpty(originalOmPayTxnId)) {
             // If not in properties, try to find the most recent AUTHORIZE transaction for this kbPaymentId
             try {
-                List<OmpayResponsesRecord> authResponses = dao.getResponsesByKbPaymentIdAndType(kbPaymentId, TransactionType.AUTHORIZE, "authorised", context.getTenantId());
-                if (!authResponses.isEmpty()) {
-                    originalOmPayTxnId = authResponses.get(0).getOmpayTransactionId(); // Assuming latest successful auth
-                } else {
-                    throw new PaymentPluginApiException("Missing Data", "Original OMPay authorization transaction ID (REFERENCE_ID) is required for void and could not be found.");
-                }
+                originalOmPayTxnId = dao.findOriginalOmPayTransactionId(kbPaymentId, AUTHORIZATION_ORIGINAL_TRANSACTIONS, context.getTenantId());
             } catch (SQLException e) {
                 throw new PaymentPluginApiException("DB Error", "Failed to retrieve original authorization transaction for void: " + e.getMessage());
             }
+            if (Strings.isNullOrEmpty(originalOmPayTxnId)) {
+                throw new PaymentPluginApiException("Missing Data", "Original OMPay authorization transaction ID (REFERENCE_ID) is required for void and could not be found.");
+            }
         }
 
         logger.info("Attempting to void OMPay transaction ID: {} for kbTransactionId: {}", originalOmPayTxnId, kbTransactionId);
@@ -1471,6 +1684,7 @@ public class OmPayPaymentPluginApi implements PaymentPluginApi {
 
         try {
             String jsonPayload = objectMapper.writeValueAsString(payload);
+            dao.releaseUnitOfWork();
             OmPayHttpClient.OmPayHttpResponse response = httpClient.doPost(voidUrl, jsonPayload, config.getBasicAuthHeader(), "application/json");
             Map<String, Object> responseMap = response.getResponseMap();
 
@@ -1496,7 +1710,7 @@ public class OmPayPaymentPluginApi implements PaymentPluginApi {
             dao.addResponse(kbAccountId, kbPaymentId, kbTransactionId, TransactionType.VOID,
                     null, null, // Void typically doesn't have amount/currency in the new transaction record
                     newOmPayTxnId, originalOmPayTxnId, // newOmPayTxnId is firstRef, original is secondRef (or vice-versa based on your convention)
-                    null, null, null, null, null,
+                    null, null, ompayState, null, null,
                     responseMap, utcNow, context.getTenantId());
 
             return new PluginPaymentTransactionInfoPlugin.Builder<>()
@@ -1530,6 +1744,15 @@ public class OmPayPaymentPluginApi implements PaymentPluginApi {
 
     @Override
     public PaymentTransactionInfoPlugin refundPayment(final UUID kbAccountId, final UUID kbPaymentId, final UUID kbTransactionId, final UUID kbPaymentMethodId, final BigDecimal amount, final Currency currency, final Iterable<PluginProperty> properties, final CallContext context) throws PaymentPluginApiException {
+        // One operation at a time per payment, see OmPayPaymentLanes; its DAO calls share one connection
+        return inPaymentLane(kbPaymentId, () -> {
+            try (final OmPayDao.UnitOfWork ignored = dao.openUnitOfWork()) {
+                return refundPaymentSerialized(kbAccountId, kbPaymentId, kbTransactionId, kbPaymentMethodId, amount, currency, properties, context);
+            }
+        });
+    }
+
+    private PaymentTransactionInfoPlugin refundPaymentSerialized(final UUID kbAccountId, final UUID kbPaymentId, final UUID kbTransactionId, final UUID kbPaymentMethodId, final BigDecimal amount, final Currency currency, final Iterable<PluginProperty> properties, final CallContext context) throws PaymentPluginApiException {
         final OmPayConfigProperties config = configurationHandler.getConfigurable(context.getTenantId());
         final DateTime utcNow = clock.getClock().getUTCNow();
 
@@ -1540,25 +1763,15 @@ public class OmPayPaymentPluginApi implements PaymentPluginApi {
 
 
         if (Strings.isNullOrEmpty(originalOmPayTxnId)) {
-            // If not in properties, find the most recent CAPTURE or PURCHASE for this kbPaymentId
+            // If not in properties, find the most recent successful CAPTURE or PURCHASE for this kbPaymentId
             try {
-                List<OmpayResponsesRecord> successfulTransactions = new ArrayList<>();
-                successfulTransactions.addAll(dao.getResponsesByKbPaymentIdAndType(kbPaymentId, TransactionType.CAPTURE, "captured", context.getTenantId()));
-                if (successfulTransactions.isEmpty()) {
-                    successfulTransactions.addAll(dao.getResponsesByKbPaymentIdAndType(kbPaymentId, TransactionType.PURCHASE, "captured", context.getTenantId())); // Assuming "captured" is the state for successful SALE
-                    if (successfulTransactions.isEmpty()) {
-                        successfulTransactions.addAll(dao.getResponsesByKbPaymentIdAndType(kbPaymentId, TransactionType.PURCHASE, "authorised", context.getTenantId())); // For some gateways sale might be "authorised"
-                    }
-                }
-
-                if (!successfulTransactions.isEmpty()) {
-                    originalOmPayTxnId = successfulTransactions.get(0).getOmpayTransactionId(); // Get the latest one
-                } else {
-                    throw new PaymentPluginApiException("Missing Data", "Original OMPay transaction ID (REFERENCE_ID) for refund could not be found.");
-                }
+                originalOmPayTxnId = dao.findOriginalOmPayTransactionId(kbPaymentId, REFUND_ORIGINAL_TRANSACTIONS, context.getTenantId());
             } catch (SQLException e) {
                 throw new PaymentPluginApiException("DB Error", "Failed to retrieve original transaction for refund: " + e.getMessage());
             }
+            if (Strings.isNullOrEmpty(originalOmPayTxnId)) {
+                throw new PaymentPluginApiException("Missing Data", "Original OMPay transaction ID (REFERENCE_ID) for refund could not be found.");
+            }
         }
 
         logger.info("Attempting to refund OMPay transaction ID: {} for kbTransactionId: {} with amount: {}", originalOmPayTxnId, kbTransactionId, amount);
@@ -1572,6 +1785,7 @@ public class OmPayPaymentPluginApi implements PaymentPluginApi {
 
         try {
             String jsonPayload = objectMapper.writeValueAsString(payload);
+            dao.releaseUnitOfWork();
             OmPayHttpClient.OmPayHttpResponse response = httpClient.doPost(refundUrl, jsonPayload, config.getBasicAuthHeader(), "application/json");
             Map<String, Object> responseMap = response.getResponseMap();
 
@@ -1593,7 +1807,7 @@ public class OmPayPaymentPluginApi implements PaymentPluginApi {
 
             dao.addResponse(kbAccountId, kbPaymentId, kbTransactionId, TransactionType.REFUND, amount, currency,
                     newOmPayTxnId, originalOmPayTxnId,
-                    null, null, null, null, null,
+                    null, null, ompayState, null, null,
                     responseMap, utcNow, context.getTenantId());
 
             return new PluginPaymentTransactionInfoPlugin.Builder<>()
@@ -1622,6 +1836,7 @@ public class OmPayPaymentPluginApi implements PaymentPluginApi {
     @Override
     public void deletePaymentMethod(UUID kbAccountId, UUID kbPaymentMethodId, Iterable<PluginProperty> properties, CallContext context) throws PaymentPluginApiException {
         logger.info("Attempting to delete payment method with kbPaymentMethodId: {}", kbPaymentMethodId);
+        accountCache.invalidate(kbAccountId, context);
         final OmPayConfigProperties config = configurationHandler.getConfigurable(context.getTenantId());
         OmpayPaymentMethodsRecord pmRecord = null;
         try {
@@ -1682,6 +1897,7 @@ public class OmPayPaymentPluginApi implements PaymentPluginApi {
     @Override
     public void setDefaultPaymentMethod(UUID kbAccountId, UUID kbPaymentMethodId, Iterable<PluginProperty> properties, CallContext context) throws PaymentPluginApiException {
         logger.info("Setting payment method {} as default for account {}", kbPaymentMethodId, kbAccountId);
+        accountCache.invalidate(kbAccountId, context);
         final OmPayConfigProperties config = configurationHandler.getConfigurable(context.getTenantId());
         OmpayPaymentMethodsRecord pmRecord = null;
 
@@ -1741,6 +1957,13 @@ public class OmPayPaymentPluginApi implements PaymentPluginApi {
 
     @Override
     public List<PaymentMethodInfoPlugin> getPaymentMethods(UUID kbAccountId, boolean refresh, Iterable<PluginProperty> properties, CallContext context) throws PaymentPluginApiException {
+        // The refresh writes to the primary, the listing below then has to read from it as well
+        try (final OmPayDao.CallScope ignored = dao.openCallScope()) {
+            return getPaymentMethodsInScope(kbAccountId, refresh, properties, context);
+        }
+    }
+
+    private List<PaymentMethodInfoPlugin> getPaymentMethodsInScope(UUID kbAccountId, boolean refresh, Iterable<PluginProperty> properties, CallContext context) throws PaymentPluginApiException {
         logger.info("Getting payment methods for account: {}. Refresh: {}", kbAccountId, refresh);
         final OmPayConfigProperties config = configurationHandler.getConfigurable(context.getTenantId());
 
@@ -1791,7 +2014,7 @@ public class OmPayPaymentPluginApi implements PaymentPluginApi {
             return records.stream()
                     .filter(record -> record.getIsDeleted() == 0) // Ensure not deleted
                     .map(record -> new OmPayPaymentMethodInfoPlugin(kbAccountId,
-                            UUID.fromString(record.getKbPaymentMethodId()),
+                            record.getKbPaymentMethodId(),
                             record.getIsDefault() == 1,
                             record.getOmpayCreditCardId()))
                     .collect(Collectors.toList());
@@ -1886,17 +2109,13 @@ public class OmPayPaymentPluginApi implements PaymentPluginApi {
         }
 
         try {
-            // Store transaction in database FIRST
+            // Store transaction in database FIRST. Kill Bill gets the status from the return value (it never had
+            // the transaction pending): nothing to queue in the outbox
             dao.addResponse(kbAccountId, kbPaymentId, kbTransactionId, transactionType, amount, currency,
                     responseData.transactionId, responseData.referenceId, responseData.payerId,
                     responseData.cardId, responseData.state, responseData.redirectUrl,
                     responseData.authenticateUrl, omPayResponseMap, utcNow, context.getTenantId());
 
-            // CRITICAL: Notify Kill Bill immediately of the final status
-            if (pluginStatus != PaymentPluginStatus.PENDING && pluginStatus != PaymentPluginStatus.UNDEFINED) {
-                notifyKillBillOfTransactionState(kbAccountId, kbTransactionId, pluginStatus, context);
-            }
-
             // If transaction is successful (not pending), add payment method for initial transactions
             if (pluginStatus == PaymentPluginStatus.PROCESSED && !Strings.isNullOrEmpty(responseData.cardId)) {
                 addPaymentMethodFromSuccessfulTransaction(kbAccountId, responseData, omPayResponseMap, context);
@@ -1912,45 +2131,76 @@ public class OmPayPaymentPluginApi implements PaymentPluginApi {
         }
     }
 
-    // NEW METHOD: Centralized Kill Bill notification
-    private void notifyKillBillOfTransactionState(final UUID kbAccountId,
-                                                  final UUID kbTransactionId,
-                                                  final PaymentPluginStatus status,
-                                                  final CallContext context) {
-        try {
-            final Account account = killbillAPI.getAccountUserApi().getAccountById(kbAccountId, context);
-            final boolean isSuccess = (status == PaymentPluginStatus.PROCESSED);
-
-            logger.info("Notifying Kill Bill of transaction state change: kbTransactionId={}, status={}, isSuccess={}",
-                    kbTransactionId, status, isSuccess);
+    @Override
+    public List<PaymentTransactionInfoPlugin> getPaymentInfo(final UUID kbAccountId,
+                                                             final UUID kbPaymentId,
+                                                             final Iterable<PluginProperty> properties,
+                                                             final TenantContext context) throws PaymentPluginApiException {
+        return getPaymentInfo(kbAccountId, kbPaymentId, properties, context, null);
+    }
 
-            killbillAPI.getPaymentApi().notifyPendingTransactionOfStateChanged(
-                    account,
-                    kbTransactionId,
-                    isSuccess,
-                    context
-            );
+    /**
+     * Same as {@link #getPaymentInfo(UUID, UUID, Iterable, TenantContext)}, with each gateway refresh taking a permit
+     * of the given rate limiter first (see OmPayPendingTransactionPoller).
+     */
+    List<PaymentTransactionInfoPlugin> getPaymentInfo(final UUID kbAccountId,
+                                                      final UUID kbPaymentId,
+                                                      final Iterable<PluginProperty> properties,
+                                                      final TenantContext context,
+                                                      @Nullable final RateLimiter gatewayRateLimiter) throws PaymentPluginApiException {
+        // Refreshes must not race the webhook or a capture/void/refund of the payment
+        final Map<UUID, Boolean> stateChanges = new LinkedHashMap<>();
+        final List<PaymentTransactionInfoPlugin> transactions =
+                inPaymentLane(kbPaymentId, () -> getPaymentInfoSerialized(kbAccountId, kbPaymentId, properties, context, gatewayRateLimiter, stateChanges));
+        notifyKillBillOfStateChanges(kbAccountId, stateChanges, context);
+        return transactions;
+    }
 
-            logger.info("Successfully notified Kill Bill of status change for transaction {}: {} (success={})",
-                    kbTransactionId, status, isSuccess);
+    private List<PaymentTransactionInfoPlugin> getPaymentInfoSerialized(final UUID kbAccountId,
+                                                             final UUID kbPaymentId,
+                                                             final Iterable<PluginProperty> properties,
+                                                             final TenantContext context,
+                                                             @Nullable final RateLimiter gatewayRateLimiter,
+                                                             final Map<UUID, Boolean> stateChanges) throws PaymentPluginApiException {
+        try (final OmPayDao.CallScope ignored = dao.openCallScope()) {
+            return getPaymentInfoInScope(kbAccountId, kbPaymentId, properties, context, gatewayRateLimiter, stateChanges);
+        }
+    }
 
-        } catch (Exception e) {
-            logger.error("Failed to notify Kill Bill of status change for transaction {}: {}",
-                    kbTransactionId, e.getMessage(), e);
-            // Don't throw - this shouldn't fail the payment processing
+    // Outside of the payment lane: Kill Bill may call back into the plugin, or hold the account lock a caller waiting
+    // for the lane needs
+    private void notifyKillBillOfStateChanges(final UUID kbAccountId, final Map<UUID, Boolean> stateChanges, final TenantContext context) {
+        if (stateChanges.isEmpty()) {
+            return;
+        }
+        final CallContext callContext = new PluginCallContext(OmPayActivator.PLUGIN_NAME,
+                clock.getClock().getUTCNow(),
+                kbAccountId,
+                context.getTenantId());
+        for (final Map.Entry<UUID, Boolean> stateChange : stateChanges.entrySet()) {
+            try {
+                final Account account = accountCache.getAccount(kbAccountId, context);
+                killbillAPI.getPaymentApi().notifyPendingTransactionOfStateChanged(account, stateChange.getKey(), stateChange.getValue(), callContext);
+                logger.info("Successfully notified Kill Bill of status change for transaction {}", stateChange.getKey());
+            } catch (Exception e) {
+                logger.error("Failed to notify Kill Bill of status change for transaction {}: {}", stateChange.getKey(), e.getMessage(), e);
+            }
         }
     }
 
-    @Override
-    public List<PaymentTransactionInfoPlugin> getPaymentInfo(final UUID kbAccountId,
-                                                             final UUID kbPaymentId,
-                                                             final Iterable<PluginProperty> properties,
-                                                             final TenantContext context) throws PaymentPluginApiException {
+    private List<PaymentTransactionInfoPlugin> getPaymentInfoInScope(final UUID kbAccountId,
+                                                                     final UUID kbPaymentId,
+                                                                     final Iterable<PluginProperty> properties,
+                                                                     final TenantContext context,
+                                                                     @Nullable final RateLimiter gatewayRateLimiter,
+                                                                     final Map<UUID, Boolean> stateChanges) throws PaymentPluginApiException {
         logger.info("getPaymentInfo called for kbAccountId: {}, kbPaymentId: {}", kbAccountId, kbPaymentId);
 
+        final boolean includeGatewayPayload = Boolean.parseBoolean(findPluginPropertyValue(PROPERTY_INCLUDE_GATEWAY_PAYLOAD, properties, "false"));
+
         List<PaymentTransactionInfoPlugin> transactionsFromDb;
         try {
-            transactionsFromDb = dao.getPaymentInfosForKbPaymentId(kbPaymentId, context.getTenantId());
+            transactionsFromDb = dao.getPaymentInfosForKbPaymentId(kbPaymentId, includeGatewayPayload, context.getTenantId());
         } catch (SQLException e) {
             logger.error("DAO Error fetching initial payment info for kbPaymentId {}: {}", kbPaymentId, e.getMessage(), e);
             throw new PaymentPluginApiException("DAO Error", "Could not retrieve payment info: " + e.getMessage());
@@ -1960,160 +2210,142 @@ public class OmPayPaymentPluginApi implements PaymentPluginApi {
             return transactionsFromDb;
         }
 
-        boolean wasRefreshed = false;
         final OmPayConfigProperties config = configurationHandler.getConfigurable(context.getTenantId());
-        Account account = null;
+        final List<PaymentTransactionInfoPlugin> transactions = new ArrayList<>(transactionsFromDb);
+
+        // Refresh PENDING transactions OR transactions that are still UNDEFINED/UNKNOWN
+        final List<Integer> toRefresh = new ArrayList<>();
+        for (int i = 0; i < transactions.size(); i++) {
+            final PaymentTransactionInfoPlugin transaction = transactions.get(i);
+            if (transaction.getStatus() != PaymentPluginStatus.PENDING &&
+                    transaction.getStatus() != PaymentPluginStatus.UNDEFINED) {
+                continue;
+            }
+            if (!Strings.isNullOrEmpty(transaction.getFirstPaymentReferenceId())) {
+                toRefresh.add(i);
+                continue;
+            }
 
-        for (PaymentTransactionInfoPlugin transaction : transactionsFromDb) {
-            // Refresh PENDING transactions OR transactions that are still UNDEFINED/UNKNOWN
-            if (transaction.getStatus() == PaymentPluginStatus.PENDING ||
-                    transaction.getStatus() == PaymentPluginStatus.UNDEFINED) {
+            logger.warn("Cannot refresh transaction kbTransactionId {} (OMPay ID is missing/null). Status: {}",
+                    transaction.getKbTransactionPaymentId(), transaction.getStatus());
 
-                final String ompayTransactionIdToRefresh = transaction.getFirstPaymentReferenceId();
+            // For UNDEFINED status with no OMPay ID, treat as failed
+            if (transaction.getStatus() == PaymentPluginStatus.UNDEFINED) {
+                logger.info("Marking UNDEFINED transaction {} as ERROR due to missing OMPay ID",
+                        transaction.getKbTransactionPaymentId());
 
-                if (Strings.isNullOrEmpty(ompayTransactionIdToRefresh)) {
-                    logger.warn("Cannot refresh transaction kbTransactionId {} (OMPay ID is missing/null). Status: {}",
-                            transaction.getKbTransactionPaymentId(), transaction.getStatus());
+                try {
+                    // Update the transaction as failed
+                    Map<String, Object> errorData = new HashMap<>();
+                    errorData.put("state", "failed");
+                    errorData.put("error", "Missing OMPay transaction ID");
+                    errorData.put("marked_failed_by_janitor", true);
 
-                    // For UNDEFINED status with no OMPay ID, treat as failed
-                    if (transaction.getStatus() == PaymentPluginStatus.UNDEFINED) {
-                        logger.info("Marking UNDEFINED transaction {} as ERROR due to missing OMPay ID",
-                                transaction.getKbTransactionPaymentId());
+                    dao.updateResponseByKbTransactionId(transaction.getKbTransactionPaymentId(), "failed", errorData, context.getTenantId());
+                    transactions.set(i, mergeRefreshedTransaction(transaction, "failed", errorData, includeGatewayPayload));
 
-                        try {
-                            // Update the transaction as failed
-                            Map<String, Object> errorData = new HashMap<>();
-                            errorData.put("state", "failed");
-                            errorData.put("error", "Missing OMPay transaction ID");
-                            errorData.put("marked_failed_by_janitor", true);
+                    // Notify Kill Bill
+                    stateChanges.put(transaction.getKbTransactionPaymentId(), false);
 
-                            dao.updateResponseByOmPayTxnId("unknown", "failed", errorData, context.getTenantId());
+                } catch (Exception e) {
+                    logger.error("Failed to mark UNDEFINED transaction as failed: {}", e.getMessage(), e);
+                }
+            }
+        }
 
-                            // Notify Kill Bill
-                            if (account == null) {
-                                account = killbillAPI.getAccountUserApi().getAccountById(kbAccountId, context);
-                            }
-                            final CallContext callContext = new PluginCallContext(OmPayActivator.PLUGIN_NAME,
-                                    clock.getClock().getUTCNow(),
-                                    kbAccountId,
-                                    context.getTenantId());
-
-                            killbillAPI.getPaymentApi().notifyPendingTransactionOfStateChanged(
-                                    account,
-                                    transaction.getKbTransactionPaymentId(),
-                                    false, // isSuccess = false
-                                    callContext
-                            );
-
-                            logger.info("Notified Kill Bill of UNDEFINED->ERROR transition for transaction {}",
-                                    transaction.getKbTransactionPaymentId());
-                            wasRefreshed = true;
+        if (toRefresh.isEmpty()) {
+            return transactions;
+        }
 
-                        } catch (Exception e) {
-                            logger.error("Failed to mark UNDEFINED transaction as failed: {}", e.getMessage(), e);
-                        }
-                    }
+        // Query the gateway for all of them at once, bounded by a deadline for the whole call
+        final List<Callable<OmPayHttpClient.OmPayHttpResponse>> gatewayCalls = new ArrayList<>();
+        for (final Integer i : toRefresh) {
+            final PaymentTransactionInfoPlugin transaction = transactions.get(i);
+            logger.info("Refreshing transaction: kbTransactionId={}, ompayTransactionId={}, currentStatus={}",
+                    transaction.getKbTransactionPaymentId(), transaction.getFirstPaymentReferenceId(), transaction.getStatus());
+            final String retrieveUrl = config.getApiBaseUrlWithMerchant() + "/payment/" + transaction.getFirstPaymentReferenceId();
+            if (gatewayRateLimiter != null) {
+                gatewayRateLimiter.acquire();
+            }
+            gatewayCalls.add(() -> httpClient.doGet(retrieveUrl, config.getBasicAuthHeader()));
+        }
+        final List<Future<OmPayHttpClient.OmPayHttpResponse>> gatewayResponses;
+        try {
+            gatewayResponses = refreshExecutor.invokeAll(gatewayCalls, config.getRefreshTimeoutMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.warn("Interrupted while refreshing payment info for kbPaymentId {}", kbPaymentId);
+            return transactions;
+        }
+
+        // Apply the results on the calling thread: database updates and Kill Bill notifications stay sequential
+        for (int k = 0; k < toRefresh.size(); k++) {
+            final int i = toRefresh.get(k);
+            final PaymentTransactionInfoPlugin transaction = transactions.get(i);
+            final String ompayTransactionIdToRefresh = transaction.getFirstPaymentReferenceId();
+            final Future<OmPayHttpClient.OmPayHttpResponse> future = gatewayResponses.get(k);
+
+            try {
+                if (future.isCancelled()) {
+                    logger.warn("Gateway refresh for OMPay ID {} did not complete within {} ms (or the refresh pool was saturated), keeping the stored status",
+                            ompayTransactionIdToRefresh, config.getRefreshTimeoutMillis());
                     continue;
                 }
+                OmPayHttpClient.OmPayHttpResponse response = future.get();
+                Map<String, Object> gatewayResponseMap = response.getResponseMap();
 
-                logger.info("Refreshing transaction: kbTransactionId={}, ompayTransactionId={}, currentStatus={}",
-                        transaction.getKbTransactionPaymentId(), ompayTransactionIdToRefresh, transaction.getStatus());
+                if (response.isSuccess() && gatewayResponseMap != null) {
+                    String newStateFromGateway = (String) gatewayResponseMap.get("state");
+                    PaymentPluginStatus newPluginStatus = mapOmpayStatusToKillBill(newStateFromGateway);
 
-                String retrieveUrl = config.getApiBaseUrlWithMerchant() + "/payment/" + ompayTransactionIdToRefresh;
+                    logger.info("Refreshed OMPay transaction ID {}: oldStatus={}, newGatewayState={}, newPluginStatus={}",
+                            ompayTransactionIdToRefresh, transaction.getStatus(), newStateFromGateway, newPluginStatus);
 
-                try {
-                    OmPayHttpClient.OmPayHttpResponse response = httpClient.doGet(retrieveUrl, config.getBasicAuthHeader());
-                    Map<String, Object> gatewayResponseMap = response.getResponseMap();
+                    // Update the local database record, and the result in place of a re-read
+                    dao.updateResponseByOmPayTxnId(ompayTransactionIdToRefresh, newStateFromGateway, gatewayResponseMap, context.getTenantId());
+                    transactions.set(i, mergeRefreshedTransaction(transaction, newStateFromGateway, gatewayResponseMap, includeGatewayPayload));
+                    statusWatcher.transactionUpdated(transaction.getKbTransactionPaymentId());
 
-                    if (response.isSuccess() && gatewayResponseMap != null) {
-                        String newStateFromGateway = (String) gatewayResponseMap.get("state");
-                        PaymentPluginStatus newPluginStatus = mapOmpayStatusToKillBill(newStateFromGateway);
+                    // CRITICAL: Notify Kill Bill if status changed to a terminal state
+                    if (newPluginStatus != PaymentPluginStatus.PENDING && newPluginStatus != PaymentPluginStatus.UNDEFINED) {
 
-                        logger.info("Refreshed OMPay transaction ID {}: oldStatus={}, newGatewayState={}, newPluginStatus={}",
-                                ompayTransactionIdToRefresh, transaction.getStatus(), newStateFromGateway, newPluginStatus);
+                        logger.info("Notifying Kill Bill of status change for kbTransactionId {} (OMPay ID {}) from {} to {}. isSuccess: {}",
+                                transaction.getKbTransactionPaymentId(), ompayTransactionIdToRefresh,
+                                transaction.getStatus(), newPluginStatus, (newPluginStatus == PaymentPluginStatus.PROCESSED));
+                        stateChanges.put(transaction.getKbTransactionPaymentId(), newPluginStatus == PaymentPluginStatus.PROCESSED);
+                    }
+                } else {
+                    logger.warn("Failed to refresh payment info for OMPay ID {} from gateway. Status: {}, Body: {}",
+                            ompayTransactionIdToRefresh, response.getStatusCode(), response.getResponseBody());
 
-                        // Update the local database record
-                        dao.updateResponseByOmPayTxnId(ompayTransactionIdToRefresh, newStateFromGateway, gatewayResponseMap, context.getTenantId());
-                        wasRefreshed = true;
+                    // If we can't reach the gateway, and transaction is UNDEFINED, mark as ERROR
+                    if (transaction.getStatus() == PaymentPluginStatus.UNDEFINED && response.getStatusCode() >= 400) {
+                        logger.info("Marking unreachable UNDEFINED transaction {} as ERROR", transaction.getKbTransactionPaymentId());
 
-                        // CRITICAL: Notify Kill Bill if status changed to a terminal state
-                        if ((transaction.getStatus() == PaymentPluginStatus.PENDING || transaction.getStatus() == PaymentPluginStatus.UNDEFINED) &&
-                                newPluginStatus != PaymentPluginStatus.PENDING && newPluginStatus != PaymentPluginStatus.UNDEFINED) {
+                        try {
+                            Map<String, Object> errorData = new HashMap<>();
+                            errorData.put("state", "failed");
+                            errorData.put("error", "Gateway unreachable: HTTP " + response.getStatusCode());
+                            errorData.put("marked_failed_by_janitor", true);
 
-                            if (account == null) {
-                                account = killbillAPI.getAccountUserApi().getAccountById(kbAccountId, context);
-                            }
-                            final CallContext callContextForNotification = new PluginCallContext(OmPayActivator.PLUGIN_NAME,
-                                    clock.getClock().getUTCNow(),
-                                    kbAccountId,
-                                    context.getTenantId());
-
-                            logger.info("Notifying Kill Bill of status change for kbTransactionId {} (OMPay ID {}) from {} to {}. isSuccess: {}",
-                                    transaction.getKbTransactionPaymentId(), ompayTransactionIdToRefresh,
-                                    transaction.getStatus(), newPluginStatus, (newPluginStatus == PaymentPluginStatus.PROCESSED));
-
-                            killbillAPI.getPaymentApi().notifyPendingTransactionOfStateChanged(
-                                    account,
-                                    transaction.getKbTransactionPaymentId(),
-                                    (newPluginStatus == PaymentPluginStatus.PROCESSED),
-                                    callContextForNotification
-                            );
-
-                            logger.info("Successfully notified Kill Bill of status change for transaction {}",
-                                    transaction.getKbTransactionPaymentId());
-                        }
-                    } else {
-                        logger.warn("Failed to refresh payment info for OMPay ID {} from gateway. Status: {}, Body: {}",
-                                ompayTransactionIdToRefresh, response.getStatusCode(), response.getResponseBody());
-
-                        // If we can't reach the gateway, and transaction is UNDEFINED, mark as ERROR
-                        if (transaction.getStatus() == PaymentPluginStatus.UNDEFINED && response.getStatusCode() >= 400) {
-                            logger.info("Marking unreachable UNDEFINED transaction {} as ERROR", transaction.getKbTransactionPaymentId());
-
-                            try {
-                                Map<String, Object> errorData = new HashMap<>();
-                                errorData.put("state", "failed");
-                                errorData.put("error", "Gateway unreachable: HTTP " + response.getStatusCode());
-                                errorData.put("marked_failed_by_janitor", true);
-
-                                dao.updateResponseByOmPayTxnId(ompayTransactionIdToRefresh, "failed", errorData, context.getTenantId());
-
-                                if (account == null) {
-                                    account = killbillAPI.getAccountUserApi().getAccountById(kbAccountId, context);
-                                }
-                                final CallContext callContext = new PluginCallContext(OmPayActivator.PLUGIN_NAME,
-                                        clock.getClock().getUTCNow(),
-                                        kbAccountId,
-                                        context.getTenantId());
-
-                                killbillAPI.getPaymentApi().notifyPendingTransactionOfStateChanged(
-                                        account, transaction.getKbTransactionPaymentId(), false, callContext);
-
-                                logger.info("Notified Kill Bill of UNDEFINED->ERROR transition for unreachable transaction {}",
-                                        transaction.getKbTransactionPaymentId());
-                                wasRefreshed = true;
-
-                            } catch (Exception e) {
-                                logger.error("Failed to mark unreachable transaction as failed: {}", e.getMessage(), e);
-                            }
+                            dao.updateResponseByOmPayTxnId(ompayTransactionIdToRefresh, "failed", errorData, context.getTenantId());
+                            transactions.set(i, mergeRefreshedTransaction(transaction, "failed", errorData, includeGatewayPayload));
+                            statusWatcher.transactionUpdated(transaction.getKbTransactionPaymentId());
+
+                            stateChanges.put(transaction.getKbTransactionPaymentId(), false);
+
+                        } catch (Exception e) {
+                            logger.error("Failed to mark unreachable transaction as failed: {}", e.getMessage(), e);
                         }
                     }
-                } catch (Exception e) {
-                    logger.error("Unexpected error during gateway refresh for OMPay ID {}: {}", ompayTransactionIdToRefresh, e.getMessage(), e);
                 }
+            } catch (ExecutionException e) {
+                logger.error("Unexpected error during gateway refresh for OMPay ID {}: {}", ompayTransactionIdToRefresh, e.getCause().getMessage(), e.getCause());
+            } catch (Exception e) {
+                logger.error("Unexpected error during gateway refresh for OMPay ID {}: {}", ompayTransactionIdToRefresh, e.getMessage(), e);
             }
         }
 
-        if (wasRefreshed) {
-            try {
-                logger.info("Re-fetching payment info from DB after refresh for kbPaymentId: {}", kbPaymentId);
-                return dao.getPaymentInfosForKbPaymentId(kbPaymentId, context.getTenantId());
-            } catch (SQLException e) {
-                logger.error("DAO Error fetching payment info after refresh for kbPaymentId {}: {}", kbPaymentId, e.getMessage(), e);
-                throw new PaymentPluginApiException("DAO Error", "Could not retrieve payment info after refresh: " + e.getMessage());
-            }
-        } else {
-            return transactionsFromDb;
-        }
+        return transactions;
     }
 }
\ No newline at end of file
@@ -0,0 +1,121 @@
+/*
+ * Copyright 2025 GAIM-TECH-OM
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package org.killbill.billing.plugin.ompay;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Singleton;
+
+import org.jooby.Deferred;
+import org.jooby.Request;
+import org.jooby.Result;
+import org.jooby.Results;
+import org.jooby.Status;
+import org.jooby.mvc.GET;
+import org.jooby.mvc.Local;
+import org.jooby.mvc.Path;
+import org.killbill.billing.payment.plugin.api.PaymentPluginStatus;
+import org.killbill.billing.payment.plugin.api.PaymentTransactionInfoPlugin;
+import org.killbill.billing.plugin.core.PluginServlet;
+import org.killbill.billing.tenant.api.Tenant;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Long-poll status of a transaction, for the checkout frontends waiting for the outcome of a 3DS payment
+ * (requires_3ds returned by {@link OmPayNonceHandlerServlet}).
+ * <p>
+ * GET /payment-status?kbTransactionId=...&status=PENDING answers as soon as the transaction is no longer in the given
+ * status (the one the frontend already knows), or with the unchanged status after timeoutSeconds: the frontend then
+ * simply asks again. Only the plugin tables are read, the gateway is never queried.
+ */
+@Singleton
+@Path("/payment-status")
+public class OmPayPaymentStatusServlet extends PluginServlet {
+
+    private static final long serialVersionUID = 1L;
+    private static final Logger logger = LoggerFactory.getLogger(OmPayPaymentStatusServlet.class);
+    private final transient OmPayPaymentStatusWatcher statusWatcher;
+    private final transient OmPayConfigProperties config;
+
+    @Inject
+    public OmPayPaymentStatusServlet(final OmPayPaymentStatusWatcher statusWatcher,
+                                     final OmPayConfigurationHandler configurationHandler) {
+        this.statusWatcher = statusWatcher;
+        this.config = configurationHandler.getConfigurable(null);
+    }
+
+    @GET
+    public Object getPaymentStatus(final Request req, @Local @Named("killbill_tenant") final Tenant tenant) {
+        if (tenant == null) {
+            return Results.with("Unknown tenant", Status.UNAUTHORIZED);
+        }
+
+        final PaymentTransactionInfoPlugin current;
+        final PaymentPluginStatus knownStatus;
+        final int timeoutSeconds;
+        try {
+            final String kbTransactionIdString = req.param("kbTransactionId").toOptional().orElse(null);
+            if (kbTransactionIdString == null) {
+                return Results.with("Required parameter 'kbTransactionId' missing", Status.BAD_REQUEST);
+            }
+            knownStatus = PaymentPluginStatus.valueOf(req.param("status").toOptional().orElse(PaymentPluginStatus.PENDING.toString()).toUpperCase());
+            timeoutSeconds = Math.min(req.param("timeoutSeconds").toOptional().map(Integer::parseInt).orElse(config.getStatusWatchMaxWaitSeconds()),
+                                      config.getStatusWatchMaxWaitSeconds());
+
+            current = statusWatcher.getCurrent(UUID.fromString(kbTransactionIdString), tenant.getId());
+            if (current == null) {
+                return Results.with("Unknown transaction", Status.NOT_FOUND);
+            }
+        } catch (final IllegalArgumentException e) {
+            return Results.with("Invalid parameters: " + e.getMessage(), Status.BAD_REQUEST);
+        } catch (final Exception e) {
+            logger.error("Error reading the status of an OMPay transaction: {}", e.getMessage(), e);
+            return Results.with("Internal server error", Status.SERVER_ERROR);
+        }
+
+        if (current.getStatus() != knownStatus || timeoutSeconds <= 0) {
+            return toResult(current, knownStatus);
+        }
+
+        // The request thread is released while waiting
+        return new Deferred(deferred -> statusWatcher.watch(current, timeoutSeconds)
+                .whenComplete((latest, e) -> {
+                    if (e != null) {
+                        deferred.reject(e);
+                    } else {
+                        deferred.resolve(toResult(latest, knownStatus));
+                    }
+                }));
+    }
+
+    private static Result toResult(final PaymentTransactionInfoPlugin transaction, final PaymentPluginStatus knownStatus) {
+        final Map<String, Object> responseData = new HashMap<>();
+        responseData.put("kb_payment_id", transaction.getKbPaymentId().toString());
+        responseData.put("kb_transaction_id", transaction.getKbTransactionPaymentId().toString());
+        responseData.put("status", transaction.getStatus().toString());
+        responseData.put("changed", transaction.getStatus() != knownStatus);
+        if (transaction.getStatus() == PaymentPluginStatus.ERROR) {
+            responseData.put("error_message", transaction.getGatewayError());
+            responseData.put("error_code", transaction.getGatewayErrorCode());
+        }
+        return Results.json(responseData).status(Status.OK);
+    }
+}
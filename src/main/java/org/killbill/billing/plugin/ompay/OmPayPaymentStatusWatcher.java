@@ -0,0 +1,247 @@
+/*
+ * Copyright 2025 GAIM-TECH-OM
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package org.killbill.billing.plugin.ompay;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.annotation.Nullable;
+
+import org.joda.time.DateTime;
+import org.killbill.billing.osgi.libs.killbill.OSGIKillbillClock;
+import org.killbill.billing.payment.plugin.api.PaymentTransactionInfoPlugin;
+import org.killbill.billing.plugin.ompay.dao.OmPayDao;
+import org.killbill.billing.plugin.ompay.dao.gen.tables.records.OmpayResponsesRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.collect.Iterables;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * Long-poll support for {@link OmPayPaymentStatusServlet}: a checkout frontend waiting for the outcome of a 3DS payment
+ * holds one request, completed as soon as the transaction leaves the status it already knows, instead of polling
+ * Kill Bill (and through getPaymentInfo, the gateway).
+ * <p>
+ * Waiters are woken up right after this node records a new state (webhook, getPaymentInfo refresh, poller), and by a
+ * re-read of the database every statusWatch.recheckMillis, which also covers the states recorded by other nodes.
+ * A waiter still unchanged at its deadline gets the current status.
+ */
+public class OmPayPaymentStatusWatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(OmPayPaymentStatusWatcher.class);
+
+    // Transactions re-read per query
+    private static final int CHECK_BATCH_SIZE = 500;
+
+    private final OmPayDao dao;
+    private final OSGIKillbillClock clock;
+    private final OmPayConfigProperties config;
+    private final ConcurrentMap<UUID, Set<Waiter>> waiters = new ConcurrentHashMap<UUID, Set<Waiter>>();
+    private final AtomicInteger waiterCount = new AtomicInteger();
+
+    private ScheduledExecutorService executor;
+
+    public OmPayPaymentStatusWatcher(final OmPayDao dao, final OSGIKillbillClock clock, final OmPayConfigProperties config) {
+        this.dao = dao;
+        this.clock = clock;
+        this.config = config;
+    }
+
+    public void start() {
+        executor = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder()
+                .setNameFormat("ompay-status-%d")
+                .setDaemon(true)
+                .build());
+        executor.scheduleWithFixedDelay(this::run,
+                config.getStatusWatchRecheckMillis(),
+                config.getStatusWatchRecheckMillis(),
+                TimeUnit.MILLISECONDS);
+    }
+
+    public void stop() {
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+        // Pending requests get the status they already know
+        for (final UUID kbTransactionId : waiters.keySet()) {
+            for (final Waiter waiter : removeAll(kbTransactionId)) {
+                waiter.future.complete(waiter.current);
+            }
+        }
+    }
+
+    /**
+     * Current state of a transaction of the tenant, from the database.
+     */
+    @Nullable
+    public PaymentTransactionInfoPlugin getCurrent(final UUID kbTransactionId, final UUID kbTenantId) throws SQLException {
+        for (final OmpayResponsesRecord response : dao.getLatestResponsesByKbTransactionIds(Collections.singleton(kbTransactionId))) {
+            if (kbTenantId.equals(response.getKbTenantId())) {
+                return dao.toPaymentTransactionInfoPlugin(response);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Wait for the transaction to leave the current status.
+     *
+     * @param current The transaction, as read by {@link #getCurrent}
+     * @return Completed with the new state, or with current at the deadline (also when too many requests already wait)
+     */
+    public CompletableFuture<PaymentTransactionInfoPlugin> watch(final PaymentTransactionInfoPlugin current, final int timeoutSeconds) {
+        final CompletableFuture<PaymentTransactionInfoPlugin> future = new CompletableFuture<PaymentTransactionInfoPlugin>();
+        if (executor == null) {
+            future.complete(current);
+            return future;
+        }
+        if (waiterCount.incrementAndGet() > config.getStatusWatchMaxWaiters()) {
+            waiterCount.decrementAndGet();
+            future.complete(current);
+            return future;
+        }
+
+        final Waiter waiter = new Waiter(current, clock.getClock().getUTCNow().plusSeconds(timeoutSeconds), future);
+        // Atomic with the removal of an empty set, see remove
+        waiters.compute(current.getKbTransactionPaymentId(), (id, transactionWaiters) -> {
+            final Set<Waiter> updated = transactionWaiters != null ? transactionWaiters : ConcurrentHashMap.<Waiter>newKeySet();
+            updated.add(waiter);
+            return updated;
+        });
+        return future;
+    }
+
+    /**
+     * A new state was recorded for the transaction, on this node.
+     */
+    public void transactionUpdated(final UUID kbTransactionId) {
+        final ScheduledExecutorService current = executor;
+        if (current == null || !waiters.containsKey(kbTransactionId)) {
+            return;
+        }
+        try {
+            // Off the caller thread: the webhook and getPaymentInfo do not wait for the re-read
+            current.execute(() -> check(Collections.singleton(kbTransactionId)));
+        } catch (final RejectedExecutionException e) {
+            // Stopping
+        }
+    }
+
+    void run() {
+        if (waiters.isEmpty()) {
+            return;
+        }
+
+        try {
+            for (final List<UUID> batch : Iterables.partition(new ArrayList<UUID>(waiters.keySet()), CHECK_BATCH_SIZE)) {
+                check(batch);
+            }
+        } catch (final Exception e) {
+            logger.warn("OMPay payment status watch failed: {}", e.getMessage());
+        }
+
+        // Deadlines
+        final DateTime now = clock.getClock().getUTCNow();
+        for (final UUID kbTransactionId : waiters.keySet()) {
+            final Set<Waiter> transactionWaiters = waiters.get(kbTransactionId);
+            if (transactionWaiters == null) {
+                continue;
+            }
+            for (final Waiter waiter : transactionWaiters) {
+                if (!waiter.deadline.isAfter(now) && remove(kbTransactionId, waiter)) {
+                    waiter.future.complete(waiter.current);
+                }
+            }
+        }
+    }
+
+    private void check(final Collection<UUID> kbTransactionIds) {
+        final List<OmpayResponsesRecord> responses;
+        try {
+            responses = dao.getLatestResponsesByKbTransactionIds(kbTransactionIds);
+        } catch (final SQLException e) {
+            logger.warn("Failed to read the status of watched OMPay transactions: {}", e.getMessage());
+            return;
+        }
+
+        for (final OmpayResponsesRecord response : responses) {
+            final Set<Waiter> transactionWaiters = waiters.get(response.getKbPaymentTransactionId());
+            if (transactionWaiters == null) {
+                continue;
+            }
+            final PaymentTransactionInfoPlugin latest = dao.toPaymentTransactionInfoPlugin(response);
+            for (final Waiter waiter : transactionWaiters) {
+                if (latest.getStatus() != waiter.current.getStatus() && remove(response.getKbPaymentTransactionId(), waiter)) {
+                    waiter.future.complete(latest);
+                }
+            }
+        }
+    }
+
+    // False if the waiter was already completed
+    private boolean remove(final UUID kbTransactionId, final Waiter waiter) {
+        final Set<Waiter> transactionWaiters = waiters.get(kbTransactionId);
+        if (transactionWaiters == null || !transactionWaiters.remove(waiter)) {
+            return false;
+        }
+        waiterCount.decrementAndGet();
+        waiters.computeIfPresent(kbTransactionId, (id, remaining) -> remaining.isEmpty() ? null : remaining);
+        return true;
+    }
+
+    private List<Waiter> removeAll(final UUID kbTransactionId) {
+        final List<Waiter> removed = new ArrayList<Waiter>();
+        final Set<Waiter> transactionWaiters = waiters.get(kbTransactionId);
+        if (transactionWaiters != null) {
+            for (final Waiter waiter : transactionWaiters) {
+                if (remove(kbTransactionId, waiter)) {
+                    removed.add(waiter);
+                }
+            }
+        }
+        return removed;
+    }
+
+    private static final class Waiter {
+
+        private final PaymentTransactionInfoPlugin current;
+        private final DateTime deadline;
+        private final CompletableFuture<PaymentTransactionInfoPlugin> future;
+
+        private Waiter(final PaymentTransactionInfoPlugin current,
+                       final DateTime deadline,
+                       final CompletableFuture<PaymentTransactionInfoPlugin> future) {
+            this.current = current;
+            this.deadline = deadline;
+            this.future = future;
+        }
+    }
+}
@@ -0,0 +1,210 @@
+/*
+ * Copyright 2025 GAIM-TECH-OM
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package org.killbill.billing.plugin.ompay;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.joda.time.DateTime;
+import org.killbill.billing.osgi.libs.killbill.OSGIKillbillClock;
+import org.killbill.billing.payment.plugin.api.PaymentPluginStatus;
+import org.killbill.billing.payment.plugin.api.PaymentTransactionInfoPlugin;
+import org.killbill.billing.plugin.api.PluginCallContext;
+import org.killbill.billing.plugin.ompay.dao.OmPayDao;
+import org.killbill.billing.plugin.ompay.dao.gen.tables.records.OmpayResponsesRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.RateLimiter;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * Background job refreshing the transactions still pending at OMPay (e.g. waiting for 3DS), so that Kill Bill
+ * learns about the outcome without anyone calling getPaymentInfo.
+ * <p>
+ * Each transaction is retried with an exponential backoff (5s, 30s, 2min, 10min, 30min, then hourly), and the
+ * gateway calls of all transactions share a global rate limit. The refresh itself is getPaymentInfo, which updates
+ * the stored state and notifies Kill Bill of the transition.
+ * On a cluster, each node only polls the payments it owns (see {@link OmPayWorkPartitioner}).
+ */
+public class OmPayPendingTransactionPoller {
+
+    private static final Logger logger = LoggerFactory.getLogger(OmPayPendingTransactionPoller.class);
+
+    private static final int[] BACKOFF_SECONDS = {5, 30, 120, 600, 1800, 3600};
+
+    private final OmPayDao dao;
+    private final OmPayPaymentPluginApi pluginApi;
+    private final OmPayWorkPartitioner partitioner;
+    private final OSGIKillbillClock clock;
+    private final OmPayConfigProperties config;
+    private final RateLimiter gatewayRateLimiter;
+    // Next attempt per ompay_responses record_id, only touched by the poller thread
+    private final NavigableMap<Integer, Backoff> backoffs = new TreeMap<Integer, Backoff>();
+
+    private ScheduledExecutorService executor;
+
+    public OmPayPendingTransactionPoller(final OmPayDao dao,
+                                         final OmPayPaymentPluginApi pluginApi,
+                                         final OmPayWorkPartitioner partitioner,
+                                         final OSGIKillbillClock clock,
+                                         final OmPayConfigProperties config) {
+        this.dao = dao;
+        this.pluginApi = pluginApi;
+        this.partitioner = partitioner;
+        this.clock = clock;
+        this.config = config;
+        this.gatewayRateLimiter = RateLimiter.create(config.getPollerMaxRequestsPerSecond());
+    }
+
+    public void start() {
+        executor = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder()
+                .setNameFormat("ompay-poller-%d")
+                .setDaemon(true)
+                .build());
+        executor.scheduleWithFixedDelay(this::run,
+                config.getPollerIntervalSeconds(),
+                config.getPollerIntervalSeconds(),
+                TimeUnit.SECONDS);
+        logger.info("OMPay pending transaction poller scheduled every {} seconds (max {} gateway requests/s)",
+                config.getPollerIntervalSeconds(), config.getPollerMaxRequestsPerSecond());
+    }
+
+    public void stop() {
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+    }
+
+    void run() {
+        final DateTime now = clock.getClock().getUTCNow();
+        final DateTime createdAfter = now.minusHours(config.getPollerMaxAgeHours());
+        int afterRecordId = 0;
+        int refreshed = 0;
+        boolean fullScan = true;
+
+        try {
+            while (true) {
+                final List<OmpayResponsesRecord> page = dao.getPendingResponses(afterRecordId, createdAfter, config.getPollerBatchSize());
+                if (page.isEmpty()) {
+                    break;
+                }
+
+                // Due transactions, grouped by payment: one getPaymentInfo refreshes all of them
+                final Map<UUID, List<OmpayResponsesRecord>> duePerPayment = new LinkedHashMap<UUID, List<OmpayResponsesRecord>>();
+                final Set<Integer> stillPending = new HashSet<Integer>();
+                final int pageStart = afterRecordId;
+                for (final OmpayResponsesRecord record : page) {
+                    afterRecordId = record.getRecordId();
+                    // On a cluster, the other nodes take care of the other payments
+                    if (!partitioner.owns(record.getKbPaymentId())) {
+                        continue;
+                    }
+                    stillPending.add(record.getRecordId());
+                    final Backoff backoff = backoffs.computeIfAbsent(record.getRecordId(), id -> new Backoff());
+                    if (backoff.isDue(now, record)) {
+                        duePerPayment.computeIfAbsent(record.getKbPaymentId(), id -> new ArrayList<OmpayResponsesRecord>()).add(record);
+                    }
+                }
+
+                // Forget the transactions of this range which are not pending anymore (settled elsewhere, e.g. by a notification)
+                backoffs.subMap(pageStart, false, afterRecordId, true).keySet().retainAll(stillPending);
+
+                for (final List<OmpayResponsesRecord> records : duePerPayment.values()) {
+                    refresh(records, now);
+                    refreshed += records.size();
+                }
+
+                if (page.size() < config.getPollerBatchSize()) {
+                    break;
+                }
+                if (refreshed >= config.getPollerMaxRefreshesPerRun()) {
+                    fullScan = false;
+                    break;
+                }
+            }
+        } catch (final Exception e) {
+            fullScan = false;
+            logger.warn("OMPay pending transaction poller run failed: {}", e.getMessage(), e);
+        }
+
+        // Nothing is pending past the end of a full scan
+        if (fullScan) {
+            backoffs.tailMap(afterRecordId, false).clear();
+        }
+        if (refreshed > 0) {
+            logger.info("OMPay pending transaction poller refreshed {} transactions", refreshed);
+        }
+    }
+
+    private void refresh(final List<OmpayResponsesRecord> records, final DateTime now) {
+        final OmpayResponsesRecord first = records.get(0);
+        final PluginCallContext context = new PluginCallContext(OmPayActivator.PLUGIN_NAME, now, first.getKbAccountId(), first.getKbTenantId());
+
+        List<PaymentTransactionInfoPlugin> transactions = ImmutableList.of();
+        try {
+            // Each gateway call of the refresh takes a permit
+            transactions = pluginApi.getPaymentInfo(first.getKbAccountId(), first.getKbPaymentId(), ImmutableList.of(), context, gatewayRateLimiter);
+        } catch (final Exception e) {
+            logger.warn("Failed to refresh pending OMPay payment {}: {}", first.getKbPaymentId(), e.getMessage());
+        }
+
+        for (final OmpayResponsesRecord record : records) {
+            final PaymentPluginStatus status = transactions.stream()
+                    .filter(transaction -> record.getKbPaymentTransactionId().equals(transaction.getKbTransactionPaymentId()))
+                    .map(PaymentTransactionInfoPlugin::getStatus)
+                    .findFirst()
+                    .orElse(PaymentPluginStatus.PENDING);
+            if (status == PaymentPluginStatus.PENDING || status == PaymentPluginStatus.UNDEFINED) {
+                backoffs.computeIfAbsent(record.getRecordId(), id -> new Backoff()).attempted(now);
+            } else {
+                backoffs.remove(record.getRecordId());
+            }
+        }
+    }
+
+    private static final class Backoff {
+
+        private int attempts = 0;
+        private DateTime nextAttempt;
+
+        private boolean isDue(final DateTime now, final OmpayResponsesRecord record) {
+            if (nextAttempt == null) {
+                // First attempt shortly after the transaction was created, or right away after a restart
+                nextAttempt = new DateTime(record.getCreatedDate().atZone(java.time.ZoneOffset.UTC).toInstant().toEpochMilli())
+                        .plusSeconds(BACKOFF_SECONDS[0]);
+            }
+            return !nextAttempt.isAfter(now);
+        }
+
+        private void attempted(final DateTime now) {
+            attempts++;
+            nextAttempt = now.plusSeconds(BACKOFF_SECONDS[Math.min(attempts, BACKOFF_SECONDS.length - 1)]);
+        }
+    }
+}
@@ -0,0 +1,327 @@
+/*
+ * Copyright 2025 GAIM-TECH-OM
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package org.killbill.billing.plugin.ompay;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.annotation.Nullable;
+
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
+import org.killbill.billing.osgi.libs.killbill.OSGIKillbillClock;
+import org.killbill.billing.plugin.api.PluginCallContext;
+import org.killbill.billing.plugin.ompay.dao.OmPayDao;
+import org.killbill.billing.plugin.ompay.dao.gen.tables.records.OmpayWebhookInboxRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.base.Strings;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * Processes the OMPay webhook notifications stored in ompay_webhook_inbox by {@link OmPayWebhookServlet}.
+ * <p>
+ * Each batch of due notifications is grouped by ordering key (the OMPay payment the notification is about) and the
+ * groups are spread over a bounded pool of workers: notifications of different payments are processed concurrently,
+ * those of a same payment one after the other, in arrival order. A notification which fails is retried with an
+ * exponential backoff (5s, 30s, 2min, 10min, 30min, then hourly), holding back the later ones of its payment, and
+ * abandoned after inbox.maxAttempts.
+ * Bursts are coalesced: a run starts inbox.coalesceWindowMillis after the notification which triggered it, and only
+ * the latest of the notifications queued for an OMPay transaction is applied, the superseded ones are dropped with it.
+ * Redeliveries of a notification id are dropped on receipt: first by an in-memory LRU of the ids seen lately, then by
+ * the unique index of ompay_webhook_notification_ids.
+ * On a cluster, each node only processes the notifications of the keys it owns (see {@link OmPayWorkPartitioner}).
+ */
+public class OmPayWebhookProcessor {
+
+    private static final Logger logger = LoggerFactory.getLogger(OmPayWebhookProcessor.class);
+
+    private static final int[] BACKOFF_SECONDS = {5, 30, 120, 600, 1800, 3600};
+
+    private final OmPayDao dao;
+    private final OmPayPaymentPluginApi pluginApi;
+    private final OmPayWorkPartitioner partitioner;
+    private final OSGIKillbillClock clock;
+    private final OmPayConfigProperties config;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    // Coalesces the wake-ups requested while a run is already queued
+    private final AtomicBoolean wakeUpQueued = new AtomicBoolean(false);
+
+    // Ids of the notifications received lately, per tenant: most redeliveries are recognized without a query
+    private final Cache<String, Boolean> receivedNotificationIds;
+
+    private ScheduledExecutorService scheduler;
+    private ExecutorService workers;
+    private DateTime lastPurge;
+
+    public OmPayWebhookProcessor(final OmPayDao dao,
+                                 final OmPayPaymentPluginApi pluginApi,
+                                 final OmPayWorkPartitioner partitioner,
+                                 final OSGIKillbillClock clock,
+                                 final OmPayConfigProperties config) {
+        this.dao = dao;
+        this.pluginApi = pluginApi;
+        this.partitioner = partitioner;
+        this.clock = clock;
+        this.config = config;
+        this.receivedNotificationIds = CacheBuilder.newBuilder()
+                .maximumSize(config.getInboxDedupCacheSize())
+                .build();
+    }
+
+    /**
+     * Store a notification received by the webhook for asynchronous processing.
+     *
+     * @return false if the notification is a redelivery of one already received, which was not stored
+     */
+    public boolean receive(final OmPayNotification notification, @Nullable final UUID kbTenantId) throws SQLException {
+        final String notificationId = notification.getId();
+        final String cacheKey = notificationId == null ? null : kbTenantId + "/" + notificationId;
+        if (cacheKey != null && receivedNotificationIds.getIfPresent(cacheKey) != null) {
+            return false;
+        }
+
+        final boolean stored = dao.addWebhookNotification(notificationId, orderingKey(notification), notification.getBody(), clock.getClock().getUTCNow(), kbTenantId);
+        if (cacheKey != null) {
+            receivedNotificationIds.put(cacheKey, Boolean.TRUE);
+        }
+        if (stored) {
+            wakeUp();
+        }
+        return stored;
+    }
+
+    /**
+     * Key under which the notifications of a same payment are serialized: the original OMPay transaction for
+     * follow-up operations (reference_id), the transaction itself otherwise.
+     */
+    static String orderingKey(final OmPayNotification notification) {
+        if (!Strings.isNullOrEmpty(notification.getReferenceId())) {
+            return notification.getReferenceId();
+        }
+        if (!Strings.isNullOrEmpty(notification.getResourceId())) {
+            return notification.getResourceId();
+        }
+        return notification.getId() != null ? notification.getId() : "unknown";
+    }
+
+    public void start() {
+        workers = Executors.newFixedThreadPool(config.getInboxThreads(), new ThreadFactoryBuilder()
+                .setNameFormat("ompay-inbox-worker-%d")
+                .setDaemon(true)
+                .build());
+        scheduler = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder()
+                .setNameFormat("ompay-inbox-%d")
+                .setDaemon(true)
+                .build());
+        scheduler.scheduleWithFixedDelay(this::run,
+                config.getInboxIntervalMillis(),
+                config.getInboxIntervalMillis(),
+                TimeUnit.MILLISECONDS);
+    }
+
+    public void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+        if (workers != null) {
+            workers.shutdownNow();
+            workers = null;
+        }
+    }
+
+    /**
+     * Process without waiting for the next scheduled run, after a notification was stored. The run is delayed by the
+     * coalescing window, so that the notifications of a burst are applied together.
+     */
+    public void wakeUp() {
+        final ScheduledExecutorService current = scheduler;
+        if (current == null || !wakeUpQueued.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            current.schedule(() -> {
+                wakeUpQueued.set(false);
+                run();
+            }, config.getInboxCoalesceWindowMillis(), TimeUnit.MILLISECONDS);
+        } catch (final RejectedExecutionException e) {
+            // Stopping, whatever is left is processed on restart
+            wakeUpQueued.set(false);
+        }
+    }
+
+    void run() {
+        int processed = 0;
+        // Keyset cursor: a page without any key of this node does not stop the run, the next page is read instead
+        int afterRecordId = 0;
+        try {
+            while (true) {
+                final DateTime now = clock.getClock().getUTCNow();
+                final List<OmpayWebhookInboxRecord> batch = dao.getDueWebhookNotifications(now, afterRecordId, config.getInboxBatchSize());
+                if (batch.isEmpty()) {
+                    break;
+                }
+                afterRecordId = batch.get(batch.size() - 1).getRecordId();
+
+                // One task per ordering key, keeping the arrival order within each key
+                final Map<String, List<OmpayWebhookInboxRecord>> perKey = new LinkedHashMap<String, List<OmpayWebhookInboxRecord>>();
+                for (final OmpayWebhookInboxRecord entry : batch) {
+                    // On a cluster, the other nodes take care of the other keys
+                    if (partitioner.owns(entry.getOrderingKey())) {
+                        perKey.computeIfAbsent(entry.getOrderingKey(), key -> new ArrayList<OmpayWebhookInboxRecord>()).add(entry);
+                    }
+                }
+
+                final List<Callable<List<Integer>>> tasks = new ArrayList<Callable<List<Integer>>>();
+                for (final List<OmpayWebhookInboxRecord> entries : perKey.values()) {
+                    tasks.add(() -> processInOrder(entries, now));
+                }
+                final List<Integer> done = new ArrayList<Integer>();
+                for (final Future<List<Integer>> future : workers.invokeAll(tasks)) {
+                    done.addAll(future.get());
+                }
+                dao.deleteWebhookNotifications(done);
+                processed += done.size();
+
+                if (batch.size() < config.getInboxBatchSize()) {
+                    break;
+                }
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (final Exception e) {
+            logger.warn("OMPay webhook inbox run failed: {}", e.getMessage(), e);
+        }
+
+        if (processed > 0) {
+            logger.info("OMPay webhook inbox processed {} notifications", processed);
+        }
+
+        purgeDedupRecords();
+    }
+
+    // Hourly, on a single node: ids of the webhook notifications, and the payment nonces of OmPayNonceRequests
+    private void purgeDedupRecords() {
+        final DateTime now = clock.getClock().getUTCNow();
+        if (!partitioner.isLeader() || (lastPurge != null && lastPurge.plusHours(1).isAfter(now))) {
+            return;
+        }
+        lastPurge = now;
+        try {
+            final int purged = dao.purgeWebhookNotificationIds(now.minusDays(config.getInboxDedupRetentionDays()));
+            if (purged > 0) {
+                logger.info("Purged {} OMPay webhook notification ids", purged);
+            }
+        } catch (final Exception e) {
+            logger.warn("Failed to purge OMPay webhook notification ids: {}", e.getMessage());
+        }
+        try {
+            final int purged = dao.purgeNonceRequests(now.minusMinutes(config.getNonceDedupRetentionMinutes()));
+            if (purged > 0) {
+                logger.info("Purged {} OMPay payment nonces", purged);
+            }
+        } catch (final Exception e) {
+            logger.warn("Failed to purge OMPay payment nonces: {}", e.getMessage());
+        }
+    }
+
+    // Record ids to remove from the inbox. Stops at the first failure: the following notifications wait for its retry
+    private List<Integer> processInOrder(final List<OmpayWebhookInboxRecord> entries, final DateTime now) throws Exception {
+        final List<Integer> done = new ArrayList<Integer>();
+        for (final Map.Entry<OmpayWebhookInboxRecord, OmPayNotification> latest : coalesce(entries, done).entrySet()) {
+            final OmpayWebhookInboxRecord entry = latest.getKey();
+            final String error = process(entry, latest.getValue());
+            if (error == null) {
+                done.add(entry.getRecordId());
+                continue;
+            }
+
+            final int attempts = entry.getAttempts() + 1;
+            if (attempts >= config.getInboxMaxAttempts()) {
+                logger.error("Giving up OMPay notification {} after {} attempts, last error: {}", entry.getNotificationId(), attempts, error);
+                done.add(entry.getRecordId());
+                continue;
+            }
+            dao.rescheduleWebhookNotification(entry.getRecordId(), attempts,
+                                              now.plusSeconds(BACKOFF_SECONDS[Math.min(attempts - 1, BACKOFF_SECONDS.length - 1)]), error);
+            break;
+        }
+        return done;
+    }
+
+    // Keeps, in arrival order, the latest notification of each OMPay transaction: one write and at most one Kill Bill
+    // notification per transaction. The record ids of the superseded ones are added to superseded. Notifications which
+    // cannot be parsed are kept as is (without their parsed form), to fail in process
+    private Map<OmpayWebhookInboxRecord, OmPayNotification> coalesce(final List<OmpayWebhookInboxRecord> entries, final List<Integer> superseded) {
+        final Map<OmpayWebhookInboxRecord, OmPayNotification> latest = new LinkedHashMap<OmpayWebhookInboxRecord, OmPayNotification>();
+        final Map<String, OmpayWebhookInboxRecord> latestPerTransaction = new HashMap<String, OmpayWebhookInboxRecord>();
+        for (final OmpayWebhookInboxRecord entry : entries) {
+            OmPayNotification notification = null;
+            try {
+                notification = OmPayNotification.parse(objectMapper, entry.getBody());
+            } catch (final IOException e) {
+                // Reported by process
+            }
+            latest.put(entry, notification);
+
+            if (notification == null || notification.getResourceType() == null || Strings.isNullOrEmpty(notification.getResourceId())) {
+                continue;
+            }
+            final OmpayWebhookInboxRecord previous = latestPerTransaction.put(notification.getResourceType() + "/" + notification.getResourceId(), entry);
+            if (previous != null) {
+                logger.debug("OMPay notification {} superseded by {}", previous.getNotificationId(), entry.getNotificationId());
+                latest.remove(previous);
+                superseded.add(previous.getRecordId());
+            }
+        }
+        return latest;
+    }
+
+    // Null on success, the error otherwise
+    @Nullable
+    private String process(final OmpayWebhookInboxRecord entry, @Nullable final OmPayNotification notification) {
+        // Dated when the notification was received: unknown transactions are those not stored by then
+        final DateTime receivedDate = new DateTime(entry.getCreatedDate().atZone(java.time.ZoneOffset.UTC).toInstant().toEpochMilli(), DateTimeZone.UTC);
+        final PluginCallContext context = new PluginCallContext(OmPayActivator.PLUGIN_NAME, receivedDate, null, entry.getKbTenantId());
+        try {
+            pluginApi.processNotification(notification != null ? notification : OmPayNotification.parse(objectMapper, entry.getBody()), context);
+            return null;
+        } catch (final Exception e) {
+            final String error = e.getMessage() != null ? e.getMessage() : e.getClass().getName();
+            logger.warn("Failed to process OMPay notification {} (attempt {}): {}", entry.getNotificationId(), entry.getAttempts() + 1, error);
+            return error;
+        }
+    }
+}
@@ -17,9 +17,17 @@ package org.killbill.billing.plugin.ompay;
 
 import java.io.BufferedReader;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.InvalidKeyException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.SQLException;
+import java.util.Locale;
 import java.util.Optional;
 import java.util.UUID;
 
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
 import javax.inject.Inject;
 import javax.inject.Named;
 import javax.inject.Singleton;
@@ -33,7 +41,6 @@ import org.jooby.mvc.POST;
 import org.jooby.mvc.Path;
 import org.killbill.billing.osgi.libs.killbill.OSGIKillbillAPI;
 import org.killbill.billing.osgi.libs.killbill.OSGIKillbillClock;
-import org.killbill.billing.payment.plugin.api.PaymentPluginApiException;
 import org.killbill.billing.plugin.api.PluginCallContext;
 import org.killbill.billing.plugin.core.PluginServlet;
 import org.killbill.billing.tenant.api.Tenant;
@@ -41,8 +48,9 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.base.Strings;
+import com.google.common.io.BaseEncoding;
 
 @Singleton
 @Path("/webhook")
@@ -50,21 +58,32 @@ public class OmPayWebhookServlet extends PluginServlet {
 
     private static final long serialVersionUID = 1L;
     private static final Logger logger = LoggerFactory.getLogger(OmPayWebhookServlet.class);
-    private final transient OmPayPaymentPluginApi paymentPluginApi;
+
+    private static final String SIGNATURE_HEADER = "X-OMPay-Signature";
+    private static final String SIGNATURE_PREFIX = "sha256=";
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+    private static final BaseEncoding HEX = BaseEncoding.base16().lowerCase();
+    // Mac instances are costly to look up and not thread-safe: one per request thread
+    private static final ThreadLocal<KeyedMac> MACS = ThreadLocal.withInitial(KeyedMac::new);
+
+    private final transient OmPayWebhookProcessor webhookProcessor;
     private final transient OmPayConfigurationHandler configurationHandler;
     private final transient OSGIKillbillAPI killbillAPI;
     private final transient OSGIKillbillClock clock;
+    private final transient OmPayAdmissionController admissionController;
     private final ObjectMapper objectMapper = new ObjectMapper();
 
     @Inject
-    public OmPayWebhookServlet(final OmPayPaymentPluginApi paymentPluginApi,
+    public OmPayWebhookServlet(final OmPayWebhookProcessor webhookProcessor,
                                final OmPayConfigurationHandler configurationHandler,
                                final OSGIKillbillAPI killbillAPI,
-                               final OSGIKillbillClock clock) {
-        this.paymentPluginApi = paymentPluginApi;
+                               final OSGIKillbillClock clock,
+                               final OmPayAdmissionController admissionController) {
+        this.webhookProcessor = webhookProcessor;
         this.configurationHandler = configurationHandler;
         this.killbillAPI = killbillAPI;
         this.clock = clock;
+        this.admissionController = admissionController;
     }
 
     @POST
@@ -79,60 +98,95 @@ public class OmPayWebhookServlet extends PluginServlet {
             return Results.with("Empty notification body", Status.BAD_REQUEST);
         }
 
+        // Only stored on receipt, no gateway call: bounded by the requests in progress alone. OMPay retries the rejected ones
+        if (!admissionController.tryAdmit(false)) {
+            return admissionController.overloaded();
+        }
+
         try {
-            // Validate webhook signature if provided
+            // Validate the webhook signature first, forged requests are rejected before any parsing
             if (!validateWebhookSignature(request, body, tenantOpt.orElse(null))) {
                 logger.warn("Invalid webhook signature");
                 return Results.with("Invalid webhook signature", Status.UNAUTHORIZED);
             }
 
-            // Parse JSON to validate it's well-formed
-            JsonNode rootNode = objectMapper.readTree(body);
+            // Parse once, the typed notification goes through the whole pipeline
+            final OmPayNotification notification = OmPayNotification.parse(objectMapper, body);
 
-            // Log webhook event details
-            String resourceType = rootNode.path("resource_type").asText("unknown");
-            String eventKind = rootNode.path("kind").asText("unknown");
-            String notificationId = rootNode.path("id").asText("unknown");
+            logger.info("Storing webhook: id={}, type={}, kind={}", notification.getId(), notification.getResourceType(), notification.getKind());
 
-            logger.info("Processing webhook: id={}, type={}, kind={}", notificationId, resourceType, eventKind);
-
-            // Process the notification
-            paymentPluginApi.processNotification(body, null, context);
+            // Only persist the notification: it is processed asynchronously, in order per payment
+            if (!webhookProcessor.receive(notification, context.getTenantId())) {
+                logger.info("Webhook {} already received, ignoring the redelivery", notification.getId());
+            }
 
             // Return successful response
-            return Results.with("Webhook processed successfully", Status.OK);
+            return Results.with("Webhook received", Status.OK);
 
         } catch (JsonProcessingException e) {
             logger.error("Error parsing webhook JSON: {}", body, e);
             return Results.with("Invalid JSON format: " + e.getMessage(), Status.BAD_REQUEST);
-        } catch (PaymentPluginApiException e) {
-            logger.error("Error processing webhook: {}", e.getMessage(), e);
-            return Results.with("Error processing webhook: " + e.getMessage(), Status.SERVER_ERROR);
+        } catch (SQLException e) {
+            logger.error("Error storing webhook: {}", e.getMessage(), e);
+            return Results.with("Error storing webhook: " + e.getMessage(), Status.SERVER_ERROR);
         } catch (Exception e) {
             logger.error("Unexpected error processing webhook: {}", e.getMessage(), e);
             return Results.with("Internal server error", Status.SERVER_ERROR);
+        } finally {
+            admissionController.release();
         }
     }
 
-    private boolean validateWebhookSignature(HttpServletRequest request, String body, Tenant tenant) {
-        if (tenant == null) {
-            logger.warn("Cannot validate webhook signature: tenant not found");
+    // Only the signature is checked here: an invalid request costs one HMAC, no parsing nor database access
+    private boolean validateWebhookSignature(final HttpServletRequest request, final String body, final Tenant tenant) {
+        final OmPayConfigProperties config = configurationHandler.getConfigurable(tenant != null ? tenant.getId() : null);
+        final String signingKey = config != null ? config.getWebhookSigningKey() : null;
+        if (Strings.isNullOrEmpty(signingKey)) {
+            logger.debug("No webhook signing key configured, skipping signature validation");
             return true;
         }
 
+        String signature = request.getHeader(SIGNATURE_HEADER);
+        if (Strings.isNullOrEmpty(signature)) {
+            logger.warn("Missing {} header", SIGNATURE_HEADER);
+            return false;
+        }
+        signature = signature.trim().toLowerCase(Locale.ROOT);
+        if (signature.startsWith(SIGNATURE_PREFIX)) {
+            signature = signature.substring(SIGNATURE_PREFIX.length());
+        }
+
+        final String expected = HEX.encode(hmac(signingKey).doFinal(body.getBytes(StandardCharsets.UTF_8)));
+        // Constant-time comparison
+        return MessageDigest.isEqual(expected.getBytes(StandardCharsets.US_ASCII), signature.getBytes(StandardCharsets.US_ASCII));
+    }
 
-        String signature = request.getHeader("X-OMPay-Signature");
-        if (signature == null || signature.isEmpty()) {
-            logger.debug("No signature header found, skipping signature validation");
-            return true;
+    // The Mac of the current thread, initialized with the given key: re-initialized only when the tenant changes
+    private static Mac hmac(final String signingKey) {
+        final KeyedMac keyedMac = MACS.get();
+        if (!signingKey.equals(keyedMac.signingKey)) {
+            try {
+                keyedMac.mac.init(new SecretKeySpec(signingKey.getBytes(StandardCharsets.UTF_8), HMAC_ALGORITHM));
+            } catch (final InvalidKeyException e) {
+                throw new IllegalStateException("Invalid OMPay webhook signing key", e);
+            }
+            keyedMac.signingKey = signingKey;
         }
+        return keyedMac.mac;
+    }
+
+    private static final class KeyedMac {
 
-        // TODO: Implement actual signature validation once OMPay provides signature details
-        // This would typically involve:
-        // 1. Getting the shared secret from config (webhook signing key)
-        // 2. Creating a HMAC signature using the body and comparing with the provided signature
+        private final Mac mac;
+        private String signingKey;
 
-        return true; // Placeholder for actual implementation
+        private KeyedMac() {
+            try {
+                this.mac = Mac.getInstance(HMAC_ALGORITHM);
+            } catch (final NoSuchAlgorithmException e) {
+                throw new IllegalStateException(HMAC_ALGORITHM + " not available", e);
+            }
+        }
     }
 
     private PluginCallContext createPluginCallContext(final String apiName, final Tenant tenant, final HttpServletRequest request) {
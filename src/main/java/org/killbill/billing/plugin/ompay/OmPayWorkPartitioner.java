@@ -0,0 +1,173 @@
+/*
+ * Copyright 2025 GAIM-TECH-OM
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package org.killbill.billing.plugin.ompay;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.joda.time.DateTime;
+import org.killbill.billing.osgi.libs.killbill.OSGIKillbillClock;
+import org.killbill.billing.plugin.ompay.dao.OmPayDao;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * Splits the work of the background jobs between the plugin instances of a Kill Bill cluster.
+ * <p>
+ * Each node heartbeats a lease in ompay_node_leases; the live nodes, sorted by id, each own the payments whose
+ * kb_payment_id hashes to their position. When a node stops or its lease expires, the remaining nodes pick up
+ * its share at their next heartbeat. Singleton work (e.g. archival) goes to the first live node.
+ * <p>
+ * Works on PostgreSQL and MySQL alike. When clustering is disabled, this node owns everything.
+ */
+public class OmPayWorkPartitioner {
+
+    private static final Logger logger = LoggerFactory.getLogger(OmPayWorkPartitioner.class);
+
+    private final OmPayDao dao;
+    private final OSGIKillbillClock clock;
+    private final OmPayConfigProperties config;
+    private final String nodeId;
+
+    private volatile Assignment assignment;
+    private ScheduledExecutorService executor;
+
+    public OmPayWorkPartitioner(final OmPayDao dao, final OSGIKillbillClock clock, final OmPayConfigProperties config) {
+        this.dao = dao;
+        this.clock = clock;
+        this.config = config;
+        this.nodeId = buildNodeId();
+        this.assignment = config.isClusterEnabled() ? Assignment.NONE : Assignment.SINGLE_NODE;
+    }
+
+    public void start() {
+        if (!config.isClusterEnabled()) {
+            return;
+        }
+        // Register right away so that the jobs started next have an assignment
+        heartbeat();
+        executor = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder()
+                .setNameFormat("ompay-lease-%d")
+                .setDaemon(true)
+                .build());
+        executor.scheduleWithFixedDelay(this::heartbeat,
+                config.getClusterHeartbeatSeconds(),
+                config.getClusterHeartbeatSeconds(),
+                TimeUnit.SECONDS);
+    }
+
+    public void stop() {
+        if (executor == null) {
+            return;
+        }
+        executor.shutdownNow();
+        executor = null;
+        assignment = Assignment.NONE;
+        try {
+            dao.removeNode(nodeId);
+        } catch (final Exception e) {
+            logger.warn("Failed to release the lease of node {}: {}", nodeId, e.getMessage());
+        }
+    }
+
+    /**
+     * Whether the background jobs of this node are in charge of the payment.
+     */
+    public boolean owns(final UUID kbPaymentId) {
+        return ownsHash(kbPaymentId.hashCode());
+    }
+
+    /**
+     * Whether the background jobs of this node are in charge of the work identified by the key (e.g. an OMPay id).
+     */
+    public boolean owns(final String key) {
+        return ownsHash(key.hashCode());
+    }
+
+    /**
+     * Whether this node runs the work which can't be split by payment.
+     */
+    public boolean isLeader() {
+        final Assignment current = currentAssignment();
+        return current.nodeCount > 0 && current.nodeIndex == 0;
+    }
+
+    private boolean ownsHash(final int hash) {
+        final Assignment current = currentAssignment();
+        return current.nodeCount > 0 && Math.floorMod(hash, current.nodeCount) == current.nodeIndex;
+    }
+
+    void heartbeat() {
+        final DateTime now = clock.getClock().getUTCNow();
+        try {
+            dao.heartbeatNode(nodeId, now);
+            final List<String> liveNodeIds = dao.getLiveNodeIds(now.minusSeconds(config.getClusterLeaseTimeoutSeconds()));
+            final Assignment previous = assignment;
+            final Assignment next = new Assignment(liveNodeIds.indexOf(nodeId), liveNodeIds.size(), now);
+            assignment = next;
+            if (previous.nodeCount != next.nodeCount || previous.nodeIndex != next.nodeIndex) {
+                logger.info("OMPay node {} now owns partition {} of {}", nodeId, next.nodeIndex, next.nodeCount);
+            }
+        } catch (final Exception e) {
+            logger.warn("OMPay node {} failed to renew its lease: {}", nodeId, e.getMessage());
+        }
+    }
+
+    // An assignment is only valid as long as the lease it was computed with: past that, the other nodes have taken over
+    private Assignment currentAssignment() {
+        final Assignment current = assignment;
+        if (current.renewedAt != null &&
+                current.renewedAt.plusSeconds(config.getClusterLeaseTimeoutSeconds()).isBefore(clock.getClock().getUTCNow())) {
+            return Assignment.NONE;
+        }
+        return current;
+    }
+
+    private static String buildNodeId() {
+        String hostName;
+        try {
+            hostName = InetAddress.getLocalHost().getHostName();
+        } catch (final UnknownHostException e) {
+            hostName = "unknown";
+        }
+        // Unique per plugin start, so that a restarted node never reuses a lease
+        final String suffix = "-" + UUID.randomUUID().toString().substring(0, 8);
+        return (hostName.length() + suffix.length() > 64 ? hostName.substring(0, 64 - suffix.length()) : hostName) + suffix;
+    }
+
+    private static final class Assignment {
+
+        private static final Assignment NONE = new Assignment(-1, 0, null);
+        private static final Assignment SINGLE_NODE = new Assignment(0, 1, null);
+
+        private final int nodeIndex;
+        private final int nodeCount;
+        private final DateTime renewedAt;
+
+        private Assignment(final int nodeIndex, final int nodeCount, final DateTime renewedAt) {
+            this.nodeIndex = nodeIndex;
+            this.nodeCount = nodeCount;
+            this.renewedAt = renewedAt;
+        }
+    }
+}
@@ -0,0 +1,183 @@
+/*
+ * Copyright 2025 GAIM-TECH-OM
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package org.killbill.billing.plugin.ompay.client;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Adaptive limit of the concurrent OMPay calls (gradient algorithm): the limit grows while the latency stays close to
+ * the long-term latency, and shrinks as soon as OMPay slows down (requests queue up on its side) or fails, so that the
+ * plugin sends what OMPay can actually absorb instead of a fixed number of requests.
+ * <p>
+ * Every 10 calls, the average latency of the window (short RTT) is compared with an exponential average over many
+ * windows (long RTT): limit = limit * min(1, TOLERANCE * longRtt / shortRtt) + sqrt(limit), smoothed. A timeout,
+ * connection failure, 429 or 5xx cuts the limit by 10%. Calls beyond the limit wait for a slot, up to the acquire
+ * timeout.
+ */
+public class OmPayConcurrencyLimiter {
+
+    private static final Logger logger = LoggerFactory.getLogger(OmPayConcurrencyLimiter.class);
+
+    private static final int WINDOW_SIZE = 10;
+    // Latency increase tolerated before the limit shrinks
+    private static final double TOLERANCE = 1.5;
+    private static final double SMOOTHING = 0.2;
+    private static final double BACKOFF_RATIO = 0.9;
+    // Windows averaged by the long RTT
+    private static final int LONG_WINDOWS = 60;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long acquireTimeoutNanos;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition slotFreed = lock.newCondition();
+
+    // Guarded by lock
+    private double limit;
+    private int inFlight;
+    private int waiting;
+    private double longRttNanos;
+    private long windowRttSumNanos;
+    private int windowSamples;
+    private boolean windowDropped;
+
+    public OmPayConcurrencyLimiter(final int initialLimit, final int minLimit, final int maxLimit, final long acquireTimeoutMillis) {
+        this.minLimit = Math.max(1, minLimit);
+        this.maxLimit = Math.max(this.minLimit, maxLimit);
+        this.acquireTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(acquireTimeoutMillis);
+        this.limit = Math.min(this.maxLimit, Math.max(this.minLimit, initialLimit));
+    }
+
+    /**
+     * Wait for a slot.
+     *
+     * @return The start time of the call, to hand back to {@link #release}
+     * @throws OmPayLimiterTimeoutException If no slot freed up in time
+     */
+    public long acquire() throws OmPayLimiterTimeoutException {
+        lock.lock();
+        waiting++;
+        try {
+            long remainingNanos = acquireTimeoutNanos;
+            while (inFlight >= (int) limit) {
+                if (remainingNanos <= 0) {
+                    throw new OmPayLimiterTimeoutException("Too many concurrent OMPay requests (limit " + (int) limit + ")");
+                }
+                remainingNanos = slotFreed.awaitNanos(remainingNanos);
+            }
+            inFlight++;
+            return System.nanoTime();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new OmPayLimiterTimeoutException("Interrupted while waiting for an OMPay request slot", e);
+        } finally {
+            waiting--;
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @param startNanos As returned by {@link #acquire}
+     * @param dropped Whether the call failed because of OMPay (timeout, connection failure, 429, 5xx)
+     */
+    public void release(final long startNanos, final boolean dropped) {
+        final long rttNanos = System.nanoTime() - startNanos;
+        lock.lock();
+        try {
+            inFlight--;
+            if (dropped) {
+                windowDropped = true;
+            } else {
+                windowRttSumNanos += rttNanos;
+            }
+            windowSamples++;
+            if (windowSamples >= WINDOW_SIZE) {
+                updateLimit();
+            }
+            slotFreed.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getLimit() {
+        lock.lock();
+        try {
+            return (int) limit;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getInFlight() {
+        lock.lock();
+        try {
+            return inFlight;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Calls waiting for a slot
+    public int getWaiting() {
+        lock.lock();
+        try {
+            return waiting;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Caller holds the lock
+    private void updateLimit() {
+        final double previous = limit;
+        if (windowDropped) {
+            limit = Math.max(minLimit, limit * BACKOFF_RATIO);
+        } else {
+            final double shortRttNanos = (double) windowRttSumNanos / windowSamples;
+            if (longRttNanos == 0) {
+                longRttNanos = shortRttNanos;
+            } else {
+                longRttNanos += (shortRttNanos - longRttNanos) / LONG_WINDOWS;
+                // OMPay recovered from a slow period: forget it faster
+                if (longRttNanos / shortRttNanos > 2) {
+                    longRttNanos *= 0.95;
+                }
+            }
+
+            // Don't grow while the calls don't even use the current limit
+            if (inFlight >= limit / 2) {
+                final double gradient = Math.max(0.5, Math.min(1.0, TOLERANCE * longRttNanos / shortRttNanos));
+                final double target = limit * gradient + Math.sqrt(limit);
+                limit = Math.min(maxLimit, Math.max(minLimit, limit * (1 - SMOOTHING) + target * SMOOTHING));
+            }
+        }
+
+        windowRttSumNanos = 0;
+        windowSamples = 0;
+        windowDropped = false;
+        if ((int) limit != (int) previous) {
+            logger.debug("OMPay concurrency limit {} -> {}", (int) previous, (int) limit);
+            // More calls may proceed
+            slotFreed.signalAll();
+        }
+    }
+}
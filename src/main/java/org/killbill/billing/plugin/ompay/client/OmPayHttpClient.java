@@ -29,6 +29,7 @@ import java.net.HttpURLConnection;
 import java.net.URL;
 import java.nio.charset.StandardCharsets;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class OmPayHttpClient {
 
@@ -36,6 +37,24 @@ public class OmPayHttpClient {
     private final ObjectMapper objectMapper = new ObjectMapper();
     private static final int DEFAULT_CONNECT_TIMEOUT = 10000; // 10 seconds
     private static final int DEFAULT_READ_TIMEOUT = 30000; // 30 seconds
+    // Requests in flight to OMPay, all clients of the plugin included
+    private static final AtomicInteger IN_FLIGHT = new AtomicInteger();
+
+    public static int getInFlightRequests() {
+        return IN_FLIGHT.get();
+    }
+
+    // Shared by all clients of the plugin, null when disabled
+    private static volatile OmPayConcurrencyLimiter limiter;
+
+    public static void setConcurrencyLimiter(@Nullable final OmPayConcurrencyLimiter concurrencyLimiter) {
+        limiter = concurrencyLimiter;
+    }
+
+    @Nullable
+    public static OmPayConcurrencyLimiter getConcurrencyLimiter() {
+        return limiter;
+    }
 
     public static class OmPayHttpResponse {
         private final int statusCode;
@@ -77,7 +96,12 @@ public class OmPayHttpClient {
                                              @Nullable final String body,
                                              @Nullable final String authorizationHeader,
                                              @Nullable final String contentType) throws Exception {
+        final OmPayConcurrencyLimiter currentLimiter = limiter;
+        final long startNanos = currentLimiter != null ? currentLimiter.acquire() : 0;
+        // Failures meaning OMPay is overloaded or down, fed back to the limiter
+        boolean dropped = true;
         HttpURLConnection conn = null;
+        IN_FLIGHT.incrementAndGet();
         try {
             final URL url = new URL(urlString);
             conn = (HttpURLConnection) url.openConnection();
@@ -109,6 +133,7 @@ public class OmPayHttpClient {
             }
 
             final int statusCode = conn.getResponseCode();
+            dropped = statusCode == 429 || statusCode >= 500;
             final StringBuilder response = new StringBuilder();
             try (BufferedReader br = new BufferedReader(new InputStreamReader(
                     (statusCode >= 200 && statusCode < 300 && conn.getInputStream() != null) ? conn.getInputStream() : conn.getErrorStream(), StandardCharsets.UTF_8))) {
@@ -129,6 +154,10 @@ public class OmPayHttpClient {
             return new OmPayHttpResponse(statusCode, response.toString(), objectMapper);
 
         } finally {
+            IN_FLIGHT.decrementAndGet();
+            if (currentLimiter != null) {
+                currentLimiter.release(startNanos, dropped);
+            }
             if (conn != null) {
                 conn.disconnect();
             }
@@ -0,0 +1,34 @@
+/*
+ * Copyright 2025 GAIM-TECH-OM
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package org.killbill.billing.plugin.ompay.client;
+
+import java.io.IOException;
+
+/**
+ * No slot of the {@link OmPayConcurrencyLimiter} was granted in time: the request was never sent to OMPay.
+ */
+public class OmPayLimiterTimeoutException extends IOException {
+
+    private static final long serialVersionUID = 1L;
+
+    public OmPayLimiterTimeoutException(final String message) {
+        super(message);
+    }
+
+    public OmPayLimiterTimeoutException(final String message, final Throwable cause) {
+        super(message, cause);
+    }
+}
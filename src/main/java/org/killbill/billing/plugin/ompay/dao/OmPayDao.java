@@ -21,11 +21,19 @@ import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.common.base.Strings;
 import org.joda.time.DateTime;
+import org.jooq.CaseConditionStep;
 import org.jooq.Condition;
 import org.jooq.DSLContext;
+import org.jooq.Field;
+import org.jooq.QueryPart;
+import org.jooq.Record2;
+import org.jooq.SQLDialect;
+import org.jooq.Table;
+import org.jooq.UpdateSetMoreStep;
 import org.jooq.conf.RenderQuotedNames;
 import org.jooq.conf.Settings;
 import org.jooq.impl.DSL; // Import for DSL.using
+import org.jooq.impl.SQLDataType;
 import org.killbill.billing.catalog.api.Currency;
 import org.killbill.billing.payment.api.PaymentMethodPlugin;
 import org.killbill.billing.payment.api.PluginProperty; // Ensure this is the correct import
@@ -36,23 +44,37 @@ import org.killbill.billing.plugin.dao.payment.PluginPaymentDao; // Correct base
 import org.killbill.billing.plugin.ompay.OmPayPaymentMethodPlugin;
 import org.killbill.billing.plugin.ompay.OmPayPaymentPluginApi;
 import org.killbill.billing.plugin.ompay.dao.gen.tables.OmpayPaymentMethods;
+import org.killbill.billing.plugin.ompay.dao.gen.tables.OmpayResponsePayloads;
 import org.killbill.billing.plugin.ompay.dao.gen.tables.OmpayResponses;
+import org.killbill.billing.plugin.ompay.dao.gen.tables.OmpayWebhookInbox;
+import org.killbill.billing.plugin.ompay.dao.gen.tables.records.OmpayNonceRequestsRecord;
+import org.killbill.billing.plugin.ompay.dao.gen.tables.records.OmpayNotificationOutboxRecord;
 import org.killbill.billing.plugin.ompay.dao.gen.tables.records.OmpayPaymentMethodsRecord;
 import org.killbill.billing.plugin.ompay.dao.gen.tables.records.OmpayResponsesRecord;
+import org.killbill.billing.plugin.ompay.dao.gen.tables.records.OmpayWebhookInboxRecord;
 import org.killbill.billing.payment.plugin.api.PaymentPluginStatus;
 
 import javax.annotation.Nullable;
 import javax.sql.DataSource;
 import java.io.IOException;
 import java.math.BigDecimal;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
 import java.sql.Connection; // Import for Connection
 import java.sql.SQLException;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
+import static org.killbill.billing.plugin.ompay.dao.gen.Tables.OMPAY_NODE_LEASES;
+import static org.killbill.billing.plugin.ompay.dao.gen.Tables.OMPAY_NONCE_REQUESTS;
+import static org.killbill.billing.plugin.ompay.dao.gen.Tables.OMPAY_NOTIFICATION_OUTBOX;
 import static org.killbill.billing.plugin.ompay.dao.gen.Tables.OMPAY_PAYMENT_METHODS;
 import static org.killbill.billing.plugin.ompay.dao.gen.Tables.OMPAY_RESPONSES;
+import static org.killbill.billing.plugin.ompay.dao.gen.Tables.OMPAY_RESPONSE_PAYLOADS;
+import static org.killbill.billing.plugin.ompay.dao.gen.Tables.OMPAY_WEBHOOK_INBOX;
+import static org.killbill.billing.plugin.ompay.dao.gen.Tables.OMPAY_WEBHOOK_NOTIFICATION_IDS;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import com.google.common.collect.ImmutableList; // For empty lists
@@ -63,13 +85,197 @@ public class OmPayDao extends PluginPaymentDao<
         > {
     private static final Logger logger = LoggerFactory.getLogger(OmPayDao.class);
 
+    // Sizes of the narrow result columns on ompay_responses (the full result is kept in ompay_response_payloads)
+    private static final int RESULT_CODE_MAX_LENGTH = 64;
+    private static final int RESULT_DESCRIPTION_MAX_LENGTH = 255;
+    // Size of ompay_notification_outbox.last_error and ompay_webhook_inbox.last_error
+    private static final int LAST_ERROR_MAX_LENGTH = 255;
+    // Tenant of the webhook notification ids received without tenant: a NULL would never conflict in the unique index
+    private static final UUID NO_TENANT_ID = new UUID(0L, 0L);
+
+    // Cold tables for the payments idle for archival.retentionDays, same layout as the hot ones (excluded from jOOQ generation)
+    private static final OmpayResponses OMPAY_RESPONSES_ARCHIVE = OMPAY_RESPONSES.rename("ompay_responses_archive");
+    private static final OmpayResponsePayloads OMPAY_RESPONSE_PAYLOADS_ARCHIVE = OMPAY_RESPONSE_PAYLOADS.rename("ompay_response_payloads_archive");
+
+    // OMPay states of transactions still waiting for the gateway (see OmPayPaymentPluginApi#mapOmpayStatusToKillBill)
+    private static final List<String> PENDING_STATES = ImmutableList.of("pending", "requires_action");
+
+    // Per-thread state of the plugin call in progress, see openCallScope()
+    private static final ThreadLocal<CallScope> CURRENT_CALL = new ThreadLocal<CallScope>();
+    // Per-thread connection sharing, see openUnitOfWork()
+    private static final ThreadLocal<UnitOfWork> CURRENT_UNIT_OF_WORK = new ThreadLocal<UnitOfWork>();
+
+    // Optional replica for the listing / search queries, null to use the primary for everything
+    @Nullable
+    private final DataSource readOnlyDataSource;
+
     public OmPayDao(final DataSource dataSource) throws SQLException {
+        this(dataSource, null);
+    }
+
+    public OmPayDao(final DataSource dataSource, @Nullable final DataSource readOnlyDataSource) throws SQLException {
         super(OMPAY_RESPONSES, OMPAY_PAYMENT_METHODS, dataSource);
+        this.readOnlyDataSource = readOnlyDataSource;
         // objectMapper is already initialized in PluginDao, but if you need specific config for it here:
         // this.objectMapper.setSerializationInclusion(JsonInclude.Include.NON_EMPTY);
         // However, PluginDao.objectMapper is protected, so you can use it directly.
     }
 
+    /**
+     * Demarcates a plugin call. Inside the scope, once the call has written anything (or was pinned explicitly),
+     * the listing reads (see readConnection()) are served by the primary too, so that the call always sees its own writes.
+     * Scopes can be nested, the outermost one owns the state.
+     */
+    public CallScope openCallScope() {
+        final CallScope current = CURRENT_CALL.get();
+        if (current != null) {
+            current.depth++;
+            return current;
+        }
+        final CallScope scope = new CallScope();
+        CURRENT_CALL.set(scope);
+        return scope;
+    }
+
+    public static final class CallScope implements AutoCloseable {
+
+        private int depth = 1;
+        private boolean pinnedToPrimary = false;
+
+        private CallScope() {
+        }
+
+        /**
+         * Serve all reads of the call by the primary, e.g. on the payment path where a just written row must be found.
+         */
+        public CallScope pinToPrimary() {
+            pinnedToPrimary = true;
+            return this;
+        }
+
+        @Override
+        public void close() {
+            depth--;
+            if (depth == 0) {
+                CURRENT_CALL.remove();
+            }
+        }
+    }
+
+    /**
+     * Shares one primary connection between all the DAO calls made by the current thread until the unit of work is
+     * closed. Units of work can be nested, inner ones join the outermost one.
+     * <p>
+     * The connection is only checked out on first use, and should be released before any remote call (e.g. to the
+     * OMPay API), so that it goes back to the pool meanwhile. The multi-statement writes keep their own transactions.
+     */
+    public UnitOfWork openUnitOfWork() {
+        final UnitOfWork current = CURRENT_UNIT_OF_WORK.get();
+        if (current != null) {
+            current.depth++;
+            return current;
+        }
+        final UnitOfWork unitOfWork = new UnitOfWork();
+        CURRENT_UNIT_OF_WORK.set(unitOfWork);
+        return unitOfWork;
+    }
+
+    /**
+     * Give the connection of the unit of work in progress, if any, back to the pool before a remote call. The DAO
+     * calls made afterwards check out a new one, shared the same way.
+     */
+    public void releaseUnitOfWork() {
+        final UnitOfWork current = CURRENT_UNIT_OF_WORK.get();
+        if (current != null) {
+            current.release();
+        }
+    }
+
+    public final class UnitOfWork implements AutoCloseable {
+
+        private int depth = 1;
+        private Connection connection;
+        private Connection sharedConnection;
+
+        private UnitOfWork() {
+        }
+
+        private Connection connection() throws SQLException {
+            if (connection == null) {
+                connection = dataSource.getConnection();
+                sharedConnection = share(connection);
+            }
+            return sharedConnection;
+        }
+
+        // The DAO methods close their connection: the unit of work owns it
+        private Connection share(final Connection target) {
+            return (Connection) Proxy.newProxyInstance(OmPayDao.class.getClassLoader(), new Class<?>[]{Connection.class}, (proxy, method, args) -> {
+                if ("close".equals(method.getName())) {
+                    return null;
+                }
+                try {
+                    return method.invoke(target, args);
+                } catch (final InvocationTargetException e) {
+                    throw e.getCause();
+                }
+            });
+        }
+
+        /**
+         * Give the connection back to the pool, the next DAO call checks out a new one.
+         */
+        public void release() {
+            if (connection == null) {
+                return;
+            }
+            final Connection toClose = connection;
+            connection = null;
+            sharedConnection = null;
+            try {
+                toClose.close();
+            } catch (final SQLException e) {
+                logger.warn("Failed to release the unit of work connection: {}", e.getMessage());
+            }
+        }
+
+        @Override
+        public void close() {
+            depth--;
+            if (depth > 0) {
+                return;
+            }
+            CURRENT_UNIT_OF_WORK.remove();
+            release();
+        }
+    }
+
+    // Connection to the primary, the one of the unit of work in progress if any
+    private Connection primaryConnection() throws SQLException {
+        final UnitOfWork unitOfWork = CURRENT_UNIT_OF_WORK.get();
+        if (unitOfWork != null) {
+            return unitOfWork.connection();
+        }
+        return dataSource.getConnection();
+    }
+
+    private Connection writeConnection() throws SQLException {
+        final CallScope scope = CURRENT_CALL.get();
+        if (scope != null) {
+            scope.pinToPrimary();
+        }
+        return primaryConnection();
+    }
+
+    // Only for queries outside of any transaction: replication lag is acceptable there, unless the call wrote already
+    private Connection readConnection() throws SQLException {
+        final CallScope scope = CURRENT_CALL.get();
+        if (readOnlyDataSource == null || CURRENT_UNIT_OF_WORK.get() != null || (scope != null && scope.pinnedToPrimary)) {
+            return primaryConnection();
+        }
+        return readOnlyDataSource.getConnection();
+    }
+
     public void addResponse(final UUID kbAccountId,
                             final UUID kbPaymentId,
                             final UUID kbTransactionId,
@@ -89,46 +295,64 @@ public class OmPayDao extends PluginPaymentDao<
 
         final String additionalData = objectMapper.writeValueAsString(additionalDataMap);
         final LocalDateTime ldtUtcNow = toLocalDateTime(utcNow); // Use utility from PluginDao
+        final Map<String, Object> result = extractResult(additionalDataMap);
 
-        execute(dataSource.getConnection(), (Connection conn) -> {
-            // Override settings to force lowercase table names
-            final Settings lowercaseSettings = new Settings()
-                    .withRenderQuotedNames(RenderQuotedNames.NEVER);
-            final DSLContext dslContext = DSL.using(conn, dialect, lowercaseSettings);
-            dslContext.insertInto(OMPAY_RESPONSES,
-                            OMPAY_RESPONSES.KB_ACCOUNT_ID,
-                            OMPAY_RESPONSES.KB_PAYMENT_ID,
-                            OMPAY_RESPONSES.KB_PAYMENT_TRANSACTION_ID,
-                            OMPAY_RESPONSES.TRANSACTION_TYPE,
-                            OMPAY_RESPONSES.AMOUNT,
-                            OMPAY_RESPONSES.CURRENCY,
-                            OMPAY_RESPONSES.OMPAY_TRANSACTION_ID,
-                            OMPAY_RESPONSES.OMPAY_REFERENCE_ID,
-                            OMPAY_RESPONSES.OMPAY_PAYER_ID,
-                            OMPAY_RESPONSES.OMPAY_CARD_ID,
-                            OMPAY_RESPONSES.OMPAY_STATE,
-                            OMPAY_RESPONSES.REDIRECT_URL,
-                            OMPAY_RESPONSES.AUTHENTICATE_URL,
-                            OMPAY_RESPONSES.ADDITIONAL_DATA,
-                            OMPAY_RESPONSES.CREATED_DATE,
-                            OMPAY_RESPONSES.KB_TENANT_ID)
-                    .values(kbAccountId.toString(),
-                            kbPaymentId.toString(),
-                            kbTransactionId.toString(),
-                            transactionType.toString(),
-                            amount,
-                            currency != null ? currency.toString() : null,
-                            ompayTransactionId,
-                            ompayReferenceId,
-                            ompayPayerId,
-                            ompayCardId,
-                            ompayState,
-                            redirectUrl,
-                            authenticateUrl,
-                            additionalData,
-                            ldtUtcNow,
-                            kbTenantId.toString())
-                    .execute();
+        execute(writeConnection(), (Connection conn) -> {
+            // Override settings to force lowercase table names
+            final Settings lowercaseSettings = new Settings()
+                    .withRenderQuotedNames(RenderQuotedNames.NEVER);
+            final DSLContext dslContext = DSL.using(conn, dialect, lowercaseSettings);
+            // Response row and payload row are written together
+            dslContext.transaction(configuration -> {
+                final DSLContext txContext = DSL.using(configuration);
+                final Integer recordId = txContext.insertInto(OMPAY_RESPONSES,
+                                OMPAY_RESPONSES.KB_ACCOUNT_ID,
+                                OMPAY_RESPONSES.KB_PAYMENT_ID,
+                                OMPAY_RESPONSES.KB_PAYMENT_TRANSACTION_ID,
+                                OMPAY_RESPONSES.TRANSACTION_TYPE,
+                                OMPAY_RESPONSES.AMOUNT,
+                                OMPAY_RESPONSES.CURRENCY,
+                                OMPAY_RESPONSES.OMPAY_TRANSACTION_ID,
+                                OMPAY_RESPONSES.OMPAY_REFERENCE_ID,
+                                OMPAY_RESPONSES.OMPAY_PAYER_ID,
+                                OMPAY_RESPONSES.OMPAY_CARD_ID,
+                                OMPAY_RESPONSES.OMPAY_STATE,
+                                OMPAY_RESPONSES.OMPAY_RESULT_CODE,
+                                OMPAY_RESPONSES.OMPAY_RESULT_DESCRIPTION,
+                                OMPAY_RESPONSES.CREATED_DATE,
+                                OMPAY_RESPONSES.KB_TENANT_ID)
+                        .values(kbAccountId,
+                                kbPaymentId,
+                                kbTransactionId,
+                                transactionType.toString(),
+                                amount,
+                                currency != null ? currency.toString() : null,
+                                ompayTransactionId,
+                                ompayReferenceId,
+                                ompayPayerId,
+                                ompayCardId,
+                                ompayState,
+                                truncate(asString(result.get("code")), RESULT_CODE_MAX_LENGTH),
+                                truncate(asString(result.get("description")), RESULT_DESCRIPTION_MAX_LENGTH),
+                                ldtUtcNow,
+                                kbTenantId)
+                        .returning(OMPAY_RESPONSES.RECORD_ID)
+                        .fetchOne()
+                        .getRecordId();
+
+                txContext.insertInto(OMPAY_RESPONSE_PAYLOADS,
+                                OMPAY_RESPONSE_PAYLOADS.RESPONSE_RECORD_ID,
+                                OMPAY_RESPONSE_PAYLOADS.REDIRECT_URL,
+                                OMPAY_RESPONSE_PAYLOADS.AUTHENTICATE_URL,
+                                OMPAY_RESPONSE_PAYLOADS.ADDITIONAL_DATA,
+                                OMPAY_RESPONSE_PAYLOADS.KB_TENANT_ID)
+                        .values(recordId,
+                                redirectUrl,
+                                authenticateUrl,
+                                additionalData,
+                                kbTenantId)
+                        .execute();
+            });
             return null;
         });
     }
@@ -143,7 +367,7 @@ public class OmPayDao extends PluginPaymentDao<
         final String additionalData = objectMapper.writeValueAsString(additionalDataMap);
         final LocalDateTime ldtNow = toLocalDateTime(utcNow);
 
-        execute(dataSource.getConnection(), (Connection conn) -> {
+        execute(writeConnection(), (Connection conn) -> {
             // Override settings to force lowercase table names
             final Settings lowercaseSettings = new Settings()
                     .withRenderQuotedNames(RenderQuotedNames.NEVER);
@@ -159,8 +383,8 @@ public class OmPayDao extends PluginPaymentDao<
                             OMPAY_PAYMENT_METHODS.CREATED_DATE,
                             OMPAY_PAYMENT_METHODS.UPDATED_DATE,
                             OMPAY_PAYMENT_METHODS.KB_TENANT_ID)
-                    .values(kbAccountId.toString(),
-                            kbPaymentMethodId.toString(),
+                    .values(kbAccountId,
+                            kbPaymentMethodId,
                             ompayCreditCardId,
                             ompayPayerId, // Store the new value
                             (short) (isDefault ? 1 : 0),
@@ -168,96 +392,209 @@ public class OmPayDao extends PluginPaymentDao<
                             additionalData,
                             ldtNow,
                             ldtNow,
-                            kbTenantId.toString())
+                            kbTenantId)
                     .execute();
             return null;
         });
     }
 
     public List<PaymentTransactionInfoPlugin> getPaymentInfosForKbPaymentId(final UUID kbPaymentId, final UUID kbTenantId) throws SQLException {
-        return execute(dataSource.getConnection(), (Connection conn) -> {
+        return getPaymentInfosForKbPaymentId(kbPaymentId, false, kbTenantId);
+    }
+
+    /**
+     * Same as {@link #getPaymentInfosForKbPaymentId(UUID, UUID)}, but optionally joins the raw gateway payloads
+     * so that they are exposed as plugin properties. Only the narrow ompay_responses rows are read otherwise.
+     */
+    public List<PaymentTransactionInfoPlugin> getPaymentInfosForKbPaymentId(final UUID kbPaymentId, final boolean withPayloads, final UUID kbTenantId) throws SQLException {
+        return execute(readConnection(), (Connection conn) -> {
             // Override settings to force lowercase table names
             final Settings lowercaseSettings = new Settings()
                     .withRenderQuotedNames(RenderQuotedNames.NEVER);
             final DSLContext dslContext = DSL.using(conn, dialect, lowercaseSettings);
-            return dslContext.selectFrom(OMPAY_RESPONSES)
-                    .where(OMPAY_RESPONSES.KB_PAYMENT_ID.eq(kbPaymentId.toString()))
-                    .and(OMPAY_RESPONSES.KB_TENANT_ID.eq(kbTenantId.toString()))
-                    .orderBy(OMPAY_RESPONSES.RECORD_ID.asc())
-                    .fetch(this::toPaymentTransactionInfoPlugin); // Assuming toPaymentTransactionInfoPlugin is correctly defined
+            // Archived payments are moved as a whole, so their archived rows always precede any row written since
+            final List<PaymentTransactionInfoPlugin> infos = new ArrayList<>(fetchPaymentInfos(dslContext, OMPAY_RESPONSES_ARCHIVE, OMPAY_RESPONSE_PAYLOADS_ARCHIVE, kbPaymentId, withPayloads, kbTenantId));
+            infos.addAll(fetchPaymentInfos(dslContext, OMPAY_RESPONSES, OMPAY_RESPONSE_PAYLOADS, kbPaymentId, withPayloads, kbTenantId));
+            return infos;
         });
     }
 
+    private List<PaymentTransactionInfoPlugin> fetchPaymentInfos(final DSLContext dslContext,
+                                                                 final OmpayResponses responses,
+                                                                 final OmpayResponsePayloads payloads,
+                                                                 final UUID kbPaymentId,
+                                                                 final boolean withPayloads,
+                                                                 final UUID kbTenantId) {
+        if (!withPayloads) {
+            return dslContext.selectFrom(responses)
+                    .where(responses.KB_PAYMENT_ID.eq(kbPaymentId))
+                    .and(responses.KB_TENANT_ID.eq(kbTenantId))
+                    .orderBy(responses.RECORD_ID.asc())
+                    .fetch(this::toPaymentTransactionInfoPlugin);
+        }
+        return dslContext.select(responses.asterisk(), payloads.ADDITIONAL_DATA)
+                .from(responses)
+                .leftJoin(payloads).on(payloads.RESPONSE_RECORD_ID.eq(responses.RECORD_ID))
+                .where(responses.KB_PAYMENT_ID.eq(kbPaymentId))
+                .and(responses.KB_TENANT_ID.eq(kbTenantId))
+                .orderBy(responses.RECORD_ID.asc())
+                .fetch(r -> toPaymentTransactionInfoPlugin(r.into(responses), r.get(payloads.ADDITIONAL_DATA)));
+    }
+
     public List<OmpayResponsesRecord> getResponsesByKbPaymentIdAndType(final UUID kbPaymentId,
                                                                        final TransactionType transactionType,
                                                                        final String ompaySuccessfulState,
                                                                        final UUID kbTenantId) throws SQLException {
-        return execute(dataSource.getConnection(), (Connection conn) -> {
+        return execute(primaryConnection(), (Connection conn) -> {
             // Override settings to force lowercase table names
             final Settings lowercaseSettings = new Settings()
                     .withRenderQuotedNames(RenderQuotedNames.NEVER);
             final DSLContext dslContext = DSL.using(conn, dialect, lowercaseSettings);
-            List<OmpayResponsesRecord> records = dslContext.selectFrom(OMPAY_RESPONSES)
-                    .where(OMPAY_RESPONSES.KB_PAYMENT_ID.eq(kbPaymentId.toString()))
-                    .and(OMPAY_RESPONSES.TRANSACTION_TYPE.eq(transactionType.toString()))
-                    .and(OMPAY_RESPONSES.KB_TENANT_ID.eq(kbTenantId.toString()))
-                    .orderBy(OMPAY_RESPONSES.RECORD_ID.desc())
-                    .fetch();
-
-            if (ompaySuccessfulState != null && !ompaySuccessfulState.isEmpty()) {
-                return records.stream().filter(r -> {
-                    try {
-                        Map<String, Object> data = objectMapper.readValue(r.getAdditionalData(), new TypeReference<Map<String,Object>>() {});
-                        return ompaySuccessfulState.equalsIgnoreCase((String)data.get("state"));
-                    } catch (JsonProcessingException e) {
-                        logger.warn("Failed to parse additional_data for filtering state on record_id: {}", r.getRecordId(), e);
-                        return false;
-                    }
-                }).collect(Collectors.toList());
-            }
+            // Latest first: the rows written since the payment was archived, then the archived ones
+            final List<OmpayResponsesRecord> records = new ArrayList<>(fetchResponses(dslContext, OMPAY_RESPONSES, kbPaymentId, transactionType, ompaySuccessfulState, kbTenantId));
+            records.addAll(fetchResponses(dslContext, OMPAY_RESPONSES_ARCHIVE, kbPaymentId, transactionType, ompaySuccessfulState, kbTenantId));
             return records;
         });
     }
 
-    public PluginPaymentTransactionInfoPlugin toPaymentTransactionInfoPlugin(final OmpayResponsesRecord record) {
-        Map<String, Object> additionalDataFromDb;
-        PaymentPluginStatus pluginStatus = PaymentPluginStatus.UNDEFINED;
-        String gatewayError = null;
-        String gatewayErrorCode = null;
-        String firstPaymentRefId = record.getOmpayTransactionId();
-        String secondPaymentRefId = record.getOmpayReferenceId();
+    private List<OmpayResponsesRecord> fetchResponses(final DSLContext dslContext,
+                                                      final OmpayResponses responses,
+                                                      final UUID kbPaymentId,
+                                                      final TransactionType transactionType,
+                                                      @Nullable final String ompayState,
+                                                      final UUID kbTenantId) {
+        Condition condition = responses.KB_PAYMENT_ID.eq(kbPaymentId)
+                .and(responses.TRANSACTION_TYPE.eq(transactionType.toString()))
+                .and(responses.KB_TENANT_ID.eq(kbTenantId));
+        if (ompayState != null && !ompayState.isEmpty()) {
+            condition = condition.and(responses.OMPAY_STATE.equalIgnoreCase(ompayState));
+        }
+        return dslContext.selectFrom(responses)
+                .where(condition)
+                .orderBy(responses.RECORD_ID.desc())
+                .fetch();
+    }
 
-        try {
-            // Use protected objectMapper from PluginDao
-            additionalDataFromDb = objectMapper.readValue(record.getAdditionalData(), new TypeReference<Map<String, Object>>() {});
-            String ompayState = (String) additionalDataFromDb.get("state");
-            pluginStatus = mapOmpayStatusToKillBill(ompayState);
-
-            Map<String, Object> result = (Map<String, Object>) additionalDataFromDb.get("result");
-            if (result != null) {
-                gatewayError = (String) result.get("description");
-                gatewayErrorCode = (String) result.get("code");
+    /**
+     * A transaction type together with the OMPay state it must have reached.
+     */
+    public static final class TransactionMatch {
+
+        private final TransactionType transactionType;
+        private final String ompayState;
+
+        private TransactionMatch(final TransactionType transactionType, final String ompayState) {
+            this.transactionType = transactionType;
+            this.ompayState = ompayState;
+        }
+
+        public static TransactionMatch of(final TransactionType transactionType, final String ompayState) {
+            return new TransactionMatch(transactionType, ompayState);
+        }
+
+        private Condition condition(final OmpayResponses responses) {
+            return responses.TRANSACTION_TYPE.eq(transactionType.toString())
+                    .and(DSL.lower(responses.OMPAY_STATE).eq(ompayState.toLowerCase()));
+        }
+    }
+
+    /**
+     * OMPay id of the transaction a follow-up operation (capture, void, refund) applies to: the latest response
+     * matching the first candidate in precedence order that has any. Only the id is fetched, in a single query.
+     *
+     * @param kbPaymentId The payment
+     * @param candidates Matching transactions, by decreasing precedence
+     * @param kbTenantId The tenant ID
+     * @return The OMPay transaction id, or null if no response matches
+     * @throws SQLException If a database error occurs
+     */
+    @Nullable
+    public String findOriginalOmPayTransactionId(final UUID kbPaymentId, final List<TransactionMatch> candidates, final UUID kbTenantId) throws SQLException {
+        return execute(primaryConnection(), (Connection conn) -> {
+            // Override settings to force lowercase table names
+            final Settings lowercaseSettings = new Settings()
+                    .withRenderQuotedNames(RenderQuotedNames.NEVER);
+            final DSLContext dslContext = DSL.using(conn, dialect, lowercaseSettings);
+            // Best match of each table: a higher precedence candidate wins, then the latest row (hot rows are newer)
+            final Record2<String, Integer> hot = fetchOriginalOmPayTransactionId(dslContext, OMPAY_RESPONSES, kbPaymentId, candidates, kbTenantId);
+            final Record2<String, Integer> archived = fetchOriginalOmPayTransactionId(dslContext, OMPAY_RESPONSES_ARCHIVE, kbPaymentId, candidates, kbTenantId);
+            if (hot == null) {
+                return archived == null ? null : archived.value1();
             }
-        } catch (IOException e) {
-            logger.warn("Failed to deserialize additionalData for record_id: {}", record.getRecordId(), e);
-            additionalDataFromDb = Map.of("error", "Failed to parse additionalData: " + e.getMessage(), "originalAdditionalData", record.getAdditionalData());
+            if (archived != null && archived.value2() < hot.value2()) {
+                return archived.value1();
+            }
+            return hot.value1();
+        });
+    }
+
+    // OMPay transaction id and candidate rank of the best match in the given table
+    private Record2<String, Integer> fetchOriginalOmPayTransactionId(final DSLContext dslContext,
+                                                   final OmpayResponses responses,
+                                                   final UUID kbPaymentId,
+                                                   final List<TransactionMatch> candidates,
+                                                   final UUID kbTenantId) {
+        Condition anyCandidate = DSL.falseCondition();
+        CaseConditionStep<Integer> rank = null;
+        for (int i = 0; i < candidates.size(); i++) {
+            final Condition candidate = candidates.get(i).condition(responses);
+            anyCandidate = anyCandidate.or(candidate);
+            rank = rank == null ? DSL.when(candidate, DSL.inline(i)) : rank.when(candidate, DSL.inline(i));
         }
+        if (rank == null) {
+            return null;
+        }
+        final Field<Integer> rankField = rank.otherwise(DSL.inline(candidates.size()));
+        return dslContext.select(responses.OMPAY_TRANSACTION_ID, rankField)
+                .from(responses)
+                .where(responses.KB_PAYMENT_ID.eq(kbPaymentId))
+                .and(responses.KB_TENANT_ID.eq(kbTenantId))
+                .and(responses.OMPAY_TRANSACTION_ID.isNotNull())
+                .and(anyCandidate)
+                .orderBy(rankField.asc(), responses.RECORD_ID.desc())
+                .limit(1)
+                .fetchOne();
+    }
+
+    public PluginPaymentTransactionInfoPlugin toPaymentTransactionInfoPlugin(final OmpayResponsesRecord record) {
+        return toPaymentTransactionInfoPlugin(record, null);
+    }
+
+    /**
+     * Build the transaction info from the narrow ompay_responses row. Status and gateway result come from the
+     * dedicated columns; the raw payload (additional_data), when provided, is only used to expose extra properties.
+     */
+    public PluginPaymentTransactionInfoPlugin toPaymentTransactionInfoPlugin(final OmpayResponsesRecord record, @Nullable final String additionalData) {
+        final PaymentPluginStatus pluginStatus = mapOmpayStatusToKillBill(record.getOmpayState());
+        final String gatewayError = record.getOmpayResultDescription();
+        final String gatewayErrorCode = record.getOmpayResultCode();
+        final String firstPaymentRefId = record.getOmpayTransactionId();
+        final String secondPaymentRefId = record.getOmpayReferenceId();
 
         DateTime createdDate = new DateTime(record.getCreatedDate().atZone(java.time.ZoneId.systemDefault()).toInstant().toEpochMilli());
 
         List<PluginProperty> props = new ArrayList<>();
-        if (additionalDataFromDb != null) {
-            additionalDataFromDb.forEach((key, value) -> {
-                if (value instanceof String || value instanceof Number || value instanceof Boolean) {
-                    props.add(new PluginProperty(key, value, false));
-                }
-            });
+        if (!Strings.isNullOrEmpty(additionalData)) {
+            try {
+                // Use protected objectMapper from PluginDao
+                final Map<String, Object> additionalDataFromDb = objectMapper.readValue(additionalData, new TypeReference<Map<String, Object>>() {});
+                additionalDataFromDb.forEach((key, value) -> {
+                    if (value instanceof String || value instanceof Number || value instanceof Boolean) {
+                        props.add(new PluginProperty(key, value, false));
+                    }
+                });
+            } catch (IOException e) {
+                logger.warn("Failed to deserialize additionalData for record_id: {}", record.getRecordId(), e);
+                props.add(new PluginProperty("error", "Failed to parse additionalData: " + e.getMessage(), false));
+            }
+        } else if (record.getOmpayState() != null) {
+            props.add(new PluginProperty("state", record.getOmpayState(), false));
         }
 
 
         return new PluginPaymentTransactionInfoPlugin.Builder<>()
-                .withKbPaymentId(UUID.fromString(record.getKbPaymentId()))
-                .withKbTransactionPaymentId(UUID.fromString(record.getKbPaymentTransactionId()))
+                .withKbPaymentId(record.getKbPaymentId())
+                .withKbTransactionPaymentId(record.getKbPaymentTransactionId())
                 .withTransactionType(TransactionType.valueOf(record.getTransactionType()))
                 .withAmount(record.getAmount())
                 .withCurrency(record.getCurrency() != null ? Currency.valueOf(record.getCurrency()) : null)
@@ -294,37 +631,130 @@ public class OmPayDao extends PluginPaymentDao<
     }
 
     public OmpayResponsesRecord getResponseByOmPayTransactionId(final String ompayTransactionId, final UUID kbTenantId) throws SQLException {
-        return execute(dataSource.getConnection(), (Connection conn) -> {
+        return execute(primaryConnection(), (Connection conn) -> {
             // Override settings to force lowercase table names
             final Settings lowercaseSettings = new Settings()
                     .withRenderQuotedNames(RenderQuotedNames.NEVER);
             final DSLContext dslContext = DSL.using(conn, dialect, lowercaseSettings);
             return dslContext.selectFrom(OMPAY_RESPONSES)
                     .where(OMPAY_RESPONSES.OMPAY_TRANSACTION_ID.eq(ompayTransactionId))
-                    .and(OMPAY_RESPONSES.KB_TENANT_ID.eq(kbTenantId.toString()))
+                    .and(OMPAY_RESPONSES.KB_TENANT_ID.eq(kbTenantId))
                     .orderBy(OMPAY_RESPONSES.RECORD_ID.desc())
                     .limit(1)
                     .fetchOne();
         });
     }
 
+    /**
+     * Latest response of each of these Kill Bill transactions, across all tenants.
+     *
+     * @return The responses, at most one per transaction
+     * @throws SQLException If a database error occurs
+     */
+    public List<OmpayResponsesRecord> getLatestResponsesByKbTransactionIds(final Collection<UUID> kbPaymentTransactionIds) throws SQLException {
+        if (kbPaymentTransactionIds.isEmpty()) {
+            return Collections.emptyList();
+        }
+        return execute(primaryConnection(), (Connection conn) -> {
+            // Override settings to force lowercase table names
+            final Settings lowercaseSettings = new Settings()
+                    .withRenderQuotedNames(RenderQuotedNames.NEVER);
+            final DSLContext dslContext = DSL.using(conn, dialect, lowercaseSettings);
+            final List<OmpayResponsesRecord> responses = dslContext.selectFrom(OMPAY_RESPONSES)
+                    .where(OMPAY_RESPONSES.KB_PAYMENT_TRANSACTION_ID.in(kbPaymentTransactionIds))
+                    .orderBy(OMPAY_RESPONSES.RECORD_ID.desc())
+                    .fetch();
+            final Map<UUID, OmpayResponsesRecord> latest = new LinkedHashMap<>();
+            for (final OmpayResponsesRecord response : responses) {
+                latest.putIfAbsent(response.getKbPaymentTransactionId(), response);
+            }
+            return new ArrayList<>(latest.values());
+        });
+    }
+
     public OmpayPaymentMethodsRecord getPaymentMethodByKbPaymentMethodId(final UUID kbPaymentMethodId, final UUID kbTenantId) throws SQLException {
-        return execute(dataSource.getConnection(), (Connection conn) -> {
+        return execute(primaryConnection(), (Connection conn) -> {
             // Override settings to force lowercase table names
             final Settings lowercaseSettings = new Settings()
                     .withRenderQuotedNames(RenderQuotedNames.NEVER);
             final DSLContext dslContext = DSL.using(conn, dialect, lowercaseSettings);
             return dslContext.selectFrom(OMPAY_PAYMENT_METHODS)
-                    .where(OMPAY_PAYMENT_METHODS.KB_PAYMENT_METHOD_ID.eq(kbPaymentMethodId.toString()))
-                    .and(OMPAY_PAYMENT_METHODS.KB_TENANT_ID.eq(kbTenantId.toString()))
+                    .where(OMPAY_PAYMENT_METHODS.KB_PAYMENT_METHOD_ID.eq(kbPaymentMethodId))
+                    .and(OMPAY_PAYMENT_METHODS.KB_TENANT_ID.eq(kbTenantId))
                     .and(OMPAY_PAYMENT_METHODS.IS_DELETED.eq((short) 0))
                     .fetchOne();
         });
     }
 
+    /**
+     * Active payment methods of an account. Overrides the generic lookup, which compares the ids as strings
+     * and would not match uuid / BINARY(16) columns.
+     */
+    @Override
+    public List<OmpayPaymentMethodsRecord> getPaymentMethods(final UUID kbAccountId, final UUID kbTenantId) throws SQLException {
+        return execute(readConnection(), (Connection conn) -> {
+            // Override settings to force lowercase table names
+            final Settings lowercaseSettings = new Settings()
+                    .withRenderQuotedNames(RenderQuotedNames.NEVER);
+            final DSLContext dslContext = DSL.using(conn, dialect, lowercaseSettings);
+            return dslContext.selectFrom(OMPAY_PAYMENT_METHODS)
+                    .where(OMPAY_PAYMENT_METHODS.KB_ACCOUNT_ID.eq(kbAccountId))
+                    .and(OMPAY_PAYMENT_METHODS.KB_TENANT_ID.eq(kbTenantId))
+                    .and(OMPAY_PAYMENT_METHODS.IS_DELETED.eq((short) 0))
+                    .orderBy(OMPAY_PAYMENT_METHODS.RECORD_ID.asc())
+                    .fetch();
+        });
+    }
+
+    /**
+     * Responses of a payment. Overrides the generic lookup, which compares the ids as strings.
+     */
+    @Override
+    public List<OmpayResponsesRecord> getResponses(final UUID kbPaymentId, final UUID kbTenantId) throws SQLException {
+        return execute(primaryConnection(), (Connection conn) -> {
+            // Override settings to force lowercase table names
+            final Settings lowercaseSettings = new Settings()
+                    .withRenderQuotedNames(RenderQuotedNames.NEVER);
+            final DSLContext dslContext = DSL.using(conn, dialect, lowercaseSettings);
+            return dslContext.selectFrom(OMPAY_RESPONSES)
+                    .where(OMPAY_RESPONSES.KB_PAYMENT_ID.eq(kbPaymentId))
+                    .and(OMPAY_RESPONSES.KB_TENANT_ID.eq(kbTenantId))
+                    .orderBy(OMPAY_RESPONSES.RECORD_ID.asc())
+                    .fetch();
+        });
+    }
+
+    /**
+     * Active payment method. Overrides the generic lookup, which compares the ids as strings.
+     */
+    @Override
+    public OmpayPaymentMethodsRecord getPaymentMethod(final UUID kbPaymentMethodId, final UUID kbTenantId) throws SQLException {
+        return getPaymentMethodByKbPaymentMethodId(kbPaymentMethodId, kbTenantId);
+    }
+
+    /**
+     * Soft delete of a payment method. Overrides the generic update, which compares the ids as strings.
+     */
+    @Override
+    public void deletePaymentMethod(final UUID kbPaymentMethodId, final DateTime utcNow, final UUID kbTenantId) throws SQLException {
+        final LocalDateTime ldtUtcNow = toLocalDateTime(utcNow);
+        execute(writeConnection(), (Connection conn) -> {
+            // Override settings to force lowercase table names
+            final Settings lowercaseSettings = new Settings()
+                    .withRenderQuotedNames(RenderQuotedNames.NEVER);
+            final DSLContext dslContext = DSL.using(conn, dialect, lowercaseSettings);
+            return dslContext.update(OMPAY_PAYMENT_METHODS)
+                    .set(OMPAY_PAYMENT_METHODS.IS_DELETED, (short) 1)
+                    .set(OMPAY_PAYMENT_METHODS.UPDATED_DATE, ldtUtcNow)
+                    .where(OMPAY_PAYMENT_METHODS.KB_PAYMENT_METHOD_ID.eq(kbPaymentMethodId))
+                    .and(OMPAY_PAYMENT_METHODS.KB_TENANT_ID.eq(kbTenantId))
+                    .execute();
+        });
+    }
+
     public void markPaymentMethodAsDeleted(final UUID kbPaymentMethodId, final UUID kbTenantId) throws SQLException {
         final LocalDateTime ldtUtcNow = toLocalDateTime(new DateTime(org.joda.time.DateTimeZone.UTC));
-        execute(dataSource.getConnection(), (Connection conn) -> {
+        execute(writeConnection(), (Connection conn) -> {
             // Override settings to force lowercase table names
             final Settings lowercaseSettings = new Settings()
                     .withRenderQuotedNames(RenderQuotedNames.NEVER);
@@ -332,15 +762,15 @@ public class OmPayDao extends PluginPaymentDao<
             return dslContext.update(OMPAY_PAYMENT_METHODS)
                     .set(OMPAY_PAYMENT_METHODS.IS_DELETED, (short) 1)
                     .set(OMPAY_PAYMENT_METHODS.UPDATED_DATE, ldtUtcNow)
-                    .where(OMPAY_PAYMENT_METHODS.KB_PAYMENT_METHOD_ID.eq(kbPaymentMethodId.toString()))
-                    .and(OMPAY_PAYMENT_METHODS.KB_TENANT_ID.eq(kbTenantId.toString()))
+                    .where(OMPAY_PAYMENT_METHODS.KB_PAYMENT_METHOD_ID.eq(kbPaymentMethodId))
+                    .and(OMPAY_PAYMENT_METHODS.KB_TENANT_ID.eq(kbTenantId))
                     .execute();
         });
     }
 
     public void clearDefault(final UUID kbAccountId, final UUID kbTenantId) throws SQLException {
         final LocalDateTime ldtUtcNow = toLocalDateTime(new DateTime(org.joda.time.DateTimeZone.UTC));
-        execute(dataSource.getConnection(), (Connection conn) -> {
+        execute(writeConnection(), (Connection conn) -> {
             // Override settings to force lowercase table names
             final Settings lowercaseSettings = new Settings()
                     .withRenderQuotedNames(RenderQuotedNames.NEVER);
@@ -348,8 +778,8 @@ public class OmPayDao extends PluginPaymentDao<
             return dslContext.update(OMPAY_PAYMENT_METHODS)
                     .set(OMPAY_PAYMENT_METHODS.IS_DEFAULT, (short) 0)
                     .set(OMPAY_PAYMENT_METHODS.UPDATED_DATE, ldtUtcNow)
-                    .where(OMPAY_PAYMENT_METHODS.KB_ACCOUNT_ID.eq(kbAccountId.toString()))
-                    .and(OMPAY_PAYMENT_METHODS.KB_TENANT_ID.eq(kbTenantId.toString()))
+                    .where(OMPAY_PAYMENT_METHODS.KB_ACCOUNT_ID.eq(kbAccountId))
+                    .and(OMPAY_PAYMENT_METHODS.KB_TENANT_ID.eq(kbTenantId))
                     .and(OMPAY_PAYMENT_METHODS.IS_DEFAULT.eq((short)1))
                     .execute();
         });
@@ -357,7 +787,7 @@ public class OmPayDao extends PluginPaymentDao<
 
     public void setDefaultPaymentMethod(final UUID kbPaymentMethodId, final UUID kbTenantId) throws SQLException {
         final LocalDateTime ldtUtcNow = toLocalDateTime(new DateTime(org.joda.time.DateTimeZone.UTC));
-        execute(dataSource.getConnection(), (Connection conn) -> {
+        execute(writeConnection(), (Connection conn) -> {
             // Override settings to force lowercase table names
             final Settings lowercaseSettings = new Settings()
                     .withRenderQuotedNames(RenderQuotedNames.NEVER);
@@ -365,51 +795,182 @@ public class OmPayDao extends PluginPaymentDao<
             return dslContext.update(OMPAY_PAYMENT_METHODS)
                     .set(OMPAY_PAYMENT_METHODS.IS_DEFAULT, (short) 1)
                     .set(OMPAY_PAYMENT_METHODS.UPDATED_DATE, ldtUtcNow)
-                    .where(OMPAY_PAYMENT_METHODS.KB_PAYMENT_METHOD_ID.eq(kbPaymentMethodId.toString()))
-                    .and(OMPAY_PAYMENT_METHODS.KB_TENANT_ID.eq(kbTenantId.toString()))
+                    .where(OMPAY_PAYMENT_METHODS.KB_PAYMENT_METHOD_ID.eq(kbPaymentMethodId))
+                    .and(OMPAY_PAYMENT_METHODS.KB_TENANT_ID.eq(kbTenantId))
                     .execute();
         });
     }
 
-    public void updateResponseAdditionalData(Integer recordId, String state, String additionalData) throws SQLException {
-        execute(dataSource.getConnection(), (Connection conn) -> {
+    public void updateResponseAdditionalData(final Integer recordId, final String state, final Map<String, Object> additionalDataMap) throws SQLException {
+        updateResponse(recordId, state, additionalDataMap, false, null);
+    }
+
+    /**
+     * Update the state of a response, merge the given fields into its stored payload and, in the same transaction,
+     * queue the Kill Bill notification of the new state. The merge is shallow (the top-level keys of the patch replace
+     * the stored ones) and happens in the database (jsonb || on PostgreSQL, JSON_SET on MySQL): the stored payload is
+     * neither read back nor re-serialized.
+     * Nothing is queued if the response doesn't exist.
+     */
+    public void mergeResponseAdditionalData(final Integer recordId,
+                                            final String state,
+                                            final Map<String, Object> additionalDataPatch,
+                                            @Nullable final StateChangeNotification notification) throws SQLException {
+        updateResponse(recordId, state, additionalDataPatch, true, notification);
+    }
+
+    private void updateResponse(final Integer recordId,
+                                final String state,
+                                final Map<String, Object> additionalDataMap,
+                                final boolean merge,
+                                @Nullable final StateChangeNotification notification) throws SQLException {
+        final String additionalData;
+        try {
+            additionalData = objectMapper.writeValueAsString(additionalDataMap);
+        } catch (JsonProcessingException e) {
+            throw new SQLException("Failed to serialize additional data for record_id " + recordId, e);
+        }
+        // A patch without result leaves the stored result columns alone
+        final Map<String, Object> result = merge && !additionalDataMap.containsKey("result") ? null : extractResult(additionalDataMap);
+
+        execute(writeConnection(), (Connection conn) -> {
             // Override settings to force lowercase table names
             final Settings lowercaseSettings = new Settings()
                     .withRenderQuotedNames(RenderQuotedNames.NEVER);
             final DSLContext dslContext = DSL.using(conn, dialect, lowercaseSettings);
-            return dslContext.update(OMPAY_RESPONSES)
-                    .set(OMPAY_RESPONSES.OMPAY_STATE, state)
-                    .set(OMPAY_RESPONSES.ADDITIONAL_DATA, additionalData)
-                    .where(OMPAY_RESPONSES.RECORD_ID.eq(recordId))
-                    .execute();
+            dslContext.transaction(configuration -> {
+                final DSLContext txContext = DSL.using(configuration);
+                final OmpayResponsesRecord response = txContext.selectFrom(OMPAY_RESPONSES)
+                        .where(OMPAY_RESPONSES.RECORD_ID.eq(recordId))
+                        .fetchOne();
+                if (response == null) {
+                    return;
+                }
+
+                if (result != null) {
+                    txContext.update(OMPAY_RESPONSES)
+                            .set(OMPAY_RESPONSES.OMPAY_STATE, state)
+                            .set(OMPAY_RESPONSES.OMPAY_RESULT_CODE, truncate(asString(result.get("code")), RESULT_CODE_MAX_LENGTH))
+                            .set(OMPAY_RESPONSES.OMPAY_RESULT_DESCRIPTION, truncate(asString(result.get("description")), RESULT_DESCRIPTION_MAX_LENGTH))
+                            .where(OMPAY_RESPONSES.RECORD_ID.eq(recordId))
+                            .execute();
+                } else {
+                    txContext.update(OMPAY_RESPONSES)
+                            .set(OMPAY_RESPONSES.OMPAY_STATE, state)
+                            .where(OMPAY_RESPONSES.RECORD_ID.eq(recordId))
+                            .execute();
+                }
+
+                final Field<String> newAdditionalData = merge
+                        ? mergedAdditionalData(OMPAY_RESPONSE_PAYLOADS.ADDITIONAL_DATA,
+                                               () -> txContext.select(OMPAY_RESPONSE_PAYLOADS.ADDITIONAL_DATA)
+                                                       .from(OMPAY_RESPONSE_PAYLOADS)
+                                                       .where(OMPAY_RESPONSE_PAYLOADS.RESPONSE_RECORD_ID.eq(recordId))
+                                                       .fetchOne(OMPAY_RESPONSE_PAYLOADS.ADDITIONAL_DATA),
+                                               additionalData)
+                        : DSL.val(additionalData);
+                final int updated = txContext.update(OMPAY_RESPONSE_PAYLOADS)
+                        .set(OMPAY_RESPONSE_PAYLOADS.ADDITIONAL_DATA, newAdditionalData)
+                        .where(OMPAY_RESPONSE_PAYLOADS.RESPONSE_RECORD_ID.eq(recordId))
+                        .execute();
+                if (updated == 0) {
+                    txContext.insertInto(OMPAY_RESPONSE_PAYLOADS,
+                                    OMPAY_RESPONSE_PAYLOADS.RESPONSE_RECORD_ID,
+                                    OMPAY_RESPONSE_PAYLOADS.ADDITIONAL_DATA,
+                                    OMPAY_RESPONSE_PAYLOADS.KB_TENANT_ID)
+                            .values(recordId, additionalData, response.getKbTenantId())
+                            .execute();
+                }
+
+                if (notification != null) {
+                    enqueueNotification(txContext, notification);
+                }
+            });
+            return null;
         });
     }
 
+    // New value of an additional_data column, with the top-level keys of the patch (a JSON object) replacing the stored
+    // ones, whatever the dialect: nested objects are replaced as a whole, null values are stored. storedData is only
+    // read on the dialects without JSON support.
+    private Field<String> mergedAdditionalData(final Field<String> additionalDataField, final Supplier<String> storedData, final String patch) throws IOException {
+        final Field<String> stored = DSL.coalesce(additionalDataField, DSL.inline("{}"));
+        switch (dialect.family()) {
+            case POSTGRES:
+                return DSL.field("({0}::jsonb || {1}::jsonb)::text", additionalDataField.getDataType(), stored, DSL.val(patch));
+            case MYSQL:
+            case MARIADB:
+                // Not JSON_MERGE_PATCH: it merges nested objects and removes the keys set to null
+                final Set<String> keys = objectMapper.readValue(patch, new TypeReference<Map<String, Object>>() {}).keySet();
+                if (keys.isEmpty()) {
+                    return stored;
+                }
+                final StringBuilder sql = new StringBuilder("JSON_SET({0}");
+                final List<QueryPart> parts = new ArrayList<QueryPart>();
+                parts.add(stored);
+                parts.add(DSL.val(patch));
+                for (final String key : keys) {
+                    final int path = parts.size();
+                    parts.add(DSL.val("$.\"" + key.replace("\\", "\\\\").replace("\"", "\\\"") + "\""));
+                    sql.append(", {").append(path).append("}, JSON_EXTRACT({1}, {").append(path).append("})");
+                }
+                sql.append(")");
+                return DSL.field(sql.toString(), additionalDataField.getDataType(), parts.toArray(new QueryPart[0]));
+            default:
+                // No JSON support (e.g. H2): merge on this side
+                final String storedValue = storedData.get();
+                final Map<String, Object> merged = Strings.isNullOrEmpty(storedValue)
+                        ? new HashMap<String, Object>()
+                        : objectMapper.readValue(storedValue, new TypeReference<Map<String, Object>>() {});
+                merged.putAll(objectMapper.readValue(patch, new TypeReference<Map<String, Object>>() {}));
+                return DSL.val(objectMapper.writeValueAsString(merged));
+        }
+    }
+
     public void updateResponseByOmPayTxnId(final String ompayTransactionId, final String newState, final Map<String, Object> newAdditionalDataMap, final UUID kbTenantId) throws SQLException {
-        try {
-            final String newAdditionalData = objectMapper.writeValueAsString(newAdditionalDataMap);
-            OmpayResponsesRecord existingRecord = getResponseByOmPayTransactionId(ompayTransactionId, kbTenantId);
-            if (existingRecord != null) {
-                updateResponseAdditionalData(existingRecord.getRecordId(), newState, newAdditionalData);
-            } else {
-                logger.warn("Attempted to update response data for non-existent OMPay transaction ID: {}", ompayTransactionId);
-            }
-        } catch (JsonProcessingException e) {
-            throw new SQLException("Failed to serialize new additional data for OMPay transaction " + ompayTransactionId, e);
+        OmpayResponsesRecord existingRecord = getResponseByOmPayTransactionId(ompayTransactionId, kbTenantId);
+        if (existingRecord != null) {
+            updateResponseAdditionalData(existingRecord.getRecordId(), newState, newAdditionalDataMap);
+        } else {
+            logger.warn("Attempted to update response data for non-existent OMPay transaction ID: {}", ompayTransactionId);
+        }
+    }
+
+    /**
+     * Update the state of the latest response of a Kill Bill transaction, for the responses without OMPay id.
+     * The given fields are merged into the stored payload.
+     */
+    public void updateResponseByKbTransactionId(final UUID kbTransactionId, final String newState, final Map<String, Object> additionalDataPatch, final UUID kbTenantId) throws SQLException {
+        final OmpayResponsesRecord existingRecord = execute(primaryConnection(), (Connection conn) -> {
+            // Override settings to force lowercase table names
+            final Settings lowercaseSettings = new Settings()
+                    .withRenderQuotedNames(RenderQuotedNames.NEVER);
+            final DSLContext dslContext = DSL.using(conn, dialect, lowercaseSettings);
+            return dslContext.selectFrom(OMPAY_RESPONSES)
+                    .where(OMPAY_RESPONSES.KB_PAYMENT_TRANSACTION_ID.eq(kbTransactionId))
+                    .and(OMPAY_RESPONSES.KB_TENANT_ID.eq(kbTenantId))
+                    .orderBy(OMPAY_RESPONSES.RECORD_ID.desc())
+                    .limit(1)
+                    .fetchOne();
+        });
+        if (existingRecord != null) {
+            mergeResponseAdditionalData(existingRecord.getRecordId(), newState, additionalDataPatch, null);
+        } else {
+            logger.warn("Attempted to update response data for non-existent Kill Bill transaction ID: {}", kbTransactionId);
         }
     }
 
     @Nullable
     public String getOmpayPayerIdForAccount(final UUID kbAccountId, final UUID kbTenantId) throws SQLException {
-        return execute(dataSource.getConnection(), (Connection conn) -> {
+        return execute(primaryConnection(), (Connection conn) -> {
             // Override settings to force lowercase table names
             final Settings lowercaseSettings = new Settings()
                     .withRenderQuotedNames(RenderQuotedNames.NEVER);
             final DSLContext dslContext = DSL.using(conn, dialect, lowercaseSettings);
             return dslContext.select(OMPAY_PAYMENT_METHODS.OMPAY_PAYER_ID)
                     .from(OMPAY_PAYMENT_METHODS)
-                    .where(OMPAY_PAYMENT_METHODS.KB_ACCOUNT_ID.eq(kbAccountId.toString()))
-                    .and(OMPAY_PAYMENT_METHODS.KB_TENANT_ID.eq(kbTenantId.toString()))
+                    .where(OMPAY_PAYMENT_METHODS.KB_ACCOUNT_ID.eq(kbAccountId))
+                    .and(OMPAY_PAYMENT_METHODS.KB_TENANT_ID.eq(kbTenantId))
                     .and(OMPAY_PAYMENT_METHODS.OMPAY_PAYER_ID.isNotNull())
                     .and(OMPAY_PAYMENT_METHODS.IS_DELETED.eq((short) 0))
                     .orderBy(OMPAY_PAYMENT_METHODS.CREATED_DATE.desc()) // Get from a recent PM
@@ -426,7 +987,7 @@ public class OmPayDao extends PluginPaymentDao<
                                           final DateTime utcNow) throws SQLException {
         final LocalDateTime ldtNow = toLocalDateTime(utcNow);
 
-        execute(dataSource.getConnection(), (Connection conn) -> {
+        execute(writeConnection(), (Connection conn) -> {
             // Override settings to force lowercase table names
             final Settings lowercaseSettings = new Settings()
                     .withRenderQuotedNames(RenderQuotedNames.NEVER);
@@ -434,8 +995,8 @@ public class OmPayDao extends PluginPaymentDao<
 
             // 1. Get all current local PMs for this kbAccountId that have this ompayPayerId
             List<OmpayPaymentMethodsRecord> localPms = dslContext.selectFrom(OMPAY_PAYMENT_METHODS)
-                    .where(OMPAY_PAYMENT_METHODS.KB_ACCOUNT_ID.eq(kbAccountId.toString()))
-                    .and(OMPAY_PAYMENT_METHODS.KB_TENANT_ID.eq(kbTenantId.toString()))
+                    .where(OMPAY_PAYMENT_METHODS.KB_ACCOUNT_ID.eq(kbAccountId))
+                    .and(OMPAY_PAYMENT_METHODS.KB_TENANT_ID.eq(kbTenantId))
                     .and(OMPAY_PAYMENT_METHODS.OMPAY_PAYER_ID.eq(ompayPayerId)) // Important filter
                     .and(OMPAY_PAYMENT_METHODS.IS_DELETED.eq((short) 0))
                     .fetch();
@@ -450,16 +1011,7 @@ public class OmPayDao extends PluginPaymentDao<
                     continue;
                 }
 
-                Map<String, Object> additionalDataForDb = new HashMap<>();
-                additionalDataForDb.put("ompay_card_type", ompayCard.get("type"));
-                additionalDataForDb.put("ompay_card_last4", ompayCard.get("last4"));
-                additionalDataForDb.put("ompay_card_expire_month", ompayCard.get("expire_month"));
-                additionalDataForDb.put("ompay_card_expire_year", ompayCard.get("expire_year"));
-                additionalDataForDb.put("ompay_card_name", ompayCard.get("name"));
-                // Add bin_data if available and needed
-                if (ompayCard.get("bin_data") instanceof Map) {
-                    additionalDataForDb.put("ompay_bin_data", ompayCard.get("bin_data"));
-                }
+                Map<String, Object> additionalDataForDb = toCardAdditionalData(ompayCard);
 
 
                 OmpayPaymentMethodsRecord existingLocalPm = localPmsByOmPayCardId.get(ompayCardId);
@@ -494,8 +1046,8 @@ public class OmPayDao extends PluginPaymentDao<
                                         OMPAY_PAYMENT_METHODS.CREATED_DATE,
                                         OMPAY_PAYMENT_METHODS.UPDATED_DATE,
                                         OMPAY_PAYMENT_METHODS.KB_TENANT_ID)
-                                .values(kbAccountId.toString(),
-                                        newKbPaymentMethodId.toString(),
+                                .values(kbAccountId,
+                                        newKbPaymentMethodId,
                                         ompayCardId,
                                         ompayPayerId,
                                         (short) (isDefaultGateway ? 1 : 0),
@@ -503,7 +1055,7 @@ public class OmPayDao extends PluginPaymentDao<
                                         objectMapper.writeValueAsString(additionalDataForDb),
                                         ldtNow,
                                         ldtNow,
-                                        kbTenantId.toString())
+                                        kbTenantId)
                                 .execute();
                     } catch (JsonProcessingException e) {
                         throw new RuntimeException(e);
@@ -525,38 +1077,144 @@ public class OmPayDao extends PluginPaymentDao<
         });
     }
 
+    // Card details kept in ompay_payment_methods.additional_data, from an OMPay vault card
+    private static Map<String, Object> toCardAdditionalData(final Map<String, Object> ompayCard) {
+        final Map<String, Object> additionalDataForDb = new HashMap<>();
+        additionalDataForDb.put("ompay_card_type", ompayCard.get("type"));
+        additionalDataForDb.put("ompay_card_last4", ompayCard.get("last4"));
+        additionalDataForDb.put("ompay_card_expire_month", ompayCard.get("expire_month"));
+        additionalDataForDb.put("ompay_card_expire_year", ompayCard.get("expire_year"));
+        additionalDataForDb.put("ompay_card_name", ompayCard.get("name"));
+        // Add bin_data if available and needed
+        if (ompayCard.get("bin_data") instanceof Map) {
+            additionalDataForDb.put("ompay_bin_data", ompayCard.get("bin_data"));
+        }
+        return additionalDataForDb;
+    }
+
     /**
-     * Search for payments matching a search key across various fields.
+     * Apply an OMPay vault card update (card webhook) to the payment methods of this card, without a full vault sync.
+     * When the card became the default one, the other payment methods of its payer are no longer default.
+     * The card fields are merged into the stored additional data, which keeps its other keys.
      *
-     * @param searchKey The search term to look for
-     * @param offset Pagination offset
-     * @param limit Maximum records to return
-     * @param kbTenantId The tenant ID
-     * @return List of payment transaction info plugins matching the search criteria
+     * @param ompayCard The card, as sent by OMPay
+     * @return The number of payment methods updated, 0 if the card is unknown
      * @throws SQLException If a database error occurs
      */
-    public List<PaymentTransactionInfoPlugin> searchPayments(final String searchKey, final Long offset, final Long limit, final UUID kbTenantId) throws SQLException {
-        return execute(dataSource.getConnection(), (Connection conn) -> {
+    public int updatePaymentMethodsFromCard(final Map<String, Object> ompayCard, final UUID kbTenantId, final DateTime utcNow) throws SQLException {
+        final String ompayCardId = (String) ompayCard.get("id");
+        final String additionalData;
+        try {
+            additionalData = objectMapper.writeValueAsString(toCardAdditionalData(ompayCard));
+        } catch (final JsonProcessingException e) {
+            throw new SQLException("Unable to serialize the card details", e);
+        }
+        final Object isDefault = ompayCard.get("is_default");
+        final LocalDateTime ldtNow = toLocalDateTime(utcNow);
+
+        return execute(writeConnection(), (Connection conn) -> {
             // Override settings to force lowercase table names
             final Settings lowercaseSettings = new Settings()
                     .withRenderQuotedNames(RenderQuotedNames.NEVER);
             final DSLContext dslContext = DSL.using(conn, dialect, lowercaseSettings);
+            return dslContext.transactionResult(configuration -> {
+                final DSLContext txContext = DSL.using(configuration);
+                final List<OmpayPaymentMethodsRecord> cardPms = txContext.selectFrom(OMPAY_PAYMENT_METHODS)
+                        .where(OMPAY_PAYMENT_METHODS.OMPAY_CREDIT_CARD_ID.eq(ompayCardId))
+                        .and(OMPAY_PAYMENT_METHODS.KB_TENANT_ID.eq(kbTenantId))
+                        .and(OMPAY_PAYMENT_METHODS.IS_DELETED.eq((short) 0))
+                        .fetch();
 
-            // Search across multiple fields - using ILIKE for case-insensitive search in PostgreSQL
-            Condition searchCondition = OMPAY_RESPONSES.KB_PAYMENT_ID.likeIgnoreCase("%" + searchKey + "%")
-                    .or(OMPAY_RESPONSES.KB_PAYMENT_TRANSACTION_ID.likeIgnoreCase("%" + searchKey + "%"))
-                    .or(OMPAY_RESPONSES.OMPAY_TRANSACTION_ID.likeIgnoreCase("%" + searchKey + "%"))
-                    .or(OMPAY_RESPONSES.OMPAY_REFERENCE_ID.likeIgnoreCase("%" + searchKey + "%"))
-                    .or(OMPAY_RESPONSES.OMPAY_PAYER_ID.likeIgnoreCase("%" + searchKey + "%"))
-                    .or(OMPAY_RESPONSES.ADDITIONAL_DATA.likeIgnoreCase("%" + searchKey + "%"));
+                for (final OmpayPaymentMethodsRecord pm : cardPms) {
+                    if (Boolean.TRUE.equals(isDefault) && pm.getOmpayPayerId() != null) {
+                        txContext.update(OMPAY_PAYMENT_METHODS)
+                                .set(OMPAY_PAYMENT_METHODS.IS_DEFAULT, (short) 0)
+                                .set(OMPAY_PAYMENT_METHODS.UPDATED_DATE, ldtNow)
+                                .where(OMPAY_PAYMENT_METHODS.OMPAY_PAYER_ID.eq(pm.getOmpayPayerId()))
+                                .and(OMPAY_PAYMENT_METHODS.KB_TENANT_ID.eq(kbTenantId))
+                                .and(OMPAY_PAYMENT_METHODS.RECORD_ID.ne(pm.getRecordId()))
+                                .and(OMPAY_PAYMENT_METHODS.IS_DEFAULT.eq((short) 1))
+                                .execute();
+                    }
 
-            return dslContext.selectFrom(OMPAY_RESPONSES)
-                    .where(searchCondition)
-                    .and(OMPAY_RESPONSES.KB_TENANT_ID.eq(kbTenantId.toString()))
-                    .orderBy(OMPAY_RESPONSES.CREATED_DATE.desc())
+                    UpdateSetMoreStep<OmpayPaymentMethodsRecord> update = txContext.update(OMPAY_PAYMENT_METHODS)
+                            .set(OMPAY_PAYMENT_METHODS.ADDITIONAL_DATA, mergedAdditionalData(OMPAY_PAYMENT_METHODS.ADDITIONAL_DATA, pm::getAdditionalData, additionalData))
+                            .set(OMPAY_PAYMENT_METHODS.UPDATED_DATE, ldtNow);
+                    // Default status only when the notification carries it
+                    if (isDefault instanceof Boolean) {
+                        update = update.set(OMPAY_PAYMENT_METHODS.IS_DEFAULT, (short) ((Boolean) isDefault ? 1 : 0));
+                    }
+                    update.where(OMPAY_PAYMENT_METHODS.RECORD_ID.eq(pm.getRecordId())).execute();
+                }
+                return cardPms.size();
+            });
+        });
+    }
+
+    /**
+     * Mark the payment methods of an OMPay vault card as deleted (card webhook).
+     *
+     * @return The number of payment methods marked as deleted
+     * @throws SQLException If a database error occurs
+     */
+    public int markPaymentMethodsAsDeletedByOmPayCardId(final String ompayCardId, final UUID kbTenantId, final DateTime utcNow) throws SQLException {
+        return markPaymentMethodsAsDeleted(OMPAY_PAYMENT_METHODS.OMPAY_CREDIT_CARD_ID.eq(ompayCardId), kbTenantId, utcNow);
+    }
+
+    /**
+     * Mark the payment methods of an OMPay payer as deleted, once the payer was removed from the vault (payer webhook).
+     *
+     * @return The number of payment methods marked as deleted
+     * @throws SQLException If a database error occurs
+     */
+    public int markPaymentMethodsAsDeletedByOmPayPayerId(final String ompayPayerId, final UUID kbTenantId, final DateTime utcNow) throws SQLException {
+        return markPaymentMethodsAsDeleted(OMPAY_PAYMENT_METHODS.OMPAY_PAYER_ID.eq(ompayPayerId), kbTenantId, utcNow);
+    }
+
+    private int markPaymentMethodsAsDeleted(final Condition condition, final UUID kbTenantId, final DateTime utcNow) throws SQLException {
+        final LocalDateTime ldtNow = toLocalDateTime(utcNow);
+        return execute(writeConnection(), (Connection conn) -> {
+            // Override settings to force lowercase table names
+            final Settings lowercaseSettings = new Settings()
+                    .withRenderQuotedNames(RenderQuotedNames.NEVER);
+            final DSLContext dslContext = DSL.using(conn, dialect, lowercaseSettings);
+            return dslContext.update(OMPAY_PAYMENT_METHODS)
+                    .set(OMPAY_PAYMENT_METHODS.IS_DELETED, (short) 1)
+                    .set(OMPAY_PAYMENT_METHODS.IS_DEFAULT, (short) 0)
+                    .set(OMPAY_PAYMENT_METHODS.UPDATED_DATE, ldtNow)
+                    .where(condition)
+                    .and(OMPAY_PAYMENT_METHODS.KB_TENANT_ID.eq(kbTenantId))
+                    .and(OMPAY_PAYMENT_METHODS.IS_DELETED.eq((short) 0))
+                    .execute();
+        });
+    }
+
+    /**
+     * Search for payments matching a search key across various fields.
+     *
+     * @param searchKey The search term to look for
+     * @param offset Pagination offset
+     * @param limit Maximum records to return
+     * @param kbTenantId The tenant ID
+     * @return List of payment transaction info plugins matching the search criteria
+     * @throws SQLException If a database error occurs
+     */
+    public List<PaymentTransactionInfoPlugin> searchPayments(final String searchKey, final Long offset, final Long limit, final UUID kbTenantId) throws SQLException {
+        return execute(readConnection(), (Connection conn) -> {
+            // Override settings to force lowercase table names
+            final Settings lowercaseSettings = new Settings()
+                    .withRenderQuotedNames(RenderQuotedNames.NEVER);
+            final DSLContext dslContext = DSL.using(conn, dialect, lowercaseSettings);
+
+            // Search across multiple fields - using ILIKE for case-insensitive search in PostgreSQL
+            final Table<OmpayResponsesRecord> responses = searchedResponses(dslContext, searchKey, kbTenantId);
+
+            return dslContext.selectFrom(responses)
+                    .orderBy(responses.field(OMPAY_RESPONSES.CREATED_DATE).desc())
                     .limit(limit)
                     .offset(offset)
-                    .fetch(this::toPaymentTransactionInfoPlugin);
+                    .fetchInto(OMPAY_RESPONSES)
+                    .map(this::toPaymentTransactionInfoPlugin);
         });
     }
 
@@ -569,27 +1227,616 @@ public class OmPayDao extends PluginPaymentDao<
      * @throws SQLException If a database error occurs
      */
     public Long getPaymentCount(final String searchKey, final UUID kbTenantId) throws SQLException {
-        return execute(dataSource.getConnection(), (Connection conn) -> {
+        return execute(readConnection(), (Connection conn) -> {
             // Override settings to force lowercase table names
             final Settings lowercaseSettings = new Settings()
                     .withRenderQuotedNames(RenderQuotedNames.NEVER);
             final DSLContext dslContext = DSL.using(conn, dialect, lowercaseSettings);
 
-            Condition searchCondition = OMPAY_RESPONSES.KB_PAYMENT_ID.likeIgnoreCase("%" + searchKey + "%")
-                    .or(OMPAY_RESPONSES.KB_PAYMENT_TRANSACTION_ID.likeIgnoreCase("%" + searchKey + "%"))
-                    .or(OMPAY_RESPONSES.OMPAY_TRANSACTION_ID.likeIgnoreCase("%" + searchKey + "%"))
-                    .or(OMPAY_RESPONSES.OMPAY_REFERENCE_ID.likeIgnoreCase("%" + searchKey + "%"))
-                    .or(OMPAY_RESPONSES.OMPAY_PAYER_ID.likeIgnoreCase("%" + searchKey + "%"))
-                    .or(OMPAY_RESPONSES.ADDITIONAL_DATA.likeIgnoreCase("%" + searchKey + "%"));
-
             return dslContext.selectCount()
-                    .from(OMPAY_RESPONSES)
-                    .where(searchCondition)
-                    .and(OMPAY_RESPONSES.KB_TENANT_ID.eq(kbTenantId.toString()))
+                    .from(searchedResponses(dslContext, searchKey, kbTenantId))
                     .fetchOne(0, Long.class);
         });
     }
 
+    // Responses of the tenant matching the search key, archived ones included
+    private Table<OmpayResponsesRecord> searchedResponses(final DSLContext dslContext, final String searchKey, final UUID kbTenantId) {
+        return dslContext.selectFrom(OMPAY_RESPONSES)
+                .where(buildPaymentSearchCondition(OMPAY_RESPONSES, OMPAY_RESPONSE_PAYLOADS, searchKey))
+                .and(OMPAY_RESPONSES.KB_TENANT_ID.eq(kbTenantId))
+                .unionAll(dslContext.selectFrom(OMPAY_RESPONSES_ARCHIVE)
+                                  .where(buildPaymentSearchCondition(OMPAY_RESPONSES_ARCHIVE, OMPAY_RESPONSE_PAYLOADS_ARCHIVE, searchKey))
+                                  .and(OMPAY_RESPONSES_ARCHIVE.KB_TENANT_ID.eq(kbTenantId)))
+                .asTable("searched_responses");
+    }
+
+    /**
+     * Kill Bill notification that a pending transaction reached a final state, see ompay_notification_outbox.
+     */
+    public static final class StateChangeNotification {
+
+        private final UUID kbAccountId;
+        private final UUID kbPaymentId;
+        private final UUID kbTransactionId;
+        private final boolean success;
+        private final DateTime createdDate;
+        private final UUID kbTenantId;
+
+        private StateChangeNotification(final UUID kbAccountId,
+                                        final UUID kbPaymentId,
+                                        final UUID kbTransactionId,
+                                        final boolean success,
+                                        final DateTime createdDate,
+                                        final UUID kbTenantId) {
+            this.kbAccountId = kbAccountId;
+            this.kbPaymentId = kbPaymentId;
+            this.kbTransactionId = kbTransactionId;
+            this.success = success;
+            this.createdDate = createdDate;
+            this.kbTenantId = kbTenantId;
+        }
+
+        public static StateChangeNotification of(final UUID kbAccountId,
+                                                 final UUID kbPaymentId,
+                                                 final UUID kbTransactionId,
+                                                 final boolean success,
+                                                 final DateTime createdDate,
+                                                 final UUID kbTenantId) {
+            return new StateChangeNotification(kbAccountId, kbPaymentId, kbTransactionId, success, createdDate, kbTenantId);
+        }
+    }
+
+    private void enqueueNotification(final DSLContext txContext, final StateChangeNotification notification) {
+        final LocalDateTime createdDate = toLocalDateTime(notification.createdDate);
+        txContext.insertInto(OMPAY_NOTIFICATION_OUTBOX,
+                        OMPAY_NOTIFICATION_OUTBOX.KB_ACCOUNT_ID,
+                        OMPAY_NOTIFICATION_OUTBOX.KB_PAYMENT_ID,
+                        OMPAY_NOTIFICATION_OUTBOX.KB_PAYMENT_TRANSACTION_ID,
+                        OMPAY_NOTIFICATION_OUTBOX.IS_SUCCESS,
+                        OMPAY_NOTIFICATION_OUTBOX.ATTEMPTS,
+                        OMPAY_NOTIFICATION_OUTBOX.NEXT_ATTEMPT_DATE,
+                        OMPAY_NOTIFICATION_OUTBOX.CREATED_DATE,
+                        OMPAY_NOTIFICATION_OUTBOX.KB_TENANT_ID)
+                .values(notification.kbAccountId,
+                        notification.kbPaymentId,
+                        notification.kbTransactionId,
+                        (short) (notification.success ? 1 : 0),
+                        0,
+                        createdDate,
+                        createdDate,
+                        notification.kbTenantId)
+                .execute();
+    }
+
+    /**
+     * Queued Kill Bill notifications due for delivery (served by ompay_notification_outbox_next_attempt_date),
+     * across all tenants, oldest first. Used by the notification dispatcher.
+     *
+     * @param now Only entries whose next attempt is on or before this date are returned
+     * @param limit Maximum number of entries to return
+     * @return The due entries
+     * @throws SQLException If a database error occurs
+     */
+    public List<OmpayNotificationOutboxRecord> getDueNotifications(final DateTime now, final int limit) throws SQLException {
+        final LocalDateTime ldtNow = toLocalDateTime(now);
+        return execute(primaryConnection(), (Connection conn) -> {
+            // Override settings to force lowercase table names
+            final Settings lowercaseSettings = new Settings()
+                    .withRenderQuotedNames(RenderQuotedNames.NEVER);
+            final DSLContext dslContext = DSL.using(conn, dialect, lowercaseSettings);
+            return dslContext.selectFrom(OMPAY_NOTIFICATION_OUTBOX)
+                    .where(OMPAY_NOTIFICATION_OUTBOX.NEXT_ATTEMPT_DATE.le(ldtNow))
+                    .orderBy(OMPAY_NOTIFICATION_OUTBOX.RECORD_ID.asc())
+                    .limit(limit)
+                    .fetch();
+        });
+    }
+
+    /**
+     * Remove delivered (or abandoned) notifications from the outbox, in a single statement.
+     */
+    public void deleteNotifications(final Collection<Integer> recordIds) throws SQLException {
+        if (recordIds.isEmpty()) {
+            return;
+        }
+        execute(writeConnection(), (Connection conn) -> {
+            // Override settings to force lowercase table names
+            final Settings lowercaseSettings = new Settings()
+                    .withRenderQuotedNames(RenderQuotedNames.NEVER);
+            final DSLContext dslContext = DSL.using(conn, dialect, lowercaseSettings);
+            return dslContext.deleteFrom(OMPAY_NOTIFICATION_OUTBOX)
+                    .where(OMPAY_NOTIFICATION_OUTBOX.RECORD_ID.in(recordIds))
+                    .execute();
+        });
+    }
+
+    /**
+     * Record a failed delivery attempt and when to try again.
+     */
+    public void rescheduleNotification(final Integer recordId, final int attempts, final DateTime nextAttempt, @Nullable final String error) throws SQLException {
+        final LocalDateTime ldtNextAttempt = toLocalDateTime(nextAttempt);
+        execute(writeConnection(), (Connection conn) -> {
+            // Override settings to force lowercase table names
+            final Settings lowercaseSettings = new Settings()
+                    .withRenderQuotedNames(RenderQuotedNames.NEVER);
+            final DSLContext dslContext = DSL.using(conn, dialect, lowercaseSettings);
+            return dslContext.update(OMPAY_NOTIFICATION_OUTBOX)
+                    .set(OMPAY_NOTIFICATION_OUTBOX.ATTEMPTS, attempts)
+                    .set(OMPAY_NOTIFICATION_OUTBOX.NEXT_ATTEMPT_DATE, ldtNextAttempt)
+                    .set(OMPAY_NOTIFICATION_OUTBOX.LAST_ERROR, truncate(error, LAST_ERROR_MAX_LENGTH))
+                    .where(OMPAY_NOTIFICATION_OUTBOX.RECORD_ID.eq(recordId))
+                    .execute();
+        });
+    }
+
+    /**
+     * Store a raw webhook notification for asynchronous processing, unless a notification with the same id was
+     * already received for the tenant (the unique index on ompay_webhook_notification_ids decides, across nodes).
+     * Two inserts in one transaction, so that OMPay is acknowledged right away.
+     *
+     * @return false if the notification is a redelivery, and was not stored
+     */
+    public boolean addWebhookNotification(@Nullable final String notificationId,
+                                          final String orderingKey,
+                                          final String body,
+                                          final DateTime utcNow,
+                                          @Nullable final UUID kbTenantId) throws SQLException {
+        final LocalDateTime ldtUtcNow = toLocalDateTime(utcNow);
+        return execute(writeConnection(), (Connection conn) -> {
+            // Override settings to force lowercase table names
+            final Settings lowercaseSettings = new Settings()
+                    .withRenderQuotedNames(RenderQuotedNames.NEVER);
+            final DSLContext dslContext = DSL.using(conn, dialect, lowercaseSettings);
+            return dslContext.transactionResult(configuration -> {
+                final DSLContext txContext = DSL.using(configuration);
+                if (notificationId != null) {
+                    // ON CONFLICT DO NOTHING (PostgreSQL) / INSERT IGNORE (MySQL)
+                    final int inserted = txContext.insertInto(OMPAY_WEBHOOK_NOTIFICATION_IDS,
+                                    OMPAY_WEBHOOK_NOTIFICATION_IDS.NOTIFICATION_ID,
+                                    OMPAY_WEBHOOK_NOTIFICATION_IDS.CREATED_DATE,
+                                    OMPAY_WEBHOOK_NOTIFICATION_IDS.KB_TENANT_ID)
+                            .values(notificationId, ldtUtcNow, kbTenantId != null ? kbTenantId : NO_TENANT_ID)
+                            .onConflictDoNothing()
+                            .execute();
+                    if (inserted == 0) {
+                        return false;
+                    }
+                }
+
+                txContext.insertInto(OMPAY_WEBHOOK_INBOX,
+                                OMPAY_WEBHOOK_INBOX.NOTIFICATION_ID,
+                                OMPAY_WEBHOOK_INBOX.ORDERING_KEY,
+                                OMPAY_WEBHOOK_INBOX.BODY,
+                                OMPAY_WEBHOOK_INBOX.ATTEMPTS,
+                                OMPAY_WEBHOOK_INBOX.NEXT_ATTEMPT_DATE,
+                                OMPAY_WEBHOOK_INBOX.CREATED_DATE,
+                                OMPAY_WEBHOOK_INBOX.KB_TENANT_ID)
+                        .values(notificationId,
+                                orderingKey,
+                                body,
+                                0,
+                                ldtUtcNow,
+                                ldtUtcNow,
+                                kbTenantId)
+                        .execute();
+                return true;
+            });
+        });
+    }
+
+    /**
+     * Forget the ids of the webhook notifications received before the given date: OMPay doesn't redeliver that late.
+     */
+    public int purgeWebhookNotificationIds(final DateTime receivedBefore) throws SQLException {
+        final LocalDateTime ldtReceivedBefore = toLocalDateTime(receivedBefore);
+        return execute(writeConnection(), (Connection conn) -> {
+            // Override settings to force lowercase table names
+            final Settings lowercaseSettings = new Settings()
+                    .withRenderQuotedNames(RenderQuotedNames.NEVER);
+            final DSLContext dslContext = DSL.using(conn, dialect, lowercaseSettings);
+            return dslContext.deleteFrom(OMPAY_WEBHOOK_NOTIFICATION_IDS)
+                    .where(OMPAY_WEBHOOK_NOTIFICATION_IDS.CREATED_DATE.lt(ldtReceivedBefore))
+                    .execute();
+        });
+    }
+
+    /**
+     * Webhook notifications due for processing, across all tenants, oldest first. A notification is held back while
+     * an older one with the same ordering key waits for a retry, so that each key is processed in arrival order.
+     *
+     * @param now Only notifications whose next attempt is on or before this date are returned
+     * @param afterRecordId Only notifications after this record id are returned (keyset pagination, 0 for the first page)
+     * @param limit Maximum number of notifications to return
+     * @return The due notifications
+     * @throws SQLException If a database error occurs
+     */
+    public List<OmpayWebhookInboxRecord> getDueWebhookNotifications(final DateTime now, final int afterRecordId, final int limit) throws SQLException {
+        final LocalDateTime ldtNow = toLocalDateTime(now);
+        final OmpayWebhookInbox older = OMPAY_WEBHOOK_INBOX.as("older");
+        return execute(primaryConnection(), (Connection conn) -> {
+            // Override settings to force lowercase table names
+            final Settings lowercaseSettings = new Settings()
+                    .withRenderQuotedNames(RenderQuotedNames.NEVER);
+            final DSLContext dslContext = DSL.using(conn, dialect, lowercaseSettings);
+            return dslContext.selectFrom(OMPAY_WEBHOOK_INBOX)
+                    .where(OMPAY_WEBHOOK_INBOX.NEXT_ATTEMPT_DATE.le(ldtNow))
+                    .and(OMPAY_WEBHOOK_INBOX.RECORD_ID.gt(afterRecordId))
+                    .andNotExists(DSL.selectOne()
+                                          .from(older)
+                                          .where(older.ORDERING_KEY.eq(OMPAY_WEBHOOK_INBOX.ORDERING_KEY))
+                                          .and(older.RECORD_ID.lt(OMPAY_WEBHOOK_INBOX.RECORD_ID))
+                                          .and(older.NEXT_ATTEMPT_DATE.gt(ldtNow)))
+                    .orderBy(OMPAY_WEBHOOK_INBOX.RECORD_ID.asc())
+                    .limit(limit)
+                    .fetch();
+        });
+    }
+
+    /**
+     * Remove processed (or abandoned) webhook notifications from the inbox, in a single statement.
+     */
+    public void deleteWebhookNotifications(final Collection<Integer> recordIds) throws SQLException {
+        if (recordIds.isEmpty()) {
+            return;
+        }
+        execute(writeConnection(), (Connection conn) -> {
+            // Override settings to force lowercase table names
+            final Settings lowercaseSettings = new Settings()
+                    .withRenderQuotedNames(RenderQuotedNames.NEVER);
+            final DSLContext dslContext = DSL.using(conn, dialect, lowercaseSettings);
+            return dslContext.deleteFrom(OMPAY_WEBHOOK_INBOX)
+                    .where(OMPAY_WEBHOOK_INBOX.RECORD_ID.in(recordIds))
+                    .execute();
+        });
+    }
+
+    /**
+     * Record a failed processing attempt of a webhook notification and when to try again.
+     */
+    public void rescheduleWebhookNotification(final Integer recordId, final int attempts, final DateTime nextAttempt, @Nullable final String error) throws SQLException {
+        final LocalDateTime ldtNextAttempt = toLocalDateTime(nextAttempt);
+        execute(writeConnection(), (Connection conn) -> {
+            // Override settings to force lowercase table names
+            final Settings lowercaseSettings = new Settings()
+                    .withRenderQuotedNames(RenderQuotedNames.NEVER);
+            final DSLContext dslContext = DSL.using(conn, dialect, lowercaseSettings);
+            return dslContext.update(OMPAY_WEBHOOK_INBOX)
+                    .set(OMPAY_WEBHOOK_INBOX.ATTEMPTS, attempts)
+                    .set(OMPAY_WEBHOOK_INBOX.NEXT_ATTEMPT_DATE, ldtNextAttempt)
+                    .set(OMPAY_WEBHOOK_INBOX.LAST_ERROR, truncate(error, LAST_ERROR_MAX_LENGTH))
+                    .where(OMPAY_WEBHOOK_INBOX.RECORD_ID.eq(recordId))
+                    .execute();
+        });
+    }
+
+    /**
+     * Claim a payment nonce for a payment, unless it was already submitted for the tenant (the unique index on
+     * ompay_nonce_requests decides, across nodes).
+     *
+     * @return false if the nonce was already claimed, see {@link #getNonceRequest}
+     */
+    public boolean addNonceRequest(final String nonceHash,
+                                   final UUID kbAccountId,
+                                   final UUID kbPaymentId,
+                                   final UUID kbPaymentTransactionId,
+                                   final String transactionType,
+                                   final DateTime utcNow,
+                                   final UUID kbTenantId) throws SQLException {
+        final LocalDateTime ldtUtcNow = toLocalDateTime(utcNow);
+        return execute(writeConnection(), (Connection conn) -> {
+            // Override settings to force lowercase table names
+            final Settings lowercaseSettings = new Settings()
+                    .withRenderQuotedNames(RenderQuotedNames.NEVER);
+            final DSLContext dslContext = DSL.using(conn, dialect, lowercaseSettings);
+            // ON CONFLICT DO NOTHING (PostgreSQL) / INSERT IGNORE (MySQL)
+            return dslContext.insertInto(OMPAY_NONCE_REQUESTS,
+                            OMPAY_NONCE_REQUESTS.NONCE_HASH,
+                            OMPAY_NONCE_REQUESTS.KB_ACCOUNT_ID,
+                            OMPAY_NONCE_REQUESTS.KB_PAYMENT_ID,
+                            OMPAY_NONCE_REQUESTS.KB_PAYMENT_TRANSACTION_ID,
+                            OMPAY_NONCE_REQUESTS.TRANSACTION_TYPE,
+                            OMPAY_NONCE_REQUESTS.CREATED_DATE,
+                            OMPAY_NONCE_REQUESTS.KB_TENANT_ID)
+                    .values(nonceHash,
+                            kbAccountId,
+                            kbPaymentId,
+                            kbPaymentTransactionId,
+                            transactionType,
+                            ldtUtcNow,
+                            kbTenantId)
+                    .onConflictDoNothing()
+                    .execute() > 0;
+        });
+    }
+
+    @Nullable
+    public OmpayNonceRequestsRecord getNonceRequest(final String nonceHash, final UUID kbTenantId) throws SQLException {
+        return execute(primaryConnection(), (Connection conn) -> {
+            // Override settings to force lowercase table names
+            final Settings lowercaseSettings = new Settings()
+                    .withRenderQuotedNames(RenderQuotedNames.NEVER);
+            final DSLContext dslContext = DSL.using(conn, dialect, lowercaseSettings);
+            return dslContext.selectFrom(OMPAY_NONCE_REQUESTS)
+                    .where(OMPAY_NONCE_REQUESTS.NONCE_HASH.eq(nonceHash))
+                    .and(OMPAY_NONCE_REQUESTS.KB_TENANT_ID.eq(kbTenantId))
+                    .fetchOne();
+        });
+    }
+
+    /**
+     * Release the claim of a nonce whose payment failed before reaching OMPay, so that it can be submitted again.
+     */
+    public void deleteNonceRequest(final String nonceHash, final UUID kbPaymentId, final UUID kbTenantId) throws SQLException {
+        execute(writeConnection(), (Connection conn) -> {
+            // Override settings to force lowercase table names
+            final Settings lowercaseSettings = new Settings()
+                    .withRenderQuotedNames(RenderQuotedNames.NEVER);
+            final DSLContext dslContext = DSL.using(conn, dialect, lowercaseSettings);
+            return dslContext.deleteFrom(OMPAY_NONCE_REQUESTS)
+                    .where(OMPAY_NONCE_REQUESTS.NONCE_HASH.eq(nonceHash))
+                    .and(OMPAY_NONCE_REQUESTS.KB_PAYMENT_ID.eq(kbPaymentId))
+                    .and(OMPAY_NONCE_REQUESTS.KB_TENANT_ID.eq(kbTenantId))
+                    .execute();
+        });
+    }
+
+    /**
+     * Forget the nonces submitted before the given date.
+     */
+    public int purgeNonceRequests(final DateTime submittedBefore) throws SQLException {
+        final LocalDateTime ldtSubmittedBefore = toLocalDateTime(submittedBefore);
+        return execute(writeConnection(), (Connection conn) -> {
+            // Override settings to force lowercase table names
+            final Settings lowercaseSettings = new Settings()
+                    .withRenderQuotedNames(RenderQuotedNames.NEVER);
+            final DSLContext dslContext = DSL.using(conn, dialect, lowercaseSettings);
+            return dslContext.deleteFrom(OMPAY_NONCE_REQUESTS)
+                    .where(OMPAY_NONCE_REQUESTS.CREATED_DATE.lt(ldtSubmittedBefore))
+                    .execute();
+        });
+    }
+
+    /**
+     * Record that the node is alive, registering it on first call.
+     */
+    public void heartbeatNode(final String nodeId, final DateTime now) throws SQLException {
+        final LocalDateTime ldtNow = toLocalDateTime(now);
+        execute(writeConnection(), (Connection conn) -> {
+            // Override settings to force lowercase table names
+            final Settings lowercaseSettings = new Settings()
+                    .withRenderQuotedNames(RenderQuotedNames.NEVER);
+            final DSLContext dslContext = DSL.using(conn, dialect, lowercaseSettings);
+            final int updated = dslContext.update(OMPAY_NODE_LEASES)
+                    .set(OMPAY_NODE_LEASES.HEARTBEAT_DATE, ldtNow)
+                    .where(OMPAY_NODE_LEASES.NODE_ID.eq(nodeId))
+                    .execute();
+            if (updated == 0) {
+                dslContext.insertInto(OMPAY_NODE_LEASES,
+                                OMPAY_NODE_LEASES.NODE_ID,
+                                OMPAY_NODE_LEASES.STARTED_DATE,
+                                OMPAY_NODE_LEASES.HEARTBEAT_DATE)
+                        .values(nodeId, ldtNow, ldtNow)
+                        .execute();
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Nodes with a heartbeat since the given date, by node id. Leases expired for long are purged on the way.
+     */
+    public List<String> getLiveNodeIds(final DateTime aliveSince) throws SQLException {
+        final LocalDateTime ldtAliveSince = toLocalDateTime(aliveSince);
+        return execute(writeConnection(), (Connection conn) -> {
+            // Override settings to force lowercase table names
+            final Settings lowercaseSettings = new Settings()
+                    .withRenderQuotedNames(RenderQuotedNames.NEVER);
+            final DSLContext dslContext = DSL.using(conn, dialect, lowercaseSettings);
+            dslContext.deleteFrom(OMPAY_NODE_LEASES)
+                    .where(OMPAY_NODE_LEASES.HEARTBEAT_DATE.lt(ldtAliveSince.minusDays(1)))
+                    .execute();
+            return dslContext.select(OMPAY_NODE_LEASES.NODE_ID)
+                    .from(OMPAY_NODE_LEASES)
+                    .where(OMPAY_NODE_LEASES.HEARTBEAT_DATE.ge(ldtAliveSince))
+                    .orderBy(OMPAY_NODE_LEASES.NODE_ID.asc())
+                    .fetch(OMPAY_NODE_LEASES.NODE_ID);
+        });
+    }
+
+    /**
+     * Give up the lease of a node on shutdown, so that the others take over its share right away.
+     */
+    public void removeNode(final String nodeId) throws SQLException {
+        execute(writeConnection(), (Connection conn) -> {
+            // Override settings to force lowercase table names
+            final Settings lowercaseSettings = new Settings()
+                    .withRenderQuotedNames(RenderQuotedNames.NEVER);
+            final DSLContext dslContext = DSL.using(conn, dialect, lowercaseSettings);
+            return dslContext.deleteFrom(OMPAY_NODE_LEASES)
+                    .where(OMPAY_NODE_LEASES.NODE_ID.eq(nodeId))
+                    .execute();
+        });
+    }
+
+    /**
+     * Page of responses still waiting for a final state at OMPay (served by idx_ompay_responses_status), across all
+     * tenants, in record_id order. Used by the pending transaction poller.
+     *
+     * @param afterRecordId Only responses with a greater record_id are returned (keyset pagination)
+     * @param createdAfter Older responses are left to the Kill Bill janitor
+     * @param limit Maximum number of responses to return
+     * @return The pending responses, only the columns needed to refresh them are populated
+     * @throws SQLException If a database error occurs
+     */
+    public List<OmpayResponsesRecord> getPendingResponses(final int afterRecordId, final DateTime createdAfter, final int limit) throws SQLException {
+        final LocalDateTime createdAfterLdt = toLocalDateTime(createdAfter);
+        return execute(primaryConnection(), (Connection conn) -> {
+            // Override settings to force lowercase table names
+            final Settings lowercaseSettings = new Settings()
+                    .withRenderQuotedNames(RenderQuotedNames.NEVER);
+            final DSLContext dslContext = DSL.using(conn, dialect, lowercaseSettings);
+            return dslContext.select(OMPAY_RESPONSES.RECORD_ID,
+                                     OMPAY_RESPONSES.KB_ACCOUNT_ID,
+                                     OMPAY_RESPONSES.KB_PAYMENT_ID,
+                                     OMPAY_RESPONSES.KB_PAYMENT_TRANSACTION_ID,
+                                     OMPAY_RESPONSES.CREATED_DATE,
+                                     OMPAY_RESPONSES.KB_TENANT_ID)
+                    .from(OMPAY_RESPONSES)
+                    .where(OMPAY_RESPONSES.OMPAY_STATE.in(PENDING_STATES))
+                    .and(OMPAY_RESPONSES.RECORD_ID.gt(afterRecordId))
+                    .and(OMPAY_RESPONSES.CREATED_DATE.ge(createdAfterLdt))
+                    .orderBy(OMPAY_RESPONSES.RECORD_ID.asc())
+                    .limit(limit)
+                    .fetchInto(OMPAY_RESPONSES);
+        });
+    }
+
+    /**
+     * OMPay transaction ids of the responses, in record id order, across all tenants. Used to build the in-memory
+     * index of the known transactions.
+     *
+     * @param afterRecordId Only responses with a greater record id are returned
+     * @param limit Maximum number of responses to return
+     * @return The responses, only record_id, ompay_transaction_id and kb_tenant_id are populated
+     * @throws SQLException If a database error occurs
+     */
+    public List<OmpayResponsesRecord> getOmPayTransactionIds(final int afterRecordId, final int limit) throws SQLException {
+        return execute(primaryConnection(), (Connection conn) -> {
+            // Override settings to force lowercase table names
+            final Settings lowercaseSettings = new Settings()
+                    .withRenderQuotedNames(RenderQuotedNames.NEVER);
+            final DSLContext dslContext = DSL.using(conn, dialect, lowercaseSettings);
+            return dslContext.select(OMPAY_RESPONSES.RECORD_ID,
+                                     OMPAY_RESPONSES.OMPAY_TRANSACTION_ID,
+                                     OMPAY_RESPONSES.KB_TENANT_ID)
+                    .from(OMPAY_RESPONSES)
+                    .where(OMPAY_RESPONSES.RECORD_ID.gt(afterRecordId))
+                    .orderBy(OMPAY_RESPONSES.RECORD_ID.asc())
+                    .limit(limit)
+                    .fetchInto(OMPAY_RESPONSES);
+        });
+    }
+
+    /**
+     * Payments whose latest response is older than the cutoff and which have no transaction left waiting for the
+     * gateway, whatever their outcome (a later refund or read finds them in the archive). Across all tenants, used by
+     * the archival job.
+     *
+     * @param cutoff Only payments without any response on or after this date are returned
+     * @param limit Maximum number of payment ids to return
+     * @return The kb_payment_ids to archive
+     * @throws SQLException If a database error occurs
+     */
+    public List<UUID> getArchivableKbPaymentIds(final DateTime cutoffDate, final int limit) throws SQLException {
+        final LocalDateTime cutoff = toLocalDateTime(cutoffDate);
+        return execute(primaryConnection(), (Connection conn) -> {
+            // Override settings to force lowercase table names
+            final Settings lowercaseSettings = new Settings()
+                    .withRenderQuotedNames(RenderQuotedNames.NEVER);
+            final DSLContext dslContext = DSL.using(conn, dialect, lowercaseSettings);
+
+            final OmpayResponses others = OMPAY_RESPONSES.as("others");
+            return dslContext.selectDistinct(OMPAY_RESPONSES.KB_PAYMENT_ID)
+                    .from(OMPAY_RESPONSES)
+                    .where(OMPAY_RESPONSES.CREATED_DATE.lt(cutoff))
+                    .andNotExists(DSL.selectOne()
+                            .from(others)
+                            .where(others.KB_PAYMENT_ID.eq(OMPAY_RESPONSES.KB_PAYMENT_ID))
+                            .and(others.CREATED_DATE.ge(cutoff)
+                                    .or(others.OMPAY_STATE.isNull())
+                                    .or(DSL.lower(others.OMPAY_STATE).in(PENDING_STATES))))
+                    .limit(limit)
+                    .fetch(OMPAY_RESPONSES.KB_PAYMENT_ID);
+        });
+    }
+
+    /**
+     * Move all responses (and their payloads) of the given payments to the archive tables, in one transaction.
+     *
+     * @param kbPaymentIds The payments to archive
+     * @return Number of ompay_responses rows moved
+     * @throws SQLException If a database error occurs
+     */
+    public int archivePayments(final List<UUID> kbPaymentIds) throws SQLException {
+        if (kbPaymentIds.isEmpty()) {
+            return 0;
+        }
+        return execute(writeConnection(), (Connection conn) -> {
+            // Override settings to force lowercase table names
+            final Settings lowercaseSettings = new Settings()
+                    .withRenderQuotedNames(RenderQuotedNames.NEVER);
+            final DSLContext dslContext = DSL.using(conn, dialect, lowercaseSettings);
+            return dslContext.transactionResult(configuration -> {
+                final DSLContext txContext = DSL.using(configuration);
+                final Condition responsesCondition = OMPAY_RESPONSES.KB_PAYMENT_ID.in(kbPaymentIds);
+                final Condition payloadsCondition = OMPAY_RESPONSE_PAYLOADS.RESPONSE_RECORD_ID.in(
+                        DSL.select(OMPAY_RESPONSES.RECORD_ID).from(OMPAY_RESPONSES).where(responsesCondition));
+
+                txContext.insertInto(OMPAY_RESPONSE_PAYLOADS_ARCHIVE)
+                        .columns(OMPAY_RESPONSE_PAYLOADS_ARCHIVE.fields())
+                        .select(DSL.select(OMPAY_RESPONSE_PAYLOADS.fields()).from(OMPAY_RESPONSE_PAYLOADS).where(payloadsCondition))
+                        .execute();
+                txContext.insertInto(OMPAY_RESPONSES_ARCHIVE)
+                        .columns(OMPAY_RESPONSES_ARCHIVE.fields())
+                        .select(DSL.select(OMPAY_RESPONSES.fields()).from(OMPAY_RESPONSES).where(responsesCondition))
+                        .execute();
+
+                txContext.deleteFrom(OMPAY_RESPONSE_PAYLOADS).where(payloadsCondition).execute();
+                return txContext.deleteFrom(OMPAY_RESPONSES).where(responsesCondition).execute();
+            });
+        });
+    }
+
+    private Condition buildPaymentSearchCondition(final OmpayResponses responses, final OmpayResponsePayloads payloads, final String searchKey) {
+        // The raw payload lives in the side table, only matched through a correlated lookup
+        final Condition payloadCondition = DSL.exists(DSL.selectOne()
+                .from(payloads)
+                .where(payloads.RESPONSE_RECORD_ID.eq(responses.RECORD_ID))
+                .and(payloads.ADDITIONAL_DATA.likeIgnoreCase("%" + searchKey + "%")));
+
+        return kbIdCondition(responses.KB_PAYMENT_ID, searchKey)
+                .or(kbIdCondition(responses.KB_PAYMENT_TRANSACTION_ID, searchKey))
+                .or(responses.OMPAY_TRANSACTION_ID.likeIgnoreCase("%" + searchKey + "%"))
+                .or(responses.OMPAY_REFERENCE_ID.likeIgnoreCase("%" + searchKey + "%"))
+                .or(responses.OMPAY_PAYER_ID.likeIgnoreCase("%" + searchKey + "%"))
+                .or(payloadCondition);
+    }
+
+    private Condition buildPaymentMethodSearchCondition(final String searchKey) {
+        return kbIdCondition(OMPAY_PAYMENT_METHODS.KB_PAYMENT_METHOD_ID, searchKey)
+                .or(kbIdCondition(OMPAY_PAYMENT_METHODS.KB_ACCOUNT_ID, searchKey))
+                .or(OMPAY_PAYMENT_METHODS.OMPAY_CREDIT_CARD_ID.likeIgnoreCase("%" + searchKey + "%"))
+                .or(OMPAY_PAYMENT_METHODS.OMPAY_PAYER_ID.likeIgnoreCase("%" + searchKey + "%"))
+                .or(OMPAY_PAYMENT_METHODS.ADDITIONAL_DATA.likeIgnoreCase("%" + searchKey + "%"));
+    }
+
+    /**
+     * A full id is matched on the column itself (index friendly, works for every storage); a partial id
+     * falls back to a substring match on the text form, which BINARY(16) columns (MySQL) don't have.
+     */
+    private Condition kbIdCondition(final Field<UUID> field, final String searchKey) {
+        final UUID uuid = parseUuid(searchKey);
+        if (uuid != null) {
+            return field.eq(uuid);
+        }
+        if (OmPayUuidBinding.isNativeStorage() && dialect.family() != SQLDialect.POSTGRES) {
+            return DSL.falseCondition();
+        }
+        return field.cast(SQLDataType.VARCHAR).likeIgnoreCase("%" + searchKey + "%");
+    }
+
+    @Nullable
+    private static UUID parseUuid(final String value) {
+        if (value == null || value.length() != 36) {
+            return null;
+        }
+        try {
+            return UUID.fromString(value);
+        } catch (final IllegalArgumentException e) {
+            return null;
+        }
+    }
+
     /**
      * Search for payment methods matching a search key.
      *
@@ -601,22 +1848,18 @@ public class OmPayDao extends PluginPaymentDao<
      * @throws SQLException If a database error occurs
      */
     public List<PaymentMethodPlugin> searchPaymentMethods(final String searchKey, final Long offset, final Long limit, final UUID kbTenantId) throws SQLException {
-        return execute(dataSource.getConnection(), (Connection conn) -> {
+        return execute(readConnection(), (Connection conn) -> {
             // Override settings to force lowercase table names
             final Settings lowercaseSettings = new Settings()
                     .withRenderQuotedNames(RenderQuotedNames.NEVER);
             final DSLContext dslContext = DSL.using(conn, dialect, lowercaseSettings);
 
             // Search across multiple fields
-            Condition searchCondition = OMPAY_PAYMENT_METHODS.KB_PAYMENT_METHOD_ID.likeIgnoreCase("%" + searchKey + "%")
-                    .or(OMPAY_PAYMENT_METHODS.KB_ACCOUNT_ID.likeIgnoreCase("%" + searchKey + "%"))
-                    .or(OMPAY_PAYMENT_METHODS.OMPAY_CREDIT_CARD_ID.likeIgnoreCase("%" + searchKey + "%"))
-                    .or(OMPAY_PAYMENT_METHODS.OMPAY_PAYER_ID.likeIgnoreCase("%" + searchKey + "%"))
-                    .or(OMPAY_PAYMENT_METHODS.ADDITIONAL_DATA.likeIgnoreCase("%" + searchKey + "%"));
+            final Condition searchCondition = buildPaymentMethodSearchCondition(searchKey);
 
             List<OmpayPaymentMethodsRecord> records = dslContext.selectFrom(OMPAY_PAYMENT_METHODS)
                     .where(searchCondition)
-                    .and(OMPAY_PAYMENT_METHODS.KB_TENANT_ID.eq(kbTenantId.toString()))
+                    .and(OMPAY_PAYMENT_METHODS.KB_TENANT_ID.eq(kbTenantId))
                     .and(OMPAY_PAYMENT_METHODS.IS_DELETED.ne((short) 1))
                     .orderBy(OMPAY_PAYMENT_METHODS.CREATED_DATE.desc())
                     .limit(limit)
@@ -638,22 +1881,18 @@ public class OmPayDao extends PluginPaymentDao<
      * @throws SQLException If a database error occurs
      */
     public Long getPaymentMethodCount(final String searchKey, final UUID kbTenantId) throws SQLException {
-        return execute(dataSource.getConnection(), (Connection conn) -> {
+        return execute(readConnection(), (Connection conn) -> {
             // Override settings to force lowercase table names
             final Settings lowercaseSettings = new Settings()
                     .withRenderQuotedNames(RenderQuotedNames.NEVER);
             final DSLContext dslContext = DSL.using(conn, dialect, lowercaseSettings);
 
-            Condition searchCondition = OMPAY_PAYMENT_METHODS.KB_PAYMENT_METHOD_ID.likeIgnoreCase("%" + searchKey + "%")
-                    .or(OMPAY_PAYMENT_METHODS.KB_ACCOUNT_ID.likeIgnoreCase("%" + searchKey + "%"))
-                    .or(OMPAY_PAYMENT_METHODS.OMPAY_CREDIT_CARD_ID.likeIgnoreCase("%" + searchKey + "%"))
-                    .or(OMPAY_PAYMENT_METHODS.OMPAY_PAYER_ID.likeIgnoreCase("%" + searchKey + "%"))
-                    .or(OMPAY_PAYMENT_METHODS.ADDITIONAL_DATA.likeIgnoreCase("%" + searchKey + "%"));
+            final Condition searchCondition = buildPaymentMethodSearchCondition(searchKey);
 
             return dslContext.selectCount()
                     .from(OMPAY_PAYMENT_METHODS)
                     .where(searchCondition)
-                    .and(OMPAY_PAYMENT_METHODS.KB_TENANT_ID.eq(kbTenantId.toString()))
+                    .and(OMPAY_PAYMENT_METHODS.KB_TENANT_ID.eq(kbTenantId))
                     .and(OMPAY_PAYMENT_METHODS.IS_DELETED.ne((short) 1))
                     .fetchOne(0, Long.class);
         });
@@ -682,10 +1921,27 @@ public class OmPayDao extends PluginPaymentDao<
         }
 
         return new OmPayPaymentMethodPlugin(
-                UUID.fromString(record.getKbPaymentMethodId()),
+                record.getKbPaymentMethodId(),
                 record.getOmpayCreditCardId(),
                 record.getIsDefault() == 1,
                 pmProperties
         );
     }
+
+    private static Map<String, Object> extractResult(@Nullable final Map<String, Object> additionalDataMap) {
+        if (additionalDataMap != null && additionalDataMap.get("result") instanceof Map) {
+            return (Map<String, Object>) additionalDataMap.get("result");
+        }
+        return Collections.emptyMap();
+    }
+
+    @Nullable
+    private static String asString(@Nullable final Object value) {
+        return value == null ? null : value.toString();
+    }
+
+    @Nullable
+    private static String truncate(@Nullable final String value, final int maxLength) {
+        return value == null || value.length() <= maxLength ? value : value.substring(0, maxLength);
+    }
 }
\ No newline at end of file
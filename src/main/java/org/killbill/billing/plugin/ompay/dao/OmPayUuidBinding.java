@@ -0,0 +1,176 @@
+/*
+ * Copyright 2025 GAIM-TECH-OM
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package org.killbill.billing.plugin.ompay.dao;
+
+import java.nio.ByteBuffer;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Types;
+import java.util.UUID;
+
+import org.jooq.Binding;
+import org.jooq.BindingGetResultSetContext;
+import org.jooq.BindingGetSQLInputContext;
+import org.jooq.BindingGetStatementContext;
+import org.jooq.BindingRegisterContext;
+import org.jooq.BindingSQLContext;
+import org.jooq.BindingSetSQLOutputContext;
+import org.jooq.BindingSetStatementContext;
+import org.jooq.Converter;
+import org.jooq.SQLDialect;
+import org.jooq.conf.ParamType;
+import org.jooq.impl.DSL;
+
+import com.google.common.io.BaseEncoding;
+
+/**
+ * jOOQ binding for the Kill Bill identifiers (kb_*_id columns), exposed as {@link UUID} in the generated classes.
+ * The generated fields are declared as CHAR(36), but values are bound, and rendered when inlined, in the storage mode.
+ * <p>
+ * Depending on the storage mode, the columns are either CHAR(36) (default, see ddl.sql) or native:
+ * uuid on PostgreSQL and BINARY(16) on MySQL (see resources/uuid).
+ * The storage mode is global to the plugin and set once at startup.
+ */
+public class OmPayUuidBinding implements Binding<String, UUID> {
+
+    private static final BaseEncoding HEX = BaseEncoding.base16().lowerCase();
+
+    private static volatile boolean nativeStorage = false;
+
+    private static final Converter<String, UUID> CONVERTER = new Converter<String, UUID>() {
+        @Override
+        public UUID from(final String databaseObject) {
+            return toUUID(databaseObject);
+        }
+
+        @Override
+        public String to(final UUID userObject) {
+            return userObject == null ? null : userObject.toString();
+        }
+
+        @Override
+        public Class<String> fromType() {
+            return String.class;
+        }
+
+        @Override
+        public Class<UUID> toType() {
+            return UUID.class;
+        }
+    };
+
+    public static void setNativeStorage(final boolean enabled) {
+        nativeStorage = enabled;
+    }
+
+    public static boolean isNativeStorage() {
+        return nativeStorage;
+    }
+
+    @Override
+    public Converter<String, UUID> converter() {
+        return CONVERTER;
+    }
+
+    @Override
+    public void sql(final BindingSQLContext<UUID> ctx) throws SQLException {
+        if (ctx.render().paramType() == ParamType.INLINED) {
+            final UUID value = ctx.value();
+            if (value == null || !nativeStorage) {
+                ctx.render().visit(DSL.inline(ctx.convert(converter()).value()));
+            } else if (isPostgres(ctx.dialect())) {
+                ctx.render().visit(DSL.inline(value.toString()));
+                ctx.render().sql("::uuid");
+            } else {
+                // BINARY(16): hexadecimal literal of the same bytes as the bound value
+                ctx.render().sql("X'" + HEX.encode(toBytes(value)) + "'");
+            }
+        } else {
+            ctx.render().sql(ctx.variable());
+        }
+    }
+
+    @Override
+    public void register(final BindingRegisterContext<UUID> ctx) throws SQLException {
+        ctx.statement().registerOutParameter(ctx.index(), sqlType(ctx.dialect()));
+    }
+
+    @Override
+    public void set(final BindingSetStatementContext<UUID> ctx) throws SQLException {
+        final UUID value = ctx.value();
+        if (value == null) {
+            ctx.statement().setNull(ctx.index(), sqlType(ctx.dialect()));
+        } else if (!nativeStorage) {
+            ctx.statement().setString(ctx.index(), value.toString());
+        } else if (isPostgres(ctx.dialect())) {
+            ctx.statement().setObject(ctx.index(), value);
+        } else {
+            ctx.statement().setBytes(ctx.index(), toBytes(value));
+        }
+    }
+
+    @Override
+    public void set(final BindingSetSQLOutputContext<UUID> ctx) throws SQLException {
+        throw new SQLFeatureNotSupportedException();
+    }
+
+    @Override
+    public void get(final BindingGetResultSetContext<UUID> ctx) throws SQLException {
+        ctx.value(toUUID(ctx.resultSet().getObject(ctx.index())));
+    }
+
+    @Override
+    public void get(final BindingGetStatementContext<UUID> ctx) throws SQLException {
+        ctx.value(toUUID(ctx.statement().getObject(ctx.index())));
+    }
+
+    @Override
+    public void get(final BindingGetSQLInputContext<UUID> ctx) throws SQLException {
+        throw new SQLFeatureNotSupportedException();
+    }
+
+    private static int sqlType(final SQLDialect dialect) {
+        if (!nativeStorage) {
+            return Types.CHAR;
+        }
+        return isPostgres(dialect) ? Types.OTHER : Types.BINARY;
+    }
+
+    private static boolean isPostgres(final SQLDialect dialect) {
+        return dialect != null && dialect.family() == SQLDialect.POSTGRES;
+    }
+
+    // Reads whatever the driver returns, so that rows can be read in both storage modes
+    private static UUID toUUID(final Object databaseObject) {
+        if (databaseObject == null) {
+            return null;
+        } else if (databaseObject instanceof UUID) {
+            return (UUID) databaseObject;
+        } else if (databaseObject instanceof byte[]) {
+            final ByteBuffer buffer = ByteBuffer.wrap((byte[]) databaseObject);
+            return new UUID(buffer.getLong(), buffer.getLong());
+        } else {
+            return UUID.fromString(databaseObject.toString().trim());
+        }
+    }
+
+    private static byte[] toBytes(final UUID uuid) {
+        return ByteBuffer.allocate(16)
+                .putLong(uuid.getMostSignificantBits())
+                .putLong(uuid.getLeastSignificantBits())
+                .array();
+    }
+}
@@ -8,8 +8,12 @@ import org.jooq.Index;
 import org.jooq.OrderField;
 import org.jooq.impl.DSL;
 import org.jooq.impl.Internal;
+import org.killbill.billing.plugin.ompay.dao.gen.tables.OmpayNonceRequests;
+import org.killbill.billing.plugin.ompay.dao.gen.tables.OmpayNotificationOutbox;
 import org.killbill.billing.plugin.ompay.dao.gen.tables.OmpayPaymentMethods;
 import org.killbill.billing.plugin.ompay.dao.gen.tables.OmpayResponses;
+import org.killbill.billing.plugin.ompay.dao.gen.tables.OmpayWebhookInbox;
+import org.killbill.billing.plugin.ompay.dao.gen.tables.OmpayWebhookNotificationIds;
 
 
 /**
@@ -22,9 +26,17 @@ public class Indexes {
     // INDEX definitions
     // -------------------------------------------------------------------------
 
+    public static final Index IDX_OMPAY_RESPONSES_STATUS = Internal.createIndex(DSL.name("idx_ompay_responses_status"), OmpayResponses.OMPAY_RESPONSES, new OrderField[] { OmpayResponses.OMPAY_RESPONSES.OMPAY_STATE }, false);
+    public static final Index OMPAY_NONCE_REQUESTS_CREATED_DATE = Internal.createIndex(DSL.name("ompay_nonce_requests_created_date"), OmpayNonceRequests.OMPAY_NONCE_REQUESTS, new OrderField[] { OmpayNonceRequests.OMPAY_NONCE_REQUESTS.CREATED_DATE }, false);
+    public static final Index OMPAY_NONCE_REQUESTS_NONCE_HASH = Internal.createIndex(DSL.name("ompay_nonce_requests_nonce_hash"), OmpayNonceRequests.OMPAY_NONCE_REQUESTS, new OrderField[] { OmpayNonceRequests.OMPAY_NONCE_REQUESTS.KB_TENANT_ID, OmpayNonceRequests.OMPAY_NONCE_REQUESTS.NONCE_HASH }, true);
+    public static final Index OMPAY_NOTIFICATION_OUTBOX_NEXT_ATTEMPT_DATE = Internal.createIndex(DSL.name("ompay_notification_outbox_next_attempt_date"), OmpayNotificationOutbox.OMPAY_NOTIFICATION_OUTBOX, new OrderField[] { OmpayNotificationOutbox.OMPAY_NOTIFICATION_OUTBOX.NEXT_ATTEMPT_DATE }, false);
     public static final Index OMPAY_PAYMENT_METHODS_KB_PAYMENT_METHOD_ID = Internal.createIndex(DSL.name("ompay_payment_methods_kb_payment_method_id"), OmpayPaymentMethods.OMPAY_PAYMENT_METHODS, new OrderField[] { OmpayPaymentMethods.OMPAY_PAYMENT_METHODS.KB_PAYMENT_METHOD_ID }, true);
     public static final Index OMPAY_RESPONSES_KB_PAYMENT_ID = Internal.createIndex(DSL.name("ompay_responses_kb_payment_id"), OmpayResponses.OMPAY_RESPONSES, new OrderField[] { OmpayResponses.OMPAY_RESPONSES.KB_PAYMENT_ID }, false);
     public static final Index OMPAY_RESPONSES_KB_PAYMENT_TRANSACTION_ID = Internal.createIndex(DSL.name("ompay_responses_kb_payment_transaction_id"), OmpayResponses.OMPAY_RESPONSES, new OrderField[] { OmpayResponses.OMPAY_RESPONSES.KB_PAYMENT_TRANSACTION_ID }, false);
     public static final Index OMPAY_RESPONSES_OMPAY_REFERENCE_ID = Internal.createIndex(DSL.name("ompay_responses_ompay_reference_id"), OmpayResponses.OMPAY_RESPONSES, new OrderField[] { OmpayResponses.OMPAY_RESPONSES.OMPAY_REFERENCE_ID }, false);
     public static final Index OMPAY_RESPONSES_OMPAY_TRANSACTION_ID = Internal.createIndex(DSL.name("ompay_responses_ompay_transaction_id"), OmpayResponses.OMPAY_RESPONSES, new OrderField[] { OmpayResponses.OMPAY_RESPONSES.OMPAY_TRANSACTION_ID }, false);
+    public static final Index OMPAY_WEBHOOK_INBOX_NEXT_ATTEMPT_DATE = Internal.createIndex(DSL.name("ompay_webhook_inbox_next_attempt_date"), OmpayWebhookInbox.OMPAY_WEBHOOK_INBOX, new OrderField[] { OmpayWebhookInbox.OMPAY_WEBHOOK_INBOX.NEXT_ATTEMPT_DATE }, false);
+    public static final Index OMPAY_WEBHOOK_INBOX_ORDERING_KEY = Internal.createIndex(DSL.name("ompay_webhook_inbox_ordering_key"), OmpayWebhookInbox.OMPAY_WEBHOOK_INBOX, new OrderField[] { OmpayWebhookInbox.OMPAY_WEBHOOK_INBOX.ORDERING_KEY }, false);
+    public static final Index OMPAY_WEBHOOK_NOTIFICATION_IDS_CREATED_DATE = Internal.createIndex(DSL.name("ompay_webhook_notification_ids_created_date"), OmpayWebhookNotificationIds.OMPAY_WEBHOOK_NOTIFICATION_IDS, new OrderField[] { OmpayWebhookNotificationIds.OMPAY_WEBHOOK_NOTIFICATION_IDS.CREATED_DATE }, false);
+    public static final Index OMPAY_WEBHOOK_NOTIFICATION_IDS_NOTIFICATION_ID = Internal.createIndex(DSL.name("ompay_webhook_notification_ids_notification_id"), OmpayWebhookNotificationIds.OMPAY_WEBHOOK_NOTIFICATION_IDS, new OrderField[] { OmpayWebhookNotificationIds.OMPAY_WEBHOOK_NOTIFICATION_IDS.KB_TENANT_ID, OmpayWebhookNotificationIds.OMPAY_WEBHOOK_NOTIFICATION_IDS.NOTIFICATION_ID }, true);
 }
@@ -8,10 +8,22 @@ import org.jooq.TableField;
 import org.jooq.UniqueKey;
 import org.jooq.impl.DSL;
 import org.jooq.impl.Internal;
+import org.killbill.billing.plugin.ompay.dao.gen.tables.OmpayNodeLeases;
+import org.killbill.billing.plugin.ompay.dao.gen.tables.OmpayNonceRequests;
+import org.killbill.billing.plugin.ompay.dao.gen.tables.OmpayNotificationOutbox;
 import org.killbill.billing.plugin.ompay.dao.gen.tables.OmpayPaymentMethods;
+import org.killbill.billing.plugin.ompay.dao.gen.tables.OmpayResponsePayloads;
 import org.killbill.billing.plugin.ompay.dao.gen.tables.OmpayResponses;
+import org.killbill.billing.plugin.ompay.dao.gen.tables.OmpayWebhookInbox;
+import org.killbill.billing.plugin.ompay.dao.gen.tables.OmpayWebhookNotificationIds;
+import org.killbill.billing.plugin.ompay.dao.gen.tables.records.OmpayNodeLeasesRecord;
+import org.killbill.billing.plugin.ompay.dao.gen.tables.records.OmpayNonceRequestsRecord;
+import org.killbill.billing.plugin.ompay.dao.gen.tables.records.OmpayNotificationOutboxRecord;
 import org.killbill.billing.plugin.ompay.dao.gen.tables.records.OmpayPaymentMethodsRecord;
+import org.killbill.billing.plugin.ompay.dao.gen.tables.records.OmpayResponsePayloadsRecord;
 import org.killbill.billing.plugin.ompay.dao.gen.tables.records.OmpayResponsesRecord;
+import org.killbill.billing.plugin.ompay.dao.gen.tables.records.OmpayWebhookInboxRecord;
+import org.killbill.billing.plugin.ompay.dao.gen.tables.records.OmpayWebhookNotificationIdsRecord;
 
 
 /**
@@ -25,6 +37,12 @@ public class Keys {
     // UNIQUE and PRIMARY KEY definitions
     // -------------------------------------------------------------------------
 
+    public static final UniqueKey<OmpayNodeLeasesRecord> OMPAY_NODE_LEASES_PKEY = Internal.createUniqueKey(OmpayNodeLeases.OMPAY_NODE_LEASES, DSL.name("ompay_node_leases_pkey"), new TableField[] { OmpayNodeLeases.OMPAY_NODE_LEASES.NODE_ID }, true);
+    public static final UniqueKey<OmpayNonceRequestsRecord> OMPAY_NONCE_REQUESTS_PKEY = Internal.createUniqueKey(OmpayNonceRequests.OMPAY_NONCE_REQUESTS, DSL.name("ompay_nonce_requests_pkey"), new TableField[] { OmpayNonceRequests.OMPAY_NONCE_REQUESTS.RECORD_ID }, true);
+    public static final UniqueKey<OmpayNotificationOutboxRecord> OMPAY_NOTIFICATION_OUTBOX_PKEY = Internal.createUniqueKey(OmpayNotificationOutbox.OMPAY_NOTIFICATION_OUTBOX, DSL.name("ompay_notification_outbox_pkey"), new TableField[] { OmpayNotificationOutbox.OMPAY_NOTIFICATION_OUTBOX.RECORD_ID }, true);
     public static final UniqueKey<OmpayPaymentMethodsRecord> OMPAY_PAYMENT_METHODS_PKEY = Internal.createUniqueKey(OmpayPaymentMethods.OMPAY_PAYMENT_METHODS, DSL.name("ompay_payment_methods_pkey"), new TableField[] { OmpayPaymentMethods.OMPAY_PAYMENT_METHODS.RECORD_ID }, true);
+    public static final UniqueKey<OmpayResponsePayloadsRecord> OMPAY_RESPONSE_PAYLOADS_PKEY = Internal.createUniqueKey(OmpayResponsePayloads.OMPAY_RESPONSE_PAYLOADS, DSL.name("ompay_response_payloads_pkey"), new TableField[] { OmpayResponsePayloads.OMPAY_RESPONSE_PAYLOADS.RESPONSE_RECORD_ID }, true);
     public static final UniqueKey<OmpayResponsesRecord> OMPAY_RESPONSES_PKEY = Internal.createUniqueKey(OmpayResponses.OMPAY_RESPONSES, DSL.name("ompay_responses_pkey"), new TableField[] { OmpayResponses.OMPAY_RESPONSES.RECORD_ID }, true);
+    public static final UniqueKey<OmpayWebhookInboxRecord> OMPAY_WEBHOOK_INBOX_PKEY = Internal.createUniqueKey(OmpayWebhookInbox.OMPAY_WEBHOOK_INBOX, DSL.name("ompay_webhook_inbox_pkey"), new TableField[] { OmpayWebhookInbox.OMPAY_WEBHOOK_INBOX.RECORD_ID }, true);
+    public static final UniqueKey<OmpayWebhookNotificationIdsRecord> OMPAY_WEBHOOK_NOTIFICATION_IDS_PKEY = Internal.createUniqueKey(OmpayWebhookNotificationIds.OMPAY_WEBHOOK_NOTIFICATION_IDS, DSL.name("ompay_webhook_notification_ids_pkey"), new TableField[] { OmpayWebhookNotificationIds.OMPAY_WEBHOOK_NOTIFICATION_IDS.RECORD_ID }, true);
 }
@@ -10,8 +10,14 @@ import java.util.List;
 import org.jooq.Catalog;
 import org.jooq.Table;
 import org.jooq.impl.SchemaImpl;
+import org.killbill.billing.plugin.ompay.dao.gen.tables.OmpayNodeLeases;
+import org.killbill.billing.plugin.ompay.dao.gen.tables.OmpayNonceRequests;
+import org.killbill.billing.plugin.ompay.dao.gen.tables.OmpayNotificationOutbox;
 import org.killbill.billing.plugin.ompay.dao.gen.tables.OmpayPaymentMethods;
+import org.killbill.billing.plugin.ompay.dao.gen.tables.OmpayResponsePayloads;
 import org.killbill.billing.plugin.ompay.dao.gen.tables.OmpayResponses;
+import org.killbill.billing.plugin.ompay.dao.gen.tables.OmpayWebhookInbox;
+import org.killbill.billing.plugin.ompay.dao.gen.tables.OmpayWebhookNotificationIds;
 
 
 /**
@@ -27,16 +33,46 @@ public class Public extends SchemaImpl {
      */
     public static final Public PUBLIC = new Public();
 
+    /**
+     * The table <code>public.ompay_node_leases</code>.
+     */
+    public final OmpayNodeLeases OMPAY_NODE_LEASES = OmpayNodeLeases.OMPAY_NODE_LEASES;
+
+    /**
+     * The table <code>public.ompay_nonce_requests</code>.
+     */
+    public final OmpayNonceRequests OMPAY_NONCE_REQUESTS = OmpayNonceRequests.OMPAY_NONCE_REQUESTS;
+
+    /**
+     * The table <code>public.ompay_notification_outbox</code>.
+     */
+    public final OmpayNotificationOutbox OMPAY_NOTIFICATION_OUTBOX = OmpayNotificationOutbox.OMPAY_NOTIFICATION_OUTBOX;
+
     /**
      * The table <code>public.ompay_payment_methods</code>.
      */
     public final OmpayPaymentMethods OMPAY_PAYMENT_METHODS = OmpayPaymentMethods.OMPAY_PAYMENT_METHODS;
 
+    /**
+     * The table <code>public.ompay_response_payloads</code>.
+     */
+    public final OmpayResponsePayloads OMPAY_RESPONSE_PAYLOADS = OmpayResponsePayloads.OMPAY_RESPONSE_PAYLOADS;
+
     /**
      * The table <code>public.ompay_responses</code>.
      */
     public final OmpayResponses OMPAY_RESPONSES = OmpayResponses.OMPAY_RESPONSES;
 
+    /**
+     * The table <code>public.ompay_webhook_inbox</code>.
+     */
+    public final OmpayWebhookInbox OMPAY_WEBHOOK_INBOX = OmpayWebhookInbox.OMPAY_WEBHOOK_INBOX;
+
+    /**
+     * The table <code>public.ompay_webhook_notification_ids</code>.
+     */
+    public final OmpayWebhookNotificationIds OMPAY_WEBHOOK_NOTIFICATION_IDS = OmpayWebhookNotificationIds.OMPAY_WEBHOOK_NOTIFICATION_IDS;
+
     /**
      * No further instances allowed
      */
@@ -53,8 +89,14 @@ public class Public extends SchemaImpl {
     @Override
     public final List<Table<?>> getTables() {
         return Arrays.asList(
+            OmpayNodeLeases.OMPAY_NODE_LEASES,
+            OmpayNonceRequests.OMPAY_NONCE_REQUESTS,
+            OmpayNotificationOutbox.OMPAY_NOTIFICATION_OUTBOX,
             OmpayPaymentMethods.OMPAY_PAYMENT_METHODS,
-            OmpayResponses.OMPAY_RESPONSES
+            OmpayResponsePayloads.OMPAY_RESPONSE_PAYLOADS,
+            OmpayResponses.OMPAY_RESPONSES,
+            OmpayWebhookInbox.OMPAY_WEBHOOK_INBOX,
+            OmpayWebhookNotificationIds.OMPAY_WEBHOOK_NOTIFICATION_IDS
         );
     }
 }
@@ -4,8 +4,14 @@
 package org.killbill.billing.plugin.ompay.dao.gen;
 
 
+import org.killbill.billing.plugin.ompay.dao.gen.tables.OmpayNodeLeases;
+import org.killbill.billing.plugin.ompay.dao.gen.tables.OmpayNonceRequests;
+import org.killbill.billing.plugin.ompay.dao.gen.tables.OmpayNotificationOutbox;
 import org.killbill.billing.plugin.ompay.dao.gen.tables.OmpayPaymentMethods;
+import org.killbill.billing.plugin.ompay.dao.gen.tables.OmpayResponsePayloads;
 import org.killbill.billing.plugin.ompay.dao.gen.tables.OmpayResponses;
+import org.killbill.billing.plugin.ompay.dao.gen.tables.OmpayWebhookInbox;
+import org.killbill.billing.plugin.ompay.dao.gen.tables.OmpayWebhookNotificationIds;
 
 
 /**
@@ -14,13 +20,43 @@ import org.killbill.billing.plugin.ompay.dao.gen.tables.OmpayResponses;
 @SuppressWarnings({ "all", "unchecked", "rawtypes" })
 public class Tables {
 
+    /**
+     * The table <code>public.ompay_node_leases</code>.
+     */
+    public static final OmpayNodeLeases OMPAY_NODE_LEASES = OmpayNodeLeases.OMPAY_NODE_LEASES;
+
+    /**
+     * The table <code>public.ompay_nonce_requests</code>.
+     */
+    public static final OmpayNonceRequests OMPAY_NONCE_REQUESTS = OmpayNonceRequests.OMPAY_NONCE_REQUESTS;
+
+    /**
+     * The table <code>public.ompay_notification_outbox</code>.
+     */
+    public static final OmpayNotificationOutbox OMPAY_NOTIFICATION_OUTBOX = OmpayNotificationOutbox.OMPAY_NOTIFICATION_OUTBOX;
+
     /**
      * The table <code>public.ompay_payment_methods</code>.
      */
     public static final OmpayPaymentMethods OMPAY_PAYMENT_METHODS = OmpayPaymentMethods.OMPAY_PAYMENT_METHODS;
 
+    /**
+     * The table <code>public.ompay_response_payloads</code>.
+     */
+    public static final OmpayResponsePayloads OMPAY_RESPONSE_PAYLOADS = OmpayResponsePayloads.OMPAY_RESPONSE_PAYLOADS;
+
     /**
      * The table <code>public.ompay_responses</code>.
      */
     public static final OmpayResponses OMPAY_RESPONSES = OmpayResponses.OMPAY_RESPONSES;
+
+    /**
+     * The table <code>public.ompay_webhook_inbox</code>.
+     */
+    public static final OmpayWebhookInbox OMPAY_WEBHOOK_INBOX = OmpayWebhookInbox.OMPAY_WEBHOOK_INBOX;
+
+    /**
+     * The table <code>public.ompay_webhook_notification_ids</code>.
+     */
+    public static final OmpayWebhookNotificationIds OMPAY_WEBHOOK_NOTIFICATION_IDS = OmpayWebhookNotificationIds.OMPAY_WEBHOOK_NOTIFICATION_IDS;
 }
@@ -7,6 +7,7 @@ package org.killbill.billing.plugin.ompay.dao.gen.tables;
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
+import java.util.UUID;
 
 import org.jooq.Field;
 import org.jooq.ForeignKey;
@@ -23,6 +24,7 @@ import org.jooq.UniqueKey;
 import org.jooq.impl.DSL;
 import org.jooq.impl.SQLDataType;
 import org.jooq.impl.TableImpl;
+import org.killbill.billing.plugin.ompay.dao.OmPayUuidBinding;
 import org.killbill.billing.plugin.ompay.dao.gen.Indexes;
 import org.killbill.billing.plugin.ompay.dao.gen.Keys;
 import org.killbill.billing.plugin.ompay.dao.gen.Public;
@@ -58,13 +60,13 @@ public class OmpayPaymentMethods extends TableImpl<OmpayPaymentMethodsRecord> {
     /**
      * The column <code>public.ompay_payment_methods.kb_account_id</code>.
      */
-    public final TableField<OmpayPaymentMethodsRecord, String> KB_ACCOUNT_ID = createField(DSL.name("kb_account_id"), SQLDataType.CHAR(36).nullable(false), this, "");
+    public final TableField<OmpayPaymentMethodsRecord, UUID> KB_ACCOUNT_ID = createField(DSL.name("kb_account_id"), SQLDataType.CHAR(36).nullable(false), this, "", new OmPayUuidBinding());
 
     /**
      * The column
      * <code>public.ompay_payment_methods.kb_payment_method_id</code>.
      */
-    public final TableField<OmpayPaymentMethodsRecord, String> KB_PAYMENT_METHOD_ID = createField(DSL.name("kb_payment_method_id"), SQLDataType.CHAR(36).nullable(false), this, "");
+    public final TableField<OmpayPaymentMethodsRecord, UUID> KB_PAYMENT_METHOD_ID = createField(DSL.name("kb_payment_method_id"), SQLDataType.CHAR(36).nullable(false), this, "", new OmPayUuidBinding());
 
     /**
      * The column <code>public.ompay_payment_methods.ompay_payer_id</code>.
@@ -105,7 +107,7 @@ public class OmpayPaymentMethods extends TableImpl<OmpayPaymentMethodsRecord> {
     /**
      * The column <code>public.ompay_payment_methods.kb_tenant_id</code>.
      */
-    public final TableField<OmpayPaymentMethodsRecord, String> KB_TENANT_ID = createField(DSL.name("kb_tenant_id"), SQLDataType.CHAR(36).nullable(false), this, "");
+    public final TableField<OmpayPaymentMethodsRecord, UUID> KB_TENANT_ID = createField(DSL.name("kb_tenant_id"), SQLDataType.CHAR(36).nullable(false), this, "", new OmPayUuidBinding());
 
     private OmpayPaymentMethods(Name alias, Table<OmpayPaymentMethodsRecord> aliased) {
         this(alias, aliased, null);
@@ -193,7 +195,7 @@ public class OmpayPaymentMethods extends TableImpl<OmpayPaymentMethodsRecord> {
     // -------------------------------------------------------------------------
 
     @Override
-    public Row11<Integer, String, String, String, String, Short, Short, String, LocalDateTime, LocalDateTime, String> fieldsRow() {
+    public Row11<Integer, UUID, UUID, String, String, Short, Short, String, LocalDateTime, LocalDateTime, UUID> fieldsRow() {
         return (Row11) super.fieldsRow();
     }
 }
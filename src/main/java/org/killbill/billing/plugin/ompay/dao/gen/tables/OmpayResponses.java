@@ -8,6 +8,7 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
+import java.util.UUID;
 
 import org.jooq.Field;
 import org.jooq.ForeignKey;
@@ -15,7 +16,7 @@ import org.jooq.Identity;
 import org.jooq.Index;
 import org.jooq.Name;
 import org.jooq.Record;
-import org.jooq.Row17;
+import org.jooq.Row16;
 import org.jooq.Schema;
 import org.jooq.Table;
 import org.jooq.TableField;
@@ -24,6 +25,7 @@ import org.jooq.UniqueKey;
 import org.jooq.impl.DSL;
 import org.jooq.impl.SQLDataType;
 import org.jooq.impl.TableImpl;
+import org.killbill.billing.plugin.ompay.dao.OmPayUuidBinding;
 import org.killbill.billing.plugin.ompay.dao.gen.Indexes;
 import org.killbill.billing.plugin.ompay.dao.gen.Keys;
 import org.killbill.billing.plugin.ompay.dao.gen.Public;
@@ -59,17 +61,17 @@ public class OmpayResponses extends TableImpl<OmpayResponsesRecord> {
     /**
      * The column <code>public.ompay_responses.kb_account_id</code>.
      */
-    public final TableField<OmpayResponsesRecord, String> KB_ACCOUNT_ID = createField(DSL.name("kb_account_id"), SQLDataType.CHAR(36).nullable(false), this, "");
+    public final TableField<OmpayResponsesRecord, UUID> KB_ACCOUNT_ID = createField(DSL.name("kb_account_id"), SQLDataType.CHAR(36).nullable(false), this, "", new OmPayUuidBinding());
 
     /**
      * The column <code>public.ompay_responses.kb_payment_id</code>.
      */
-    public final TableField<OmpayResponsesRecord, String> KB_PAYMENT_ID = createField(DSL.name("kb_payment_id"), SQLDataType.CHAR(36).nullable(false), this, "");
+    public final TableField<OmpayResponsesRecord, UUID> KB_PAYMENT_ID = createField(DSL.name("kb_payment_id"), SQLDataType.CHAR(36).nullable(false), this, "", new OmPayUuidBinding());
 
     /**
      * The column <code>public.ompay_responses.kb_payment_transaction_id</code>.
      */
-    public final TableField<OmpayResponsesRecord, String> KB_PAYMENT_TRANSACTION_ID = createField(DSL.name("kb_payment_transaction_id"), SQLDataType.CHAR(36).nullable(false), this, "");
+    public final TableField<OmpayResponsesRecord, UUID> KB_PAYMENT_TRANSACTION_ID = createField(DSL.name("kb_payment_transaction_id"), SQLDataType.CHAR(36).nullable(false), this, "", new OmPayUuidBinding());
 
     /**
      * The column <code>public.ompay_responses.transaction_type</code>.
@@ -107,19 +109,20 @@ public class OmpayResponses extends TableImpl<OmpayResponsesRecord> {
     public final TableField<OmpayResponsesRecord, String> OMPAY_CARD_ID = createField(DSL.name("ompay_card_id"), SQLDataType.VARCHAR(255).defaultValue(DSL.field("NULL::character varying", SQLDataType.VARCHAR)), this, "");
 
     /**
-     * The column <code>public.ompay_responses.redirect_url</code>.
+     * The column <code>public.ompay_responses.ompay_state</code>.
      */
-    public final TableField<OmpayResponsesRecord, String> REDIRECT_URL = createField(DSL.name("redirect_url"), SQLDataType.CLOB, this, "");
+    public final TableField<OmpayResponsesRecord, String> OMPAY_STATE = createField(DSL.name("ompay_state"), SQLDataType.VARCHAR(32).defaultValue(DSL.field("NULL::character varying", SQLDataType.VARCHAR)), this, "");
 
     /**
-     * The column <code>public.ompay_responses.authenticate_url</code>.
+     * The column <code>public.ompay_responses.ompay_result_code</code>.
      */
-    public final TableField<OmpayResponsesRecord, String> AUTHENTICATE_URL = createField(DSL.name("authenticate_url"), SQLDataType.CLOB, this, "");
+    public final TableField<OmpayResponsesRecord, String> OMPAY_RESULT_CODE = createField(DSL.name("ompay_result_code"), SQLDataType.VARCHAR(64).defaultValue(DSL.field("NULL::character varying", SQLDataType.VARCHAR)), this, "");
 
     /**
-     * The column <code>public.ompay_responses.additional_data</code>.
+     * The column
+     * <code>public.ompay_responses.ompay_result_description</code>.
      */
-    public final TableField<OmpayResponsesRecord, String> ADDITIONAL_DATA = createField(DSL.name("additional_data"), SQLDataType.CLOB.defaultValue(DSL.field("NULL::text", SQLDataType.CLOB)), this, "");
+    public final TableField<OmpayResponsesRecord, String> OMPAY_RESULT_DESCRIPTION = createField(DSL.name("ompay_result_description"), SQLDataType.VARCHAR(255).defaultValue(DSL.field("NULL::character varying", SQLDataType.VARCHAR)), this, "");
 
     /**
      * The column <code>public.ompay_responses.created_date</code>.
@@ -129,12 +132,7 @@ public class OmpayResponses extends TableImpl<OmpayResponsesRecord> {
     /**
      * The column <code>public.ompay_responses.kb_tenant_id</code>.
      */
-    public final TableField<OmpayResponsesRecord, String> KB_TENANT_ID = createField(DSL.name("kb_tenant_id"), SQLDataType.CHAR(36).nullable(false), this, "");
-
-    /**
-     * The column <code>public.ompay_responses.ompay_state</code>.
-     */
-    public final TableField<OmpayResponsesRecord, String> OMPAY_STATE = createField(DSL.name("ompay_state"), SQLDataType.VARCHAR(32).defaultValue(DSL.field("NULL::character varying", SQLDataType.VARCHAR)), this, "");
+    public final TableField<OmpayResponsesRecord, UUID> KB_TENANT_ID = createField(DSL.name("kb_tenant_id"), SQLDataType.CHAR(36).nullable(false), this, "", new OmPayUuidBinding());
 
     private OmpayResponses(Name alias, Table<OmpayResponsesRecord> aliased) {
         this(alias, aliased, null);
@@ -176,7 +174,7 @@ public class OmpayResponses extends TableImpl<OmpayResponsesRecord> {
 
     @Override
     public List<Index> getIndexes() {
-        return Arrays.asList(Indexes.OMPAY_RESPONSES_KB_PAYMENT_ID, Indexes.OMPAY_RESPONSES_KB_PAYMENT_TRANSACTION_ID, Indexes.OMPAY_RESPONSES_OMPAY_REFERENCE_ID, Indexes.OMPAY_RESPONSES_OMPAY_TRANSACTION_ID);
+        return Arrays.asList(Indexes.IDX_OMPAY_RESPONSES_STATUS, Indexes.OMPAY_RESPONSES_KB_PAYMENT_ID, Indexes.OMPAY_RESPONSES_KB_PAYMENT_TRANSACTION_ID, Indexes.OMPAY_RESPONSES_OMPAY_REFERENCE_ID, Indexes.OMPAY_RESPONSES_OMPAY_TRANSACTION_ID);
     }
 
     @Override
@@ -216,11 +214,11 @@ public class OmpayResponses extends TableImpl<OmpayResponsesRecord> {
     }
 
     // -------------------------------------------------------------------------
-    // Row17 type methods
+    // Row16 type methods
     // -------------------------------------------------------------------------
 
     @Override
-    public Row17<Integer, String, String, String, String, BigDecimal, String, String, String, String, String, String, String, String, LocalDateTime, String, String> fieldsRow() {
-        return (Row17) super.fieldsRow();
+    public Row16<Integer, UUID, UUID, UUID, String, BigDecimal, String, String, String, String, String, String, String, String, LocalDateTime, UUID> fieldsRow() {
+        return (Row16) super.fieldsRow();
     }
 }
@@ -5,6 +5,7 @@ package org.killbill.billing.plugin.ompay.dao.gen.tables.records;
 
 
 import java.time.LocalDateTime;
+import java.util.UUID;
 
 import org.jooq.Field;
 import org.jooq.Record1;
@@ -18,7 +19,7 @@ import org.killbill.billing.plugin.ompay.dao.gen.tables.OmpayPaymentMethods;
  * This class is generated by jOOQ.
  */
 @SuppressWarnings({ "all", "unchecked", "rawtypes" })
-public class OmpayPaymentMethodsRecord extends UpdatableRecordImpl<OmpayPaymentMethodsRecord> implements Record11<Integer, String, String, String, String, Short, Short, String, LocalDateTime, LocalDateTime, String> {
+public class OmpayPaymentMethodsRecord extends UpdatableRecordImpl<OmpayPaymentMethodsRecord> implements Record11<Integer, UUID, UUID, String, String, Short, Short, String, LocalDateTime, LocalDateTime, UUID> {
 
     private static final long serialVersionUID = 1L;
 
@@ -39,22 +40,22 @@ public class OmpayPaymentMethodsRecord extends UpdatableRecordImpl<OmpayPaymentM
     /**
      * Setter for <code>public.ompay_payment_methods.kb_account_id</code>.
      */
-    public void setKbAccountId(String value) {
+    public void setKbAccountId(UUID value) {
         set(1, value);
     }
 
     /**
      * Getter for <code>public.ompay_payment_methods.kb_account_id</code>.
      */
-    public String getKbAccountId() {
-        return (String) get(1);
+    public UUID getKbAccountId() {
+        return (UUID) get(1);
     }
 
     /**
      * Setter for
      * <code>public.ompay_payment_methods.kb_payment_method_id</code>.
      */
-    public void setKbPaymentMethodId(String value) {
+    public void setKbPaymentMethodId(UUID value) {
         set(2, value);
     }
 
@@ -62,8 +63,8 @@ public class OmpayPaymentMethodsRecord extends UpdatableRecordImpl<OmpayPaymentM
      * Getter for
      * <code>public.ompay_payment_methods.kb_payment_method_id</code>.
      */
-    public String getKbPaymentMethodId() {
-        return (String) get(2);
+    public UUID getKbPaymentMethodId() {
+        return (UUID) get(2);
     }
 
     /**
@@ -169,15 +170,15 @@ public class OmpayPaymentMethodsRecord extends UpdatableRecordImpl<OmpayPaymentM
     /**
      * Setter for <code>public.ompay_payment_methods.kb_tenant_id</code>.
      */
-    public void setKbTenantId(String value) {
+    public void setKbTenantId(UUID value) {
         set(10, value);
     }
 
     /**
      * Getter for <code>public.ompay_payment_methods.kb_tenant_id</code>.
      */
-    public String getKbTenantId() {
-        return (String) get(10);
+    public UUID getKbTenantId() {
+        return (UUID) get(10);
     }
 
     // -------------------------------------------------------------------------
@@ -194,12 +195,12 @@ public class OmpayPaymentMethodsRecord extends UpdatableRecordImpl<OmpayPaymentM
     // -------------------------------------------------------------------------
 
     @Override
-    public Row11<Integer, String, String, String, String, Short, Short, String, LocalDateTime, LocalDateTime, String> fieldsRow() {
+    public Row11<Integer, UUID, UUID, String, String, Short, Short, String, LocalDateTime, LocalDateTime, UUID> fieldsRow() {
         return (Row11) super.fieldsRow();
     }
 
     @Override
-    public Row11<Integer, String, String, String, String, Short, Short, String, LocalDateTime, LocalDateTime, String> valuesRow() {
+    public Row11<Integer, UUID, UUID, String, String, Short, Short, String, LocalDateTime, LocalDateTime, UUID> valuesRow() {
         return (Row11) super.valuesRow();
     }
 
@@ -209,12 +210,12 @@ public class OmpayPaymentMethodsRecord extends UpdatableRecordImpl<OmpayPaymentM
     }
 
     @Override
-    public Field<String> field2() {
+    public Field<UUID> field2() {
         return OmpayPaymentMethods.OMPAY_PAYMENT_METHODS.KB_ACCOUNT_ID;
     }
 
     @Override
-    public Field<String> field3() {
+    public Field<UUID> field3() {
         return OmpayPaymentMethods.OMPAY_PAYMENT_METHODS.KB_PAYMENT_METHOD_ID;
     }
 
@@ -254,7 +255,7 @@ public class OmpayPaymentMethodsRecord extends UpdatableRecordImpl<OmpayPaymentM
     }
 
     @Override
-    public Field<String> field11() {
+    public Field<UUID> field11() {
         return OmpayPaymentMethods.OMPAY_PAYMENT_METHODS.KB_TENANT_ID;
     }
 
@@ -264,12 +265,12 @@ public class OmpayPaymentMethodsRecord extends UpdatableRecordImpl<OmpayPaymentM
     }
 
     @Override
-    public String component2() {
+    public UUID component2() {
         return getKbAccountId();
     }
 
     @Override
-    public String component3() {
+    public UUID component3() {
         return getKbPaymentMethodId();
     }
 
@@ -309,7 +310,7 @@ public class OmpayPaymentMethodsRecord extends UpdatableRecordImpl<OmpayPaymentM
     }
 
     @Override
-    public String component11() {
+    public UUID component11() {
         return getKbTenantId();
     }
 
@@ -319,12 +320,12 @@ public class OmpayPaymentMethodsRecord extends UpdatableRecordImpl<OmpayPaymentM
     }
 
     @Override
-    public String value2() {
+    public UUID value2() {
         return getKbAccountId();
     }
 
     @Override
-    public String value3() {
+    public UUID value3() {
         return getKbPaymentMethodId();
     }
 
@@ -364,7 +365,7 @@ public class OmpayPaymentMethodsRecord extends UpdatableRecordImpl<OmpayPaymentM
     }
 
     @Override
-    public String value11() {
+    public UUID value11() {
         return getKbTenantId();
     }
 
@@ -375,13 +376,13 @@ public class OmpayPaymentMethodsRecord extends UpdatableRecordImpl<OmpayPaymentM
     }
 
     @Override
-    public OmpayPaymentMethodsRecord value2(String value) {
+    public OmpayPaymentMethodsRecord value2(UUID value) {
         setKbAccountId(value);
         return this;
     }
 
     @Override
-    public OmpayPaymentMethodsRecord value3(String value) {
+    public OmpayPaymentMethodsRecord value3(UUID value) {
         setKbPaymentMethodId(value);
         return this;
     }
@@ -429,13 +430,13 @@ public class OmpayPaymentMethodsRecord extends UpdatableRecordImpl<OmpayPaymentM
     }
 
     @Override
-    public OmpayPaymentMethodsRecord value11(String value) {
+    public OmpayPaymentMethodsRecord value11(UUID value) {
         setKbTenantId(value);
         return this;
     }
 
     @Override
-    public OmpayPaymentMethodsRecord values(Integer value1, String value2, String value3, String value4, String value5, Short value6, Short value7, String value8, LocalDateTime value9, LocalDateTime value10, String value11) {
+    public OmpayPaymentMethodsRecord values(Integer value1, UUID value2, UUID value3, String value4, String value5, Short value6, Short value7, String value8, LocalDateTime value9, LocalDateTime value10, UUID value11) {
         value1(value1);
         value2(value2);
         value3(value3);
@@ -464,7 +465,7 @@ public class OmpayPaymentMethodsRecord extends UpdatableRecordImpl<OmpayPaymentM
     /**
      * Create a detached, initialised OmpayPaymentMethodsRecord
      */
-    public OmpayPaymentMethodsRecord(Integer recordId, String kbAccountId, String kbPaymentMethodId, String ompayPayerId, String ompayCreditCardId, Short isDefault, Short isDeleted, String additionalData, LocalDateTime createdDate, LocalDateTime updatedDate, String kbTenantId) {
+    public OmpayPaymentMethodsRecord(Integer recordId, UUID kbAccountId, UUID kbPaymentMethodId, String ompayPayerId, String ompayCreditCardId, Short isDefault, Short isDeleted, String additionalData, LocalDateTime createdDate, LocalDateTime updatedDate, UUID kbTenantId) {
         super(OmpayPaymentMethods.OMPAY_PAYMENT_METHODS);
 
         setRecordId(recordId);
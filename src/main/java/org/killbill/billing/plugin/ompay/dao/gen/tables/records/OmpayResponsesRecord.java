@@ -6,11 +6,12 @@ package org.killbill.billing.plugin.ompay.dao.gen.tables.records;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.UUID;
 
 import org.jooq.Field;
 import org.jooq.Record1;
-import org.jooq.Record17;
-import org.jooq.Row17;
+import org.jooq.Record16;
+import org.jooq.Row16;
 import org.jooq.impl.UpdatableRecordImpl;
 import org.killbill.billing.plugin.ompay.dao.gen.tables.OmpayResponses;
 
@@ -19,7 +20,7 @@ import org.killbill.billing.plugin.ompay.dao.gen.tables.OmpayResponses;
  * This class is generated by jOOQ.
  */
 @SuppressWarnings({ "all", "unchecked", "rawtypes" })
-public class OmpayResponsesRecord extends UpdatableRecordImpl<OmpayResponsesRecord> implements Record17<Integer, String, String, String, String, BigDecimal, String, String, String, String, String, String, String, String, LocalDateTime, String, String> {
+public class OmpayResponsesRecord extends UpdatableRecordImpl<OmpayResponsesRecord> implements Record16<Integer, UUID, UUID, UUID, String, BigDecimal, String, String, String, String, String, String, String, String, LocalDateTime, UUID> {
 
     private static final long serialVersionUID = 1L;
 
@@ -40,43 +41,43 @@ public class OmpayResponsesRecord extends UpdatableRecordImpl<OmpayResponsesReco
     /**
      * Setter for <code>public.ompay_responses.kb_account_id</code>.
      */
-    public void setKbAccountId(String value) {
+    public void setKbAccountId(UUID value) {
         set(1, value);
     }
 
     /**
      * Getter for <code>public.ompay_responses.kb_account_id</code>.
      */
-    public String getKbAccountId() {
-        return (String) get(1);
+    public UUID getKbAccountId() {
+        return (UUID) get(1);
     }
 
     /**
      * Setter for <code>public.ompay_responses.kb_payment_id</code>.
      */
-    public void setKbPaymentId(String value) {
+    public void setKbPaymentId(UUID value) {
         set(2, value);
     }
 
     /**
      * Getter for <code>public.ompay_responses.kb_payment_id</code>.
      */
-    public String getKbPaymentId() {
-        return (String) get(2);
+    public UUID getKbPaymentId() {
+        return (UUID) get(2);
     }
 
     /**
      * Setter for <code>public.ompay_responses.kb_payment_transaction_id</code>.
      */
-    public void setKbPaymentTransactionId(String value) {
+    public void setKbPaymentTransactionId(UUID value) {
         set(3, value);
     }
 
     /**
      * Getter for <code>public.ompay_responses.kb_payment_transaction_id</code>.
      */
-    public String getKbPaymentTransactionId() {
-        return (String) get(3);
+    public UUID getKbPaymentTransactionId() {
+        return (UUID) get(3);
     }
 
     /**
@@ -178,44 +179,46 @@ public class OmpayResponsesRecord extends UpdatableRecordImpl<OmpayResponsesReco
     }
 
     /**
-     * Setter for <code>public.ompay_responses.redirect_url</code>.
+     * Setter for <code>public.ompay_responses.ompay_state</code>.
      */
-    public void setRedirectUrl(String value) {
+    public void setOmpayState(String value) {
         set(11, value);
     }
 
     /**
-     * Getter for <code>public.ompay_responses.redirect_url</code>.
+     * Getter for <code>public.ompay_responses.ompay_state</code>.
      */
-    public String getRedirectUrl() {
+    public String getOmpayState() {
         return (String) get(11);
     }
 
     /**
-     * Setter for <code>public.ompay_responses.authenticate_url</code>.
+     * Setter for <code>public.ompay_responses.ompay_result_code</code>.
      */
-    public void setAuthenticateUrl(String value) {
+    public void setOmpayResultCode(String value) {
         set(12, value);
     }
 
     /**
-     * Getter for <code>public.ompay_responses.authenticate_url</code>.
+     * Getter for <code>public.ompay_responses.ompay_result_code</code>.
      */
-    public String getAuthenticateUrl() {
+    public String getOmpayResultCode() {
         return (String) get(12);
     }
 
     /**
-     * Setter for <code>public.ompay_responses.additional_data</code>.
+     * Setter for
+     * <code>public.ompay_responses.ompay_result_description</code>.
      */
-    public void setAdditionalData(String value) {
+    public void setOmpayResultDescription(String value) {
         set(13, value);
     }
 
     /**
-     * Getter for <code>public.ompay_responses.additional_data</code>.
+     * Getter for
+     * <code>public.ompay_responses.ompay_result_description</code>.
      */
-    public String getAdditionalData() {
+    public String getOmpayResultDescription() {
         return (String) get(13);
     }
 
@@ -236,29 +239,15 @@ public class OmpayResponsesRecord extends UpdatableRecordImpl<OmpayResponsesReco
     /**
      * Setter for <code>public.ompay_responses.kb_tenant_id</code>.
      */
-    public void setKbTenantId(String value) {
+    public void setKbTenantId(UUID value) {
         set(15, value);
     }
 
     /**
      * Getter for <code>public.ompay_responses.kb_tenant_id</code>.
      */
-    public String getKbTenantId() {
-        return (String) get(15);
-    }
-
-    /**
-     * Setter for <code>public.ompay_responses.ompay_state</code>.
-     */
-    public void setOmpayState(String value) {
-        set(16, value);
-    }
-
-    /**
-     * Getter for <code>public.ompay_responses.ompay_state</code>.
-     */
-    public String getOmpayState() {
-        return (String) get(16);
+    public UUID getKbTenantId() {
+        return (UUID) get(15);
     }
 
     // -------------------------------------------------------------------------
@@ -271,17 +260,17 @@ public class OmpayResponsesRecord extends UpdatableRecordImpl<OmpayResponsesReco
     }
 
     // -------------------------------------------------------------------------
-    // Record17 type implementation
+    // Record16 type implementation
     // -------------------------------------------------------------------------
 
     @Override
-    public Row17<Integer, String, String, String, String, BigDecimal, String, String, String, String, String, String, String, String, LocalDateTime, String, String> fieldsRow() {
-        return (Row17) super.fieldsRow();
+    public Row16<Integer, UUID, UUID, UUID, String, BigDecimal, String, String, String, String, String, String, String, String, LocalDateTime, UUID> fieldsRow() {
+        return (Row16) super.fieldsRow();
     }
 
     @Override
-    public Row17<Integer, String, String, String, String, BigDecimal, String, String, String, String, String, String, String, String, LocalDateTime, String, String> valuesRow() {
-        return (Row17) super.valuesRow();
+    public Row16<Integer, UUID, UUID, UUID, String, BigDecimal, String, String, String, String, String, String, String, String, LocalDateTime, UUID> valuesRow() {
+        return (Row16) super.valuesRow();
     }
 
     @Override
@@ -290,17 +279,17 @@ public class OmpayResponsesRecord extends UpdatableRecordImpl<OmpayResponsesReco
     }
 
     @Override
-    public Field<String> field2() {
+    public Field<UUID> field2() {
         return OmpayResponses.OMPAY_RESPONSES.KB_ACCOUNT_ID;
     }
 
     @Override
-    public Field<String> field3() {
+    public Field<UUID> field3() {
         return OmpayResponses.OMPAY_RESPONSES.KB_PAYMENT_ID;
     }
 
     @Override
-    public Field<String> field4() {
+    public Field<UUID> field4() {
         return OmpayResponses.OMPAY_RESPONSES.KB_PAYMENT_TRANSACTION_ID;
     }
 
@@ -341,17 +330,17 @@ public class OmpayResponsesRecord extends UpdatableRecordImpl<OmpayResponsesReco
 
     @Override
     public Field<String> field12() {
-        return OmpayResponses.OMPAY_RESPONSES.REDIRECT_URL;
+        return OmpayResponses.OMPAY_RESPONSES.OMPAY_STATE;
     }
 
     @Override
     public Field<String> field13() {
-        return OmpayResponses.OMPAY_RESPONSES.AUTHENTICATE_URL;
+        return OmpayResponses.OMPAY_RESPONSES.OMPAY_RESULT_CODE;
     }
 
     @Override
     public Field<String> field14() {
-        return OmpayResponses.OMPAY_RESPONSES.ADDITIONAL_DATA;
+        return OmpayResponses.OMPAY_RESPONSES.OMPAY_RESULT_DESCRIPTION;
     }
 
     @Override
@@ -360,32 +349,27 @@ public class OmpayResponsesRecord extends UpdatableRecordImpl<OmpayResponsesReco
     }
 
     @Override
-    public Field<String> field16() {
+    public Field<UUID> field16() {
         return OmpayResponses.OMPAY_RESPONSES.KB_TENANT_ID;
     }
 
-    @Override
-    public Field<String> field17() {
-        return OmpayResponses.OMPAY_RESPONSES.OMPAY_STATE;
-    }
-
     @Override
     public Integer component1() {
         return getRecordId();
     }
 
     @Override
-    public String component2() {
+    public UUID component2() {
         return getKbAccountId();
     }
 
     @Override
-    public String component3() {
+    public UUID component3() {
         return getKbPaymentId();
     }
 
     @Override
-    public String component4() {
+    public UUID component4() {
         return getKbPaymentTransactionId();
     }
 
@@ -426,17 +410,17 @@ public class OmpayResponsesRecord extends UpdatableRecordImpl<OmpayResponsesReco
 
     @Override
     public String component12() {
-        return getRedirectUrl();
+        return getOmpayState();
     }
 
     @Override
     public String component13() {
-        return getAuthenticateUrl();
+        return getOmpayResultCode();
     }
 
     @Override
     public String component14() {
-        return getAdditionalData();
+        return getOmpayResultDescription();
     }
 
     @Override
@@ -445,32 +429,27 @@ public class OmpayResponsesRecord extends UpdatableRecordImpl<OmpayResponsesReco
     }
 
     @Override
-    public String component16() {
+    public UUID component16() {
         return getKbTenantId();
     }
 
-    @Override
-    public String component17() {
-        return getOmpayState();
-    }
-
     @Override
     public Integer value1() {
         return getRecordId();
     }
 
     @Override
-    public String value2() {
+    public UUID value2() {
         return getKbAccountId();
     }
 
     @Override
-    public String value3() {
+    public UUID value3() {
         return getKbPaymentId();
     }
 
     @Override
-    public String value4() {
+    public UUID value4() {
         return getKbPaymentTransactionId();
     }
 
@@ -511,17 +490,17 @@ public class OmpayResponsesRecord extends UpdatableRecordImpl<OmpayResponsesReco
 
     @Override
     public String value12() {
-        return getRedirectUrl();
+        return getOmpayState();
     }
 
     @Override
     public String value13() {
-        return getAuthenticateUrl();
+        return getOmpayResultCode();
     }
 
     @Override
     public String value14() {
-        return getAdditionalData();
+        return getOmpayResultDescription();
     }
 
     @Override
@@ -530,15 +509,10 @@ public class OmpayResponsesRecord extends UpdatableRecordImpl<OmpayResponsesReco
     }
 
     @Override
-    public String value16() {
+    public UUID value16() {
         return getKbTenantId();
     }
 
-    @Override
-    public String value17() {
-        return getOmpayState();
-    }
-
     @Override
     public OmpayResponsesRecord value1(Integer value) {
         setRecordId(value);
@@ -546,19 +520,19 @@ public class OmpayResponsesRecord extends UpdatableRecordImpl<OmpayResponsesReco
     }
 
     @Override
-    public OmpayResponsesRecord value2(String value) {
+    public OmpayResponsesRecord value2(UUID value) {
         setKbAccountId(value);
         return this;
     }
 
     @Override
-    public OmpayResponsesRecord value3(String value) {
+    public OmpayResponsesRecord value3(UUID value) {
         setKbPaymentId(value);
         return this;
     }
 
     @Override
-    public OmpayResponsesRecord value4(String value) {
+    public OmpayResponsesRecord value4(UUID value) {
         setKbPaymentTransactionId(value);
         return this;
     }
@@ -607,19 +581,19 @@ public class OmpayResponsesRecord extends UpdatableRecordImpl<OmpayResponsesReco
 
     @Override
     public OmpayResponsesRecord value12(String value) {
-        setRedirectUrl(value);
+        setOmpayState(value);
         return this;
     }
 
     @Override
     public OmpayResponsesRecord value13(String value) {
-        setAuthenticateUrl(value);
+        setOmpayResultCode(value);
         return this;
     }
 
     @Override
     public OmpayResponsesRecord value14(String value) {
-        setAdditionalData(value);
+        setOmpayResultDescription(value);
         return this;
     }
 
@@ -630,19 +604,13 @@ public class OmpayResponsesRecord extends UpdatableRecordImpl<OmpayResponsesReco
     }
 
     @Override
-    public OmpayResponsesRecord value16(String value) {
+    public OmpayResponsesRecord value16(UUID value) {
         setKbTenantId(value);
         return this;
     }
 
     @Override
-    public OmpayResponsesRecord value17(String value) {
-        setOmpayState(value);
-        return this;
-    }
-
-    @Override
-    public OmpayResponsesRecord values(Integer value1, String value2, String value3, String value4, String value5, BigDecimal value6, String value7, String value8, String value9, String value10, String value11, String value12, String value13, String value14, LocalDateTime value15, String value16, String value17) {
+    public OmpayResponsesRecord values(Integer value1, UUID value2, UUID value3, UUID value4, String value5, BigDecimal value6, String value7, String value8, String value9, String value10, String value11, String value12, String value13, String value14, LocalDateTime value15, UUID value16) {
         value1(value1);
         value2(value2);
         value3(value3);
@@ -659,7 +627,6 @@ public class OmpayResponsesRecord extends UpdatableRecordImpl<OmpayResponsesReco
         value14(value14);
         value15(value15);
         value16(value16);
-        value17(value17);
         return this;
     }
 
@@ -677,7 +644,7 @@ public class OmpayResponsesRecord extends UpdatableRecordImpl<OmpayResponsesReco
     /**
      * Create a detached, initialised OmpayResponsesRecord
      */
-    public OmpayResponsesRecord(Integer recordId, String kbAccountId, String kbPaymentId, String kbPaymentTransactionId, String transactionType, BigDecimal amount, String currency, String ompayTransactionId, String ompayReferenceId, String ompayPayerId, String ompayCardId, String redirectUrl, String authenticateUrl, String additionalData, LocalDateTime createdDate, String kbTenantId, String ompayState) {
+    public OmpayResponsesRecord(Integer recordId, UUID kbAccountId, UUID kbPaymentId, UUID kbPaymentTransactionId, String transactionType, BigDecimal amount, String currency, String ompayTransactionId, String ompayReferenceId, String ompayPayerId, String ompayCardId, String ompayState, String ompayResultCode, String ompayResultDescription, LocalDateTime createdDate, UUID kbTenantId) {
         super(OmpayResponses.OMPAY_RESPONSES);
 
         setRecordId(recordId);
@@ -691,11 +658,10 @@ public class OmpayResponsesRecord extends UpdatableRecordImpl<OmpayResponsesReco
         setOmpayReferenceId(ompayReferenceId);
         setOmpayPayerId(ompayPayerId);
         setOmpayCardId(ompayCardId);
-        setRedirectUrl(redirectUrl);
-        setAuthenticateUrl(authenticateUrl);
-        setAdditionalData(additionalData);
+        setOmpayState(ompayState);
+        setOmpayResultCode(ompayResultCode);
+        setOmpayResultDescription(ompayResultDescription);
         setCreatedDate(createdDate);
         setKbTenantId(kbTenantId);
-        setOmpayState(ompayState);
     }
 }
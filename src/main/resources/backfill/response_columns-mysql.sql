@@ -0,0 +1,12 @@
+-- Fills ompay_state (when missing), ompay_result_code and ompay_result_description of the ompay_responses rows
+-- created before the payloads moved to ompay_response_payloads, from the stored OMPay response, for MySQL.
+-- Run once after the V20251018000000 migration, before enabling archival.enabled (which relies on ompay_state).
+
+UPDATE ompay_responses r
+JOIN ompay_response_payloads p ON p.response_record_id = r.record_id
+SET r.ompay_state = COALESCE(r.ompay_state, JSON_UNQUOTE(JSON_EXTRACT(p.additional_data, '$.state'))),
+    r.ompay_result_code = JSON_UNQUOTE(JSON_EXTRACT(p.additional_data, '$.result.code')),
+    r.ompay_result_description = LEFT(JSON_UNQUOTE(JSON_EXTRACT(p.additional_data, '$.result.description')), 255)
+WHERE p.additional_data IS NOT NULL
+  AND JSON_VALID(p.additional_data)
+  AND r.ompay_result_code IS NULL;
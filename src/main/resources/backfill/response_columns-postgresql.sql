@@ -0,0 +1,12 @@
+-- Fills ompay_state (when missing), ompay_result_code and ompay_result_description of the ompay_responses rows
+-- created before the payloads moved to ompay_response_payloads, from the stored OMPay response, for PostgreSQL.
+-- Run once after the V20251018000000 migration, before enabling archival.enabled (which relies on ompay_state).
+
+UPDATE ompay_responses r
+SET ompay_state = COALESCE(r.ompay_state, p.additional_data::json->>'state'),
+    ompay_result_code = p.additional_data::json->'result'->>'code',
+    ompay_result_description = LEFT(p.additional_data::json->'result'->>'description', 255)
+FROM ompay_response_payloads p
+WHERE p.response_record_id = r.record_id
+  AND p.additional_data IS NOT NULL
+  AND r.ompay_result_code IS NULL;
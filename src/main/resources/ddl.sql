@@ -14,10 +14,9 @@ CREATE TABLE ompay_responses (
     ompay_reference_id VARCHAR(255) DEFAULT NULL, -- OMpay response 'reference_id'
     ompay_payer_id VARCHAR(255) DEFAULT NULL, -- Store payer.payer_info.id
     ompay_card_id VARCHAR(255) DEFAULT NULL, -- Store payer.funding_instrument.credit_card.id (available after successful auth/payment)
-    redirect_url TEXT DEFAULT NULL, -- Store result.redirect_url for OTP
-    authenticate_url TEXT DEFAULT NULL, -- Store result.authenticate_url for OTP
-    additional_data LONGTEXT DEFAULT NULL, -- To store the full JSON response, including state, result.code, result.description etc.
     ompay_state VARCHAR(32) DEFAULT NULL,
+    ompay_result_code VARCHAR(64) DEFAULT NULL, -- OMPay response 'result.code'
+    ompay_result_description VARCHAR(255) DEFAULT NULL, -- OMPay response 'result.description' (truncated)
     created_date DATETIME NOT NULL,
     kb_tenant_id CHAR(36) NOT NULL
 );
@@ -27,6 +26,47 @@ CREATE INDEX ompay_responses_kb_payment_transaction_id ON ompay_responses(kb_pay
 CREATE INDEX ompay_responses_ompay_transaction_id ON ompay_responses(ompay_transaction_id);
 CREATE INDEX ompay_responses_ompay_reference_id ON ompay_responses(ompay_reference_id);
 
+-- Raw gateway payloads, kept out of ompay_responses so that the frequently read/updated rows stay narrow.
+-- One row per ompay_responses row, only fetched when the payload is explicitly needed.
+CREATE TABLE ompay_response_payloads (
+    response_record_id INTEGER PRIMARY KEY, -- ompay_responses.record_id
+    redirect_url TEXT DEFAULT NULL, -- Store result.redirect_url for OTP
+    authenticate_url TEXT DEFAULT NULL, -- Store result.authenticate_url for OTP
+    additional_data LONGTEXT DEFAULT NULL, -- To store the full JSON response, including state, result.code, result.description etc.
+    kb_tenant_id CHAR(36) NOT NULL
+);
+
+-- Cold storage for settled payments moved out of ompay_responses / ompay_response_payloads by the archival job.
+-- Same columns as the hot tables, record ids are preserved.
+CREATE TABLE ompay_responses_archive (
+    record_id INTEGER PRIMARY KEY,
+    kb_account_id CHAR(36) NOT NULL,
+    kb_payment_id CHAR(36) NOT NULL,
+    kb_payment_transaction_id CHAR(36) NOT NULL,
+    transaction_type VARCHAR(32) NOT NULL,
+    amount NUMERIC(15,9),
+    currency CHAR(3),
+    ompay_transaction_id VARCHAR(255) DEFAULT NULL,
+    ompay_reference_id VARCHAR(255) DEFAULT NULL,
+    ompay_payer_id VARCHAR(255) DEFAULT NULL,
+    ompay_card_id VARCHAR(255) DEFAULT NULL,
+    ompay_state VARCHAR(32) DEFAULT NULL,
+    ompay_result_code VARCHAR(64) DEFAULT NULL,
+    ompay_result_description VARCHAR(255) DEFAULT NULL,
+    created_date DATETIME NOT NULL,
+    kb_tenant_id CHAR(36) NOT NULL
+);
+CREATE INDEX ompay_responses_archive_kb_payment_id ON ompay_responses_archive(kb_payment_id);
+CREATE INDEX ompay_responses_archive_ompay_transaction_id ON ompay_responses_archive(ompay_transaction_id);
+
+CREATE TABLE ompay_response_payloads_archive (
+    response_record_id INTEGER PRIMARY KEY,
+    redirect_url TEXT DEFAULT NULL,
+    authenticate_url TEXT DEFAULT NULL,
+    additional_data LONGTEXT DEFAULT NULL,
+    kb_tenant_id CHAR(36) NOT NULL
+);
+
 
 CREATE TABLE ompay_payment_methods (
     record_id SERIAL PRIMARY KEY,
@@ -42,4 +82,72 @@ CREATE TABLE ompay_payment_methods (
     kb_tenant_id CHAR(36) NOT NULL
 );
 CREATE UNIQUE INDEX ompay_payment_methods_kb_payment_method_id ON ompay_payment_methods(kb_payment_method_id);
-CREATE INDEX ompay_payment_methods_ompay_credit_card_id ON ompay_payment_methods(ompay_credit_card_id);
\ No newline at end of file
+CREATE INDEX ompay_payment_methods_ompay_credit_card_id ON ompay_payment_methods(ompay_credit_card_id);
+
+-- Plugin instances of a Kill Bill cluster, used to split the background jobs between the live nodes.
+-- A node is live as long as its heartbeat is recent (see OmPayWorkPartitioner).
+CREATE TABLE ompay_node_leases (
+    node_id VARCHAR(64) PRIMARY KEY,
+    started_date DATETIME NOT NULL,
+    heartbeat_date DATETIME NOT NULL
+);
+
+-- Kill Bill notifications of pending transactions which reached a final state, written in the same transaction
+-- as the ompay_responses update and delivered asynchronously (see OmPayNotificationDispatcher).
+CREATE TABLE ompay_notification_outbox (
+    record_id SERIAL PRIMARY KEY,
+    kb_account_id CHAR(36) NOT NULL,
+    kb_payment_id CHAR(36) NOT NULL,
+    kb_payment_transaction_id CHAR(36) NOT NULL,
+    is_success SMALLINT NOT NULL,
+    attempts INTEGER NOT NULL DEFAULT 0,
+    next_attempt_date DATETIME NOT NULL,
+    last_error VARCHAR(255) DEFAULT NULL,
+    created_date DATETIME NOT NULL,
+    kb_tenant_id CHAR(36) NOT NULL
+);
+CREATE INDEX ompay_notification_outbox_next_attempt_date ON ompay_notification_outbox(next_attempt_date);
+
+-- Raw OMPay webhook notifications, acknowledged as soon as stored and processed asynchronously
+-- (see OmPayWebhookProcessor). Notifications sharing an ordering_key are processed in record_id order.
+CREATE TABLE ompay_webhook_inbox (
+    record_id SERIAL PRIMARY KEY,
+    notification_id VARCHAR(255) DEFAULT NULL,
+    ordering_key VARCHAR(255) NOT NULL,
+    body LONGTEXT NOT NULL,
+    attempts INTEGER NOT NULL DEFAULT 0,
+    next_attempt_date DATETIME NOT NULL,
+    last_error VARCHAR(255) DEFAULT NULL,
+    created_date DATETIME NOT NULL,
+    kb_tenant_id CHAR(36) DEFAULT NULL
+);
+CREATE INDEX ompay_webhook_inbox_next_attempt_date ON ompay_webhook_inbox(next_attempt_date);
+CREATE INDEX ompay_webhook_inbox_ordering_key ON ompay_webhook_inbox(ordering_key);
+
+-- Ids of the OMPay webhook notifications already received, per tenant: redeliveries are acknowledged without being
+-- stored again (see OmPayWebhookProcessor). Purged after inbox.dedupRetentionDays. Notifications without tenant are
+-- stored under the nil UUID, so that they conflict too.
+CREATE TABLE ompay_webhook_notification_ids (
+    record_id SERIAL PRIMARY KEY,
+    notification_id VARCHAR(255) NOT NULL,
+    created_date DATETIME NOT NULL,
+    kb_tenant_id CHAR(36) NOT NULL
+);
+CREATE UNIQUE INDEX ompay_webhook_notification_ids_notification_id ON ompay_webhook_notification_ids(kb_tenant_id, notification_id);
+CREATE INDEX ompay_webhook_notification_ids_created_date ON ompay_webhook_notification_ids(created_date);
+
+-- Payment nonces already submitted through /process-nonce, per tenant, keyed by the SHA-256 of the nonce: a double
+-- submission gets the payment of the first one instead of a second charge (see OmPayNonceRequests).
+-- Purged after nonceDedup.retentionMinutes.
+CREATE TABLE ompay_nonce_requests (
+    record_id SERIAL PRIMARY KEY,
+    nonce_hash CHAR(64) NOT NULL,
+    kb_account_id CHAR(36) NOT NULL,
+    kb_payment_id CHAR(36) NOT NULL,
+    kb_payment_transaction_id CHAR(36) NOT NULL,
+    transaction_type VARCHAR(32) NOT NULL,
+    created_date DATETIME NOT NULL,
+    kb_tenant_id CHAR(36) NOT NULL
+);
+CREATE UNIQUE INDEX ompay_nonce_requests_nonce_hash ON ompay_nonce_requests(kb_tenant_id, nonce_hash);
+CREATE INDEX ompay_nonce_requests_created_date ON ompay_nonce_requests(created_date);
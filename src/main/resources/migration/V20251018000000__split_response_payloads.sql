@@ -0,0 +1,20 @@
+-- Move the raw gateway payloads out of ompay_responses into ompay_response_payloads.
+-- Portable (MySQL and PostgreSQL): the new result columns of the existing rows are filled from the moved payloads by
+-- the backfill/response_columns-<database>.sql script.
+CREATE TABLE ompay_response_payloads (
+    response_record_id INTEGER PRIMARY KEY,
+    redirect_url TEXT DEFAULT NULL,
+    authenticate_url TEXT DEFAULT NULL,
+    additional_data LONGTEXT DEFAULT NULL,
+    kb_tenant_id CHAR(36) NOT NULL
+);
+
+ALTER TABLE ompay_responses ADD COLUMN ompay_result_code VARCHAR(64) DEFAULT NULL;
+ALTER TABLE ompay_responses ADD COLUMN ompay_result_description VARCHAR(255) DEFAULT NULL;
+
+INSERT INTO ompay_response_payloads (response_record_id, redirect_url, authenticate_url, additional_data, kb_tenant_id)
+SELECT record_id, redirect_url, authenticate_url, additional_data, kb_tenant_id FROM ompay_responses;
+
+ALTER TABLE ompay_responses DROP COLUMN redirect_url;
+ALTER TABLE ompay_responses DROP COLUMN authenticate_url;
+ALTER TABLE ompay_responses DROP COLUMN additional_data;
@@ -0,0 +1,30 @@
+-- Cold storage for settled payments moved out of ompay_responses / ompay_response_payloads by the archival job.
+-- Same columns as the hot tables, record ids are preserved.
+CREATE TABLE ompay_responses_archive (
+    record_id INTEGER PRIMARY KEY,
+    kb_account_id CHAR(36) NOT NULL,
+    kb_payment_id CHAR(36) NOT NULL,
+    kb_payment_transaction_id CHAR(36) NOT NULL,
+    transaction_type VARCHAR(32) NOT NULL,
+    amount NUMERIC(15,9),
+    currency CHAR(3),
+    ompay_transaction_id VARCHAR(255) DEFAULT NULL,
+    ompay_reference_id VARCHAR(255) DEFAULT NULL,
+    ompay_payer_id VARCHAR(255) DEFAULT NULL,
+    ompay_card_id VARCHAR(255) DEFAULT NULL,
+    ompay_state VARCHAR(32) DEFAULT NULL,
+    ompay_result_code VARCHAR(64) DEFAULT NULL,
+    ompay_result_description VARCHAR(255) DEFAULT NULL,
+    created_date DATETIME NOT NULL,
+    kb_tenant_id CHAR(36) NOT NULL
+);
+CREATE INDEX ompay_responses_archive_kb_payment_id ON ompay_responses_archive(kb_payment_id);
+CREATE INDEX ompay_responses_archive_ompay_transaction_id ON ompay_responses_archive(ompay_transaction_id);
+
+CREATE TABLE ompay_response_payloads_archive (
+    response_record_id INTEGER PRIMARY KEY,
+    redirect_url TEXT DEFAULT NULL,
+    authenticate_url TEXT DEFAULT NULL,
+    additional_data LONGTEXT DEFAULT NULL,
+    kb_tenant_id CHAR(36) NOT NULL
+);
@@ -0,0 +1,7 @@
+-- Plugin instances of a Kill Bill cluster, used to split the background jobs between the live nodes.
+-- A node is live as long as its heartbeat is recent (see OmPayWorkPartitioner).
+CREATE TABLE ompay_node_leases (
+    node_id VARCHAR(64) PRIMARY KEY,
+    started_date DATETIME NOT NULL,
+    heartbeat_date DATETIME NOT NULL
+);
@@ -0,0 +1,15 @@
+-- Kill Bill notifications of pending transactions which reached a final state, written in the same transaction
+-- as the ompay_responses update and delivered asynchronously (see OmPayNotificationDispatcher).
+CREATE TABLE ompay_notification_outbox (
+    record_id SERIAL PRIMARY KEY,
+    kb_account_id CHAR(36) NOT NULL,
+    kb_payment_id CHAR(36) NOT NULL,
+    kb_payment_transaction_id CHAR(36) NOT NULL,
+    is_success SMALLINT NOT NULL,
+    attempts INTEGER NOT NULL DEFAULT 0,
+    next_attempt_date DATETIME NOT NULL,
+    last_error VARCHAR(255) DEFAULT NULL,
+    created_date DATETIME NOT NULL,
+    kb_tenant_id CHAR(36) NOT NULL
+);
+CREATE INDEX ompay_notification_outbox_next_attempt_date ON ompay_notification_outbox(next_attempt_date);
@@ -0,0 +1,15 @@
+-- Raw OMPay webhook notifications, acknowledged as soon as stored and processed asynchronously
+-- (see OmPayWebhookProcessor). Notifications sharing an ordering_key are processed in record_id order.
+CREATE TABLE ompay_webhook_inbox (
+    record_id SERIAL PRIMARY KEY,
+    notification_id VARCHAR(255) DEFAULT NULL,
+    ordering_key VARCHAR(255) NOT NULL,
+    body LONGTEXT NOT NULL,
+    attempts INTEGER NOT NULL DEFAULT 0,
+    next_attempt_date DATETIME NOT NULL,
+    last_error VARCHAR(255) DEFAULT NULL,
+    created_date DATETIME NOT NULL,
+    kb_tenant_id CHAR(36) DEFAULT NULL
+);
+CREATE INDEX ompay_webhook_inbox_next_attempt_date ON ompay_webhook_inbox(next_attempt_date);
+CREATE INDEX ompay_webhook_inbox_ordering_key ON ompay_webhook_inbox(ordering_key);
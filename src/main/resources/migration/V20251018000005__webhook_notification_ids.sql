@@ -0,0 +1,11 @@
+-- Ids of the OMPay webhook notifications already received, per tenant: redeliveries are acknowledged without being
+-- stored again (see OmPayWebhookProcessor). Purged after inbox.dedupRetentionDays. Notifications without tenant are
+-- stored under the nil UUID, so that they conflict too.
+CREATE TABLE ompay_webhook_notification_ids (
+    record_id SERIAL PRIMARY KEY,
+    notification_id VARCHAR(255) NOT NULL,
+    created_date DATETIME NOT NULL,
+    kb_tenant_id CHAR(36) NOT NULL
+);
+CREATE UNIQUE INDEX ompay_webhook_notification_ids_notification_id ON ompay_webhook_notification_ids(kb_tenant_id, notification_id);
+CREATE INDEX ompay_webhook_notification_ids_created_date ON ompay_webhook_notification_ids(created_date);
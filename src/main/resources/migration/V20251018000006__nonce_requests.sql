@@ -0,0 +1,15 @@
+-- Payment nonces already submitted through /process-nonce, per tenant, keyed by the SHA-256 of the nonce: a double
+-- submission gets the payment of the first one instead of a second charge (see OmPayNonceRequests).
+-- Purged after nonceDedup.retentionMinutes.
+CREATE TABLE ompay_nonce_requests (
+    record_id SERIAL PRIMARY KEY,
+    nonce_hash CHAR(64) NOT NULL,
+    kb_account_id CHAR(36) NOT NULL,
+    kb_payment_id CHAR(36) NOT NULL,
+    kb_payment_transaction_id CHAR(36) NOT NULL,
+    transaction_type VARCHAR(32) NOT NULL,
+    created_date DATETIME NOT NULL,
+    kb_tenant_id CHAR(36) NOT NULL
+);
+CREATE UNIQUE INDEX ompay_nonce_requests_nonce_hash ON ompay_nonce_requests(kb_tenant_id, nonce_hash);
+CREATE INDEX ompay_nonce_requests_created_date ON ompay_nonce_requests(created_date);
@@ -0,0 +1,44 @@
+-- Optional: stores the Kill Bill ids (kb_*_id) as native uuid instead of CHAR(36), for PostgreSQL.
+-- 16 bytes per id instead of 37 and smaller, faster indexes. Existing rows are converted in place.
+-- Run once with the plugin stopped, then set org.killbill.billing.plugin.ompay.uuidStorage=native.
+
+ALTER TABLE ompay_responses
+    ALTER COLUMN kb_account_id TYPE uuid USING kb_account_id::uuid,
+    ALTER COLUMN kb_payment_id TYPE uuid USING kb_payment_id::uuid,
+    ALTER COLUMN kb_payment_transaction_id TYPE uuid USING kb_payment_transaction_id::uuid,
+    ALTER COLUMN kb_tenant_id TYPE uuid USING kb_tenant_id::uuid;
+
+ALTER TABLE ompay_response_payloads
+    ALTER COLUMN kb_tenant_id TYPE uuid USING kb_tenant_id::uuid;
+
+ALTER TABLE ompay_responses_archive
+    ALTER COLUMN kb_account_id TYPE uuid USING kb_account_id::uuid,
+    ALTER COLUMN kb_payment_id TYPE uuid USING kb_payment_id::uuid,
+    ALTER COLUMN kb_payment_transaction_id TYPE uuid USING kb_payment_transaction_id::uuid,
+    ALTER COLUMN kb_tenant_id TYPE uuid USING kb_tenant_id::uuid;
+
+ALTER TABLE ompay_response_payloads_archive
+    ALTER COLUMN kb_tenant_id TYPE uuid USING kb_tenant_id::uuid;
+
+ALTER TABLE ompay_payment_methods
+    ALTER COLUMN kb_account_id TYPE uuid USING kb_account_id::uuid,
+    ALTER COLUMN kb_payment_method_id TYPE uuid USING kb_payment_method_id::uuid,
+    ALTER COLUMN kb_tenant_id TYPE uuid USING kb_tenant_id::uuid;
+
+ALTER TABLE ompay_notification_outbox
+    ALTER COLUMN kb_account_id TYPE uuid USING kb_account_id::uuid,
+    ALTER COLUMN kb_payment_id TYPE uuid USING kb_payment_id::uuid,
+    ALTER COLUMN kb_payment_transaction_id TYPE uuid USING kb_payment_transaction_id::uuid,
+    ALTER COLUMN kb_tenant_id TYPE uuid USING kb_tenant_id::uuid;
+
+ALTER TABLE ompay_webhook_inbox
+    ALTER COLUMN kb_tenant_id TYPE uuid USING kb_tenant_id::uuid;
+
+ALTER TABLE ompay_webhook_notification_ids
+    ALTER COLUMN kb_tenant_id TYPE uuid USING kb_tenant_id::uuid;
+
+ALTER TABLE ompay_nonce_requests
+    ALTER COLUMN kb_account_id TYPE uuid USING kb_account_id::uuid,
+    ALTER COLUMN kb_payment_id TYPE uuid USING kb_payment_id::uuid,
+    ALTER COLUMN kb_payment_transaction_id TYPE uuid USING kb_payment_transaction_id::uuid,
+    ALTER COLUMN kb_tenant_id TYPE uuid USING kb_tenant_id::uuid;